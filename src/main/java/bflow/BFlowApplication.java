@@ -2,11 +2,13 @@ package bflow;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main entry point for the BFlow application.
  */
 @SpringBootApplication
+@EnableScheduling
 public final class BFlowApplication {
     /**
      * Private constructor to prevent instantiation.
@@ -0,0 +1,19 @@
+package bflow.auth.DTO.Record;
+
+/**
+ * Metrics of the registered email filter.
+ * @param enabled whether the filter is consulted at all.
+ * @param loaded whether the first scan of the users table completed.
+ * @param bits number of filter bits.
+ * @param hashes number of bits set per email.
+ * @param scannedEmails emails found by the last scan.
+ * @param negatives logins rejected as unknown without a lookup.
+ */
+public record KnownEmailFilterStats(
+        boolean enabled,
+        boolean loaded,
+        long bits,
+        int hashes,
+        long scannedEmails,
+        long negatives
+) { }
@@ -0,0 +1,19 @@
+package bflow.auth.DTO.Record;
+
+import java.time.Instant;
+
+/**
+ * Metrics of the refresh token purge job.
+ * @param runs number of completed runs.
+ * @param totalPurged rows deleted since startup.
+ * @param lastRunPurged rows deleted by the last run.
+ * @param lastRunMillis duration of the last run in milliseconds.
+ * @param lastRunAt start of the last run, null before the first one.
+ */
+public record RefreshTokenPurgeStats(
+        long runs,
+        long totalPurged,
+        int lastRunPurged,
+        long lastRunMillis,
+        Instant lastRunAt
+) { }
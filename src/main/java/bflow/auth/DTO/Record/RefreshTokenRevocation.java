@@ -0,0 +1,11 @@
+package bflow.auth.DTO.Record;
+
+/**
+ * Result of a mass logout.
+ * @param users number of distinct users requested.
+ * @param revoked number of refresh tokens revoked.
+ */
+public record RefreshTokenRevocation(
+        int users,
+        int revoked
+) { }
@@ -0,0 +1,34 @@
+package bflow.auth.DTO.Record;
+
+import bflow.auth.entities.User;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * User fields copied into access tokens.
+ * @param userId the user ID.
+ * @param email the user email.
+ * @param roles the user roles.
+ * @param enabled whether the user may sign in.
+ */
+public record UserClaims(
+        UUID userId,
+        String email,
+        List<String> roles,
+        boolean enabled
+) {
+
+    /**
+     * Copies the claims of a user.
+     * @param user the user entity.
+     * @return the claims.
+     */
+    public static UserClaims of(final User user) {
+        return new UserClaims(
+                user.getId(),
+                user.getEmail(),
+                List.copyOf(user.getRoles()),
+                user.isEnabled()
+        );
+    }
+}
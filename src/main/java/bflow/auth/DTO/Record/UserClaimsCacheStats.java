@@ -0,0 +1,15 @@
+package bflow.auth.DTO.Record;
+
+/**
+ * Metrics of the user claims cache.
+ * @param hits lookups answered from the cache.
+ * @param misses lookups that loaded the user.
+ * @param invalidations entries dropped after a user change.
+ * @param size number of cached users.
+ */
+public record UserClaimsCacheStats(
+        long hits,
+        long misses,
+        long invalidations,
+        int size
+) { }
@@ -5,11 +5,15 @@ import bflow.auth.DTO.AuthMeResponse;
 import bflow.auth.DTO.AuthRegisterRequest;
 import bflow.auth.DTO.Record.RefreshRotationResult;
 import bflow.auth.DTO.Record.RefreshSession;
+import bflow.auth.DTO.Record.UserClaims;
 import bflow.auth.entities.RefreshToken;
 import bflow.auth.entities.User;
+import bflow.auth.security.LoginThrottle;
 import bflow.auth.security.jwt.JwtService;
 import bflow.auth.services.AuthService;
 import bflow.auth.services.ServiceRefreshToken;
+import bflow.auth.services.UserClaimsCache;
+import bflow.common.exception.InvalidCredentialsException;
 import bflow.common.response.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -45,6 +49,10 @@ public class AuthController {
     private final JwtService jwtService;
     /** Service for managing refresh tokens. */
     private final ServiceRefreshToken serviceRefreshToken;
+    /** Limiter rejecting login bursts before any credential check. */
+    private final LoginThrottle loginThrottle;
+    /** Cache of the user claims copied into refreshed tokens. */
+    private final UserClaimsCache userClaimsCache;
 
     /** Total seconds in one day. */
     private static final int SECONDS_IN_A_DAY = 86400;
@@ -54,14 +62,21 @@ public class AuthController {
     /**
      * Authenticates a user and sets session cookies.
      * @param request the login credentials.
+     * @param servletRequest the servlet request, for the client address.
      * @param response the servlet response to attach cookies.
      * @return a empty success response.
      */
     @PostMapping("/login")
     public ResponseEntity<Void> login(
             @RequestBody final AuthLoginRequest request,
+            final HttpServletRequest servletRequest,
             final HttpServletResponse response
     ) {
+        loginThrottle.acquire(
+                request.getEmail(),
+                servletRequest.getRemoteAddr()
+        );
+
         User user = authService.authenticate(
                 request.getEmail(),
                 request.getPassword()
@@ -164,7 +179,8 @@ public class AuthController {
     }
 
     /**
-     * Rotates the refresh token and generates a new access token.
+     * Rotates the refresh token and generates a new access token. Claims
+     * come from the cache, and a disabled user loses all its sessions.
      * @param refreshToken current refresh token.
      * @param response servlet response.
      * @return success or unauthorized status.
@@ -181,13 +197,16 @@ public class AuthController {
 
         RefreshRotationResult result = serviceRefreshToken.rotate(refreshToken);
 
-        User user = authService.findById(result.userId());
-        List<String> roles = authService.getRoles(user);
+        UserClaims claims = userClaimsCache.get(result.userId());
+        if (!claims.enabled()) {
+            serviceRefreshToken.revokeAll(claims.userId());
+            throw new InvalidCredentialsException();
+        }
 
         String newAccessToken = jwtService.generateToken(
-                user.getId(),
-                user.getEmail(),
-                roles
+                claims.userId(),
+                claims.email(),
+                claims.roles()
         );
 
         setCookie(response,
@@ -1,10 +1,15 @@
 package bflow.auth.controllers;
 
+import bflow.auth.security.jwt.KeyRotationScheduler;
+import bflow.auth.security.jwt.RsaKeyPool;
 import bflow.auth.security.jwt.RsaKeyProvider;
+import bflow.auth.security.jwt.VerifiedTokenCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import java.util.Map;
 
 /**
  * Internal controller for managing RSA key rotation.
@@ -16,6 +21,12 @@ public final class KeyRotationController {
 
     /** Provider for RSA key operations. */
     private final RsaKeyProvider keyProvider;
+    /** Pool of pre-generated RSA key pairs. */
+    private final RsaKeyPool keyPool;
+    /** Cache of verified access tokens. */
+    private final VerifiedTokenCache verifiedTokenCache;
+    /** Scheduler rotating and retiring keys. */
+    private final KeyRotationScheduler rotationScheduler;
 
     /**
      * Triggers the rotation of the current RSA key pair.
@@ -24,4 +35,17 @@ public final class KeyRotationController {
     public void rotate() {
         keyProvider.rotate();
     }
+
+    /**
+     * Exposes key rotation, key pool and verified token cache metrics.
+     * @return the current metrics by component.
+     */
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return Map.of(
+                "rotation", rotationScheduler.stats(),
+                "keyPool", keyPool.stats(),
+                "tokenCache", verifiedTokenCache.stats()
+        );
+    }
 }
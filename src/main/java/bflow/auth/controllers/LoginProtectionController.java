@@ -0,0 +1,35 @@
+package bflow.auth.controllers;
+
+import bflow.auth.security.LoginThrottle;
+import bflow.auth.services.KnownEmailFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.Map;
+
+/**
+ * Internal controller exposing the metrics of the login protections.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/login")
+public final class LoginProtectionController {
+
+    /** Limiter applied to login attempts. */
+    private final LoginThrottle loginThrottle;
+    /** Filter of registered emails. */
+    private final KnownEmailFilter knownEmailFilter;
+
+    /**
+     * Exposes throttle limits and rejections, and email filter state.
+     * @return the current metrics by component.
+     */
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return Map.of(
+                "throttle", loginThrottle.stats(),
+                "emailFilter", knownEmailFilter.stats()
+        );
+    }
+}
@@ -0,0 +1,29 @@
+package bflow.auth.controllers;
+
+import bflow.auth.security.BoundedPasswordEncoder;
+import bflow.auth.security.PasswordHashingStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Internal controller exposing password hashing executor metrics.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/password-hashing")
+public final class PasswordHashingController {
+
+    /** Encoder running hashes on the bounded executor. */
+    private final BoundedPasswordEncoder passwordEncoder;
+
+    /**
+     * Exposes queue depth, active hashes and rejections.
+     * @return the current hashing stats.
+     */
+    @GetMapping("/stats")
+    public PasswordHashingStats stats() {
+        return passwordEncoder.stats();
+    }
+}
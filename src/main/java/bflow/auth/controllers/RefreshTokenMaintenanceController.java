@@ -0,0 +1,68 @@
+package bflow.auth.controllers;
+
+import bflow.auth.DTO.Record.RefreshTokenPurgeStats;
+import bflow.auth.DTO.Record.RefreshTokenRevocation;
+import bflow.auth.DTO.Record.UserClaimsCacheStats;
+import bflow.auth.services.RefreshTokenPurgeJob;
+import bflow.auth.services.ServiceRefreshToken;
+import bflow.auth.services.UserClaimsCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Internal controller for refresh token maintenance: mass logouts,
+ * purge metrics and claims cache metrics.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/refresh-tokens")
+public final class RefreshTokenMaintenanceController {
+
+    /** Service revoking refresh tokens. */
+    private final ServiceRefreshToken serviceRefreshToken;
+    /** Job purging expired refresh tokens. */
+    private final RefreshTokenPurgeJob purgeJob;
+    /** Cache of the claims copied into refreshed tokens. */
+    private final UserClaimsCache userClaimsCache;
+
+    /**
+     * Logs users out of every session, e.g. after a credential leak, by
+     * revoking all their active refresh tokens in batched statements.
+     * Access tokens already issued stay valid until they expire.
+     * @param userIds the users to log out.
+     * @return the number of users and of revoked tokens.
+     */
+    @PostMapping("/revoke")
+    public RefreshTokenRevocation revoke(
+            @RequestBody final Set<UUID> userIds
+    ) {
+        return new RefreshTokenRevocation(
+                userIds.size(),
+                serviceRefreshToken.revokeAll(userIds)
+        );
+    }
+
+    /**
+     * Exposes the purge job metrics.
+     * @return the current purge stats.
+     */
+    @GetMapping("/stats")
+    public RefreshTokenPurgeStats stats() {
+        return purgeJob.stats();
+    }
+
+    /**
+     * Exposes the hit rate and size of the user claims cache.
+     * @return the current cache stats.
+     */
+    @GetMapping("/claims-cache/stats")
+    public UserClaimsCacheStats claimsCacheStats() {
+        return userClaimsCache.stats();
+    }
+}
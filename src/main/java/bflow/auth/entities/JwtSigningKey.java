@@ -0,0 +1,54 @@
+package bflow.auth.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.Instant;
+
+/**
+ * Entity holding a JWT signing key shared by every application node.
+ * The private key is stored encrypted.
+ */
+@Entity
+@Table(name = "auth_signing_keys")
+@Getter
+@Setter
+public class JwtSigningKey {
+
+    /** Maximum length of the key identifier. */
+    private static final int MAX_KID_LENGTH = 64;
+
+    /** Maximum length of the algorithm name. */
+    private static final int MAX_ALGORITHM_LENGTH = 16;
+
+    /** Maximum length of the encoded key columns. */
+    private static final int KEY_COLUMN_LENGTH = 4096;
+
+    /** The key identifier written to token headers. */
+    @Id
+    @Column(length = MAX_KID_LENGTH)
+    private String kid;
+
+    /** The signing algorithm name. */
+    @Column(nullable = false, length = MAX_ALGORITHM_LENGTH)
+    private String algorithm;
+
+    /** The Base64 X.509 encoded public key. */
+    @Column(nullable = false, length = KEY_COLUMN_LENGTH)
+    private String publicKey;
+
+    /** The Base64 AES-GCM encrypted PKCS#8 private key. */
+    @Column(nullable = false, length = KEY_COLUMN_LENGTH)
+    private String encryptedPrivateKey;
+
+    /** When the key starts signing new tokens. */
+    @Column(nullable = false)
+    private Instant activatedAt;
+
+    /** The timestamp when the key was generated. */
+    @Column(nullable = false)
+    private Instant createdAt;
+}
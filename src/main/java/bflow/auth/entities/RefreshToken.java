@@ -3,7 +3,9 @@ package bflow.auth.entities;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.Setter;
 import java.time.Instant;
@@ -11,13 +13,35 @@ import java.util.UUID;
 
 /**
  * Entity representing an OAuth2/JWT refresh token.
+ * The unique hash index backs every refresh, logout and session lookup;
+ * the composite index serves the per-user active session queries and
+ * the expiry index serves the batched deletes of the purge job.
  */
 @Entity
-@Table(name = "auth_refresh_tokens")
+@Table(
+        name = "auth_refresh_tokens",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_refresh_token_hash",
+                columnNames = "tokenHash"
+        ),
+        indexes = {
+                @Index(
+                        name = "idx_refresh_token_user_active",
+                        columnList = "userId, revoked, expiresAt"
+                ),
+                @Index(
+                        name = "idx_refresh_token_expires_at",
+                        columnList = "expiresAt"
+                )
+        }
+)
 @Getter
 @Setter
 public class RefreshToken {
 
+    /** Length of a hex encoded SHA-256 hash. */
+    private static final int HASH_LENGTH = 64;
+
     /** Unique identifier for the token. */
     @Id
     private UUID id;
@@ -27,7 +51,7 @@ public class RefreshToken {
     private UUID userId;
 
     /** The hashed version of the refresh token. */
-    @Column(nullable = false)
+    @Column(nullable = false, length = HASH_LENGTH)
     private String tokenHash;
 
     /** The expiration timestamp of the token. */
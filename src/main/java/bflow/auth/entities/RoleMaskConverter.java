@@ -0,0 +1,41 @@
+package bflow.auth.entities;
+
+import bflow.auth.enums.UserRole;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Stores a set of role names as a bitmask of {@link UserRole} values, so
+ * roles are read with the user row instead of from a join table.
+ */
+@Converter
+public final class RoleMaskConverter
+        implements AttributeConverter<Set<String>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(final Set<String> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (String role : roles) {
+                mask |= UserRole.fromName(role).mask();
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public Set<String> convertToEntityAttribute(final Integer mask) {
+        if (mask == null) {
+            return Set.of();
+        }
+        Set<String> roles = new LinkedHashSet<>();
+        Arrays.stream(UserRole.values())
+                .filter(role -> (mask & role.mask()) != 0)
+                .forEach(role -> roles.add(role.name()));
+        return Collections.unmodifiableSet(roles);
+    }
+}
@@ -1,16 +1,15 @@
 package bflow.auth.entities;
 
 import bflow.auth.enums.AuthProvider;
-import jakarta.persistence.CollectionTable;
+import bflow.auth.services.UserClaimsInvalidator;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,9 +20,11 @@ import java.util.Set;
 import java.util.UUID;
 
 /**
- * Entity representing a system user.
+ * Entity representing a system user. Updates and deletes drop the
+ * cached token claims through {@link UserClaimsInvalidator}.
  */
 @Entity
+@EntityListeners(UserClaimsInvalidator.class)
 @Table(name = "users")
 @Getter
 @Setter
@@ -46,15 +47,18 @@ public class User {
     @Column(nullable = false)
     private AuthProvider provider;
 
-    /** The set of roles assigned to the user. */
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(
-            name = "user_roles",
-            joinColumns = @JoinColumn(name = "user_id")
+    /**
+     * The set of roles assigned to the user, stored as a bitmask in the
+     * user row. Existing rows default to the USER role.
+     */
+    @Convert(converter = RoleMaskConverter.class)
+    @Column(
+            name = "role_mask",
+            nullable = false,
+            columnDefinition = "integer default 1"
     )
-    @Column(name = "role")
     @Builder.Default
-    private Set<String> roles = Set.of("ROLE_USER");
+    private Set<String> roles = Set.of("USER");
 
     /** Indicates whether the user account is active. */
     @Builder.Default
@@ -0,0 +1,59 @@
+package bflow.auth.enums;
+
+import java.util.Locale;
+
+/**
+ * Enumeration of the roles a user can hold. Roles are persisted as a
+ * bitmask, so a role keeps its bit forever: append new roles with the
+ * next free bit and never reuse the bit of a removed one.
+ */
+public enum UserRole {
+    /** Regular user. */
+    USER(0),
+
+    /** Administrator. */
+    ADMIN(1);
+
+    /** Prefix Spring Security puts in front of role authorities. */
+    private static final String AUTHORITY_PREFIX = "ROLE_";
+
+    /** Bit of the role in the persisted mask. */
+    private final int mask;
+
+    /**
+     * Creates a role.
+     * @param bit position of the role in the persisted mask.
+     */
+    UserRole(final int bit) {
+        this.mask = 1 << bit;
+    }
+
+    /**
+     * Returns the bit of the role in the persisted mask.
+     * @return a single-bit mask.
+     */
+    public int mask() {
+        return mask;
+    }
+
+    /**
+     * Returns the authority Spring Security checks for the role.
+     * @return the role name with the {@code ROLE_} prefix.
+     */
+    public String authority() {
+        return AUTHORITY_PREFIX + name();
+    }
+
+    /**
+     * Parses a role name, with or without the {@code ROLE_} prefix.
+     * @param name the role name.
+     * @return the role.
+     * @throws IllegalArgumentException if the role is unknown.
+     */
+    public static UserRole fromName(final String name) {
+        String upper = name.trim().toUpperCase(Locale.ROOT);
+        return valueOf(upper.startsWith(AUTHORITY_PREFIX)
+                ? upper.substring(AUTHORITY_PREFIX.length())
+                : upper);
+    }
+}
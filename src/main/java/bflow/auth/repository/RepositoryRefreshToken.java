@@ -1,10 +1,17 @@
 package bflow.auth.repository;
 
 import bflow.auth.entities.RefreshToken;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,6 +30,20 @@ public interface RepositoryRefreshToken
      */
     Optional<RefreshToken> findByTokenHash(String tokenHash);
 
+    /**
+     * Finds a token by its hash only if it is still usable. The filter
+     * runs in the database on the unique hash index, and the entity is
+     * loaded read-only since callers never modify it.
+     * @param tokenHash the hashed token.
+     * @param now the current time to check against expiry.
+     * @return optional containing the active token.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    Optional<RefreshToken> findByTokenHashAndRevokedFalseAndExpiresAtAfter(
+            String tokenHash,
+            Instant now
+    );
+
     /**
      * Finds all active tokens for a user.
      * @param userId the user ID.
@@ -41,4 +62,93 @@ public interface RepositoryRefreshToken
             Instant now
     );
 
+    /**
+     * Revokes every active token of a user in a single statement.
+     * @param userId the user ID.
+     * @return the number of revoked tokens.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true "
+            + "WHERE rt.userId = :userId AND rt.revoked = false")
+    int revokeAllByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Revokes every active token of several users in a single statement.
+     * @param userIds the user IDs.
+     * @return the number of revoked tokens.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true "
+            + "WHERE rt.userId IN :userIds AND rt.revoked = false")
+    int revokeAllByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Deletes one bounded batch of tokens, revoked or not, that expired
+     * before a given instant, through the expiry index. The caller keeps
+     * every token for a retention period past its expiry, so presenting
+     * it is still answered as expired or detected as reuse.
+     * @param expiredBefore tokens expiring before this are deleted.
+     * @param limit maximum rows to delete.
+     * @return the number of deleted rows.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM auth_refresh_tokens WHERE id IN ("
+            + "SELECT id FROM auth_refresh_tokens "
+            + "WHERE expires_at < :expiredBefore "
+            + "LIMIT :limit)", nativeQuery = true)
+    int purgeExpiredBatch(
+            @Param("expiredBefore") Instant expiredBefore,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Claims a usable token and inserts its replacement in one
+     * statement. The conditional update locks the row, so when two
+     * requests race only one sees it unrevoked and inserts.
+     * @param tokenHash the hash of the token being exchanged.
+     * @param newId the replacement ID.
+     * @param newHash the replacement hash.
+     * @param createdAt the replacement creation time.
+     * @param expiresAt the replacement expiry.
+     * @param now the current time.
+     * @return the user ID if the token was claimed.
+     */
+    @Transactional
+    @Query(value = "WITH claimed AS ("
+            + "UPDATE auth_refresh_tokens "
+            + "SET revoked = true, replaced_by = :newId "
+            + "WHERE token_hash = :tokenHash AND revoked = false "
+            + "AND expires_at > :now RETURNING user_id) "
+            + "INSERT INTO auth_refresh_tokens "
+            + "(id, user_id, token_hash, expires_at, revoked, created_at) "
+            + "SELECT :newId, user_id, :newHash, :expiresAt, false, "
+            + ":createdAt FROM claimed RETURNING user_id",
+            nativeQuery = true)
+    Optional<UUID> rotateByTokenHash(
+            @Param("tokenHash") String tokenHash,
+            @Param("newId") UUID newId,
+            @Param("newHash") String newHash,
+            @Param("createdAt") Instant createdAt,
+            @Param("expiresAt") Instant expiresAt,
+            @Param("now") Instant now
+    );
+
+    /**
+     * Revokes a usable token in one statement.
+     * @param tokenHash the hashed token.
+     * @param now the current time.
+     * @return the user ID if the token was revoked.
+     */
+    @Transactional
+    @Query(value = "UPDATE auth_refresh_tokens SET revoked = true "
+            + "WHERE token_hash = :tokenHash AND revoked = false "
+            + "AND expires_at > :now RETURNING user_id",
+            nativeQuery = true)
+    Optional<UUID> revokeByTokenHash(
+            @Param("tokenHash") String tokenHash,
+            @Param("now") Instant now
+    );
 }
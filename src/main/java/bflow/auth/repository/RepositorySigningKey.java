@@ -0,0 +1,47 @@
+package bflow.auth.repository;
+
+import bflow.auth.entities.JwtSigningKey;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Repository for managing {@link JwtSigningKey} entities.
+ */
+@Repository
+public interface RepositorySigningKey
+        extends JpaRepository<JwtSigningKey, String> {
+
+    /**
+     * Inserts a key unless one with the same identifier exists. Unlike
+     * {@code save}, a concurrent insert of the same kid by another node
+     * is never overwritten.
+     * @param kid the key identifier.
+     * @param algorithm the signing algorithm name.
+     * @param publicKey the Base64 encoded public key.
+     * @param encryptedPrivateKey the encrypted private key.
+     * @param activatedAt when the key starts signing.
+     * @param createdAt when the key was generated.
+     * @return 1 if the row was inserted, 0 if the kid already existed.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO auth_signing_keys "
+            + "(kid, algorithm, public_key, encrypted_private_key, "
+            + "activated_at, created_at) VALUES (:kid, :algorithm, "
+            + ":publicKey, :encryptedPrivateKey, :activatedAt, :createdAt) "
+            + "ON CONFLICT (kid) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(
+            @Param("kid") String kid,
+            @Param("algorithm") String algorithm,
+            @Param("publicKey") String publicKey,
+            @Param("encryptedPrivateKey") String encryptedPrivateKey,
+            @Param("activatedAt") Instant activatedAt,
+            @Param("createdAt") Instant createdAt
+    );
+}
@@ -1,9 +1,15 @@
 package bflow.auth.repository;
 
 import bflow.auth.entities.User;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,4 +33,76 @@ public interface RepositoryUser
      * @return optional user.
      */
     Optional<User> findByEmail(String email);
+
+    /**
+     * Lists registered emails in order, one page after the given email.
+     * Seeking past the last email of the previous page keeps every page
+     * an index range scan, however deep into the table it is.
+     * @param after the last email of the previous page, or an empty
+     *              string for the first page.
+     * @param page the page size.
+     * @return the next emails in ascending order.
+     */
+    @Query("""
+        SELECT u.email
+        FROM User u
+        WHERE u.email > :after
+        ORDER BY u.email
+    """)
+    List<String> findEmailsAfter(
+            @Param("after") String after,
+            Pageable page
+    );
+
+    /**
+     * Checks whether the role table used before role_mask still exists.
+     * @return true if user_roles exists.
+     */
+    @Query(value = "SELECT to_regclass('user_roles') IS NOT NULL",
+            nativeQuery = true)
+    boolean hasLegacyRoleTable();
+
+    /**
+     * Takes the cluster-wide role migration lock until the end of the
+     * caller's transaction, waiting for a node already holding it.
+     * @return always 1.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock("
+            + "hashtextextended('bflow.user.role-migration', 0))) AS locked",
+            nativeQuery = true)
+    long lockRoleMigration();
+
+    /**
+     * Sets every role_mask from the rows of user_roles. Role names may
+     * carry the ROLE_ prefix; the bits are those of UserRole (USER 1,
+     * ADMIN 2), and a user without rows gets no roles.
+     * @return the number of users updated.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users u SET role_mask = COALESCE(("
+            + "SELECT bit_or(CASE upper(regexp_replace("
+            + "r.role, '^role_', '', 'i')) "
+            + "WHEN 'USER' THEN 1 WHEN 'ADMIN' THEN 2 ELSE 0 END) "
+            + "FROM user_roles r WHERE r.user_id = u.id), 0)",
+            nativeQuery = true)
+    int foldLegacyRoles();
+
+    /**
+     * Lists role names in user_roles that map to no UserRole, so the
+     * migration can report what it drops.
+     * @return the distinct unknown role names.
+     */
+    @Query(value = "SELECT DISTINCT role FROM user_roles WHERE upper("
+            + "regexp_replace(role, '^role_', '', 'i')) "
+            + "NOT IN ('USER', 'ADMIN')", nativeQuery = true)
+    List<String> findUnknownLegacyRoles();
+
+    /**
+     * Drops user_roles once its rows are folded into role_mask.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DROP TABLE user_roles", nativeQuery = true)
+    void dropLegacyRoleTable();
 }
@@ -0,0 +1,106 @@
+package bflow.auth.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * Picks Argon2 costs for this machine. Memory starts at the configured
+ * budget and iterations are scaled from a measured hash to reach the
+ * target latency. If even the minimum iterations are too slow, memory
+ * is halved down to the OWASP floor of 19 MiB.
+ * <p>
+ * Each measurement is the median of several hashes and iterations are
+ * rounded down to a multiple of {@link #ITERATION_STEP}, so restarts
+ * and nodes on the same hardware settle on the same costs.
+ */
+public final class Argon2Calibrator {
+
+    /** Lowest memory cost considered, in KB (19 MiB). */
+    static final int MIN_MEMORY_KB = 19 * 1024;
+
+    /** Lowest iteration count considered. */
+    static final int MIN_ITERATIONS = 2;
+
+    /** Highest iteration count considered. */
+    static final int MAX_ITERATIONS = 20;
+
+    /** Granularity of the chosen iteration count. */
+    static final int ITERATION_STEP = 2;
+
+    /** Number of timed hashes per measurement. */
+    private static final int SAMPLES = 5;
+
+    /** Nanoseconds per millisecond. */
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    /** Measures the cost of one hash in nanoseconds. */
+    private final ToLongFunction<Argon2Parameters> hashCost;
+
+    /**
+     * Creates a calibrator with a custom cost measurement.
+     * @param cost measures the cost of one hash in nanoseconds.
+     */
+    public Argon2Calibrator(final ToLongFunction<Argon2Parameters> cost) {
+        this.hashCost = cost;
+    }
+
+    /**
+     * Creates a calibrator timing real hashes.
+     * @return the calibrator.
+     */
+    public static Argon2Calibrator measuring() {
+        return new Argon2Calibrator(Argon2Calibrator::timeHash);
+    }
+
+    /**
+     * Chooses memory and iterations for a target latency.
+     * @param base parameters supplying salt, hash length and parallelism.
+     * @param targetMillis the target hash latency.
+     * @param memoryBudgetKb the largest memory cost allowed.
+     * @return the calibrated parameters.
+     */
+    public Argon2Parameters calibrate(
+            final Argon2Parameters base,
+            final long targetMillis,
+            final int memoryBudgetKb
+    ) {
+        long target = targetMillis * NANOS_PER_MILLI;
+        int memory = Math.max(memoryBudgetKb, MIN_MEMORY_KB);
+        long cost = hashCost.applyAsLong(
+                base.withCost(memory, MIN_ITERATIONS));
+        while (cost > target && memory / 2 >= MIN_MEMORY_KB) {
+            memory /= 2;
+            cost = hashCost.applyAsLong(base.withCost(memory, MIN_ITERATIONS));
+        }
+        long perIteration = Math.max(1, cost / MIN_ITERATIONS);
+        long iterations = target / perIteration / ITERATION_STEP
+                * ITERATION_STEP;
+        return base.withCost(memory, (int) Math.min(
+                MAX_ITERATIONS, Math.max(MIN_ITERATIONS, iterations)));
+    }
+
+    /**
+     * Times several hashes after a warm-up run.
+     * @param parameters the parameters to time.
+     * @return the median duration of a hash in nanoseconds.
+     */
+    private static long timeHash(final Argon2Parameters parameters) {
+        Argon2PasswordEncoder encoder = new Argon2PasswordEncoder(
+                parameters.saltLength(),
+                parameters.hashLength(),
+                parameters.parallelism(),
+                parameters.memoryKb(),
+                parameters.iterations()
+        );
+        encoder.encode("calibration");
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,70 @@
+package bflow.auth.security;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Argon2 cost parameters.
+ * @param saltLength the salt length in bytes.
+ * @param hashLength the hash length in bytes.
+ * @param parallelism the degree of parallelism.
+ * @param memoryKb the memory cost in KB.
+ * @param iterations the number of iterations.
+ */
+public record Argon2Parameters(
+        int saltLength,
+        int hashLength,
+        int parallelism,
+        int memoryKb,
+        int iterations
+) {
+
+    /** Number of {@code $}-separated sections of an encoded hash. */
+    private static final int ENCODED_SECTIONS = 6;
+
+    /** Index of the {@code m=..,t=..,p=..} section. */
+    private static final int COST_SECTION = 3;
+
+    /**
+     * Returns a copy with other memory and iteration costs.
+     * @param memory the memory cost in KB.
+     * @param passes the number of iterations.
+     * @return the new parameters.
+     */
+    public Argon2Parameters withCost(final int memory, final int passes) {
+        return new Argon2Parameters(
+                saltLength, hashLength, parallelism, memory, passes);
+    }
+
+    /**
+     * Tells whether an encoded hash was produced with lower memory or
+     * iteration costs than these. The costs are read from the
+     * {@code $argon2id$v=19$m=..,t=..,p=..$} header; parallelism changes
+     * the layout, not the strength, so it is not compared.
+     * @param encoded the stored hash.
+     * @return true if the hash is weaker; false if it is at least as
+     *         strong or cannot be parsed.
+     */
+    public boolean strongerThan(final String encoded) {
+        if (encoded == null) {
+            return false;
+        }
+        String[] sections = encoded.split("\\$");
+        if (sections.length != ENCODED_SECTIONS) {
+            return false;
+        }
+        Map<String, String> costs = new HashMap<>();
+        for (String pair : sections[COST_SECTION].split(",")) {
+            String[] kv = pair.split("=", 2);
+            if (kv.length == 2) {
+                costs.put(kv[0], kv[1]);
+            }
+        }
+        try {
+            return Integer.parseInt(costs.get("m")) < memoryKb
+                    || Integer.parseInt(costs.get("t")) < iterations;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
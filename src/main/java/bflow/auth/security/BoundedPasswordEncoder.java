@@ -0,0 +1,148 @@
+package bflow.auth.security;
+
+import bflow.common.exception.ServiceOverloadedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Password encoder running the delegate on a dedicated, bounded pool.
+ * Argon2 costs tens of megabytes and a lot of CPU per hash, so only a
+ * fixed number of hashes run at once and a burst beyond the queue is
+ * rejected with {@link ServiceOverloadedException} instead of tying up
+ * servlet threads and memory needed by cheap read requests.
+ */
+public final class BoundedPasswordEncoder implements PasswordEncoder {
+
+    /** Longest time a request waits for its hash, queueing included. */
+    private static final long TIMEOUT_SECONDS = 10;
+
+    /** The wrapped encoder. */
+    private final PasswordEncoder delegate;
+
+    /** The hashing pool. */
+    private final ThreadPoolExecutor executor;
+
+    /** Hashes rejected because the queue was full. */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates the encoder.
+     * @param encoder the wrapped encoder.
+     * @param threads number of hashing threads.
+     * @param queueCapacity maximum number of waiting hashes.
+     */
+    public BoundedPasswordEncoder(
+            final PasswordEncoder encoder,
+            final int threads,
+            final int queueCapacity
+    ) {
+        this.delegate = encoder;
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(
+            final CharSequence rawPassword,
+            final String encodedPassword
+    ) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Returns the current executor metrics.
+     * @return a stats snapshot.
+     */
+    public PasswordHashingStats stats() {
+        return new PasswordHashingStats(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                executor.getQueue().size()
+                        + executor.getQueue().remainingCapacity(),
+                executor.getCompletedTaskCount(),
+                rejected.sum()
+        );
+    }
+
+    /**
+     * Stops the hashing threads on context shutdown.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a hashing task on the pool and waits for its result.
+     * @param task the hashing task.
+     * @param <T> the result type.
+     * @return the task result.
+     */
+    private <T> T run(final Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException(
+                    "Too many concurrent sign-ins, retry shortly");
+        }
+        try {
+            return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceOverloadedException(
+                    "Password hashing timed out, retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Creates named daemon threads for the pool.
+     * @return the thread factory.
+     */
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(
+                    runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
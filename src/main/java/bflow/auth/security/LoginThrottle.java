@@ -0,0 +1,365 @@
+package bflow.auth.security;
+
+import bflow.common.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window limiter for login attempts, keyed by email and by
+ * client address. It runs before any database lookup or password hash,
+ * so a credential-stuffing burst is turned away for the cost of a few
+ * atomic reads.
+ *
+ * <p>Attempts are counted in count-min sketches, one for the current
+ * fixed window and one for the previous window, weighted by how much of
+ * it still overlaps the sliding window. Emails and addresses have their
+ * own sketches, each sized from the expected attempts per window and its
+ * limit, so a burst on one kind of key cannot push innocent keys of the
+ * other kind over their limit. Each sketch is a fixed array of
+ * atomic counters, so memory stays bounded however many keys are seen,
+ * and updates never lock: a new window is published with a single
+ * compare-and-set. A sketch can only overestimate, never let a key
+ * through past its limit. Row hashes use random seeds so clients cannot
+ * craft keys that collide with a victim's.
+ */
+@Component
+public final class LoginThrottle {
+
+    /** Number of hash rows per sketch. */
+    private static final int DEPTH = 4;
+
+    /**
+     * Counters per row for each allowed attempt, so the expected
+     * overestimate stays well below the limit (2e for an error of half
+     * the limit).
+     */
+    private static final double COUNTERS_PER_LIMIT = 2 * Math.E;
+
+    /** Largest number of counters per row. */
+    private static final int MAX_WIDTH = 4 * 1024 * 1024;
+
+    /** Milliseconds in one second. */
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    /** FNV-1a 64-bit prime. */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** First multiplier of the 64-bit finalizer. */
+    private static final long MIX_1 = 0xff51afd7ed558ccdL;
+
+    /** Second multiplier of the 64-bit finalizer. */
+    private static final long MIX_2 = 0xc4ceb9fe1a85ec53L;
+
+    /** Shift of the 64-bit finalizer. */
+    private static final int MIX_SHIFT = 33;
+
+    /** Attempts allowed per email within one window. */
+    private final int maxPerEmail;
+
+    /** Attempts allowed per client address within one window. */
+    private final int maxPerAddress;
+
+    /** Length of the sliding window in milliseconds. */
+    private final long windowMillis;
+
+    /** Counters per hash row of the email sketches, a power of two. */
+    private final int emailWidth;
+
+    /** Counters per hash row of the address sketches, a power of two. */
+    private final int addressWidth;
+
+    /** Per-row hash seeds. */
+    private final long[] seeds = new long[DEPTH];
+
+    /** Source of the current time in epoch milliseconds. */
+    private final LongSupplier clock;
+
+    /** Current and previous window sketches. */
+    private final AtomicReference<Windows> windows;
+
+    /** Attempts let through. */
+    private final LongAdder allowed = new LongAdder();
+
+    /** Attempts rejected. */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates the throttle from configuration.
+     * @param emailLimit attempts allowed per email within one window.
+     * @param addressLimit attempts allowed per address within one window.
+     * @param window length of the sliding window in milliseconds.
+     * @param expectedAttempts attempts expected within one window.
+     */
+    @Autowired
+    public LoginThrottle(
+            @Value("${bflow.login-throttle.max-per-email:10}")
+            final int emailLimit,
+            @Value("${bflow.login-throttle.max-per-address:100}")
+            final int addressLimit,
+            @Value("${bflow.login-throttle.window-ms:60000}")
+            final long window,
+            @Value("${bflow.login-throttle.expected-attempts:100000}")
+            final long expectedAttempts
+    ) {
+        this(emailLimit, addressLimit, window, expectedAttempts,
+                System::currentTimeMillis);
+    }
+
+    /**
+     * Creates the throttle with an explicit clock.
+     * @param emailLimit attempts allowed per email within one window.
+     * @param addressLimit attempts allowed per address within one window.
+     * @param window length of the sliding window in milliseconds.
+     * @param expectedAttempts attempts expected within one window.
+     * @param millisClock source of the current time in epoch milliseconds.
+     */
+    public LoginThrottle(
+            final int emailLimit,
+            final int addressLimit,
+            final long window,
+            final long expectedAttempts,
+            final LongSupplier millisClock
+    ) {
+        if (emailLimit < 1 || addressLimit < 1 || window < 1
+                || expectedAttempts < 1) {
+            throw new IllegalArgumentException(
+                    "Login throttle limits must be positive");
+        }
+        this.maxPerEmail = emailLimit;
+        this.maxPerAddress = addressLimit;
+        this.windowMillis = window;
+        this.emailWidth = width(expectedAttempts, emailLimit);
+        this.addressWidth = width(expectedAttempts, addressLimit);
+        this.clock = millisClock;
+        SecureRandom random = new SecureRandom();
+        for (int row = 0; row < DEPTH; row++) {
+            seeds[row] = random.nextLong();
+        }
+        this.windows = new AtomicReference<>(new Windows(
+                new Sketch(millisClock.getAsLong() / window), null));
+    }
+
+    /**
+     * Records a login attempt, or rejects it if the email or the client
+     * address has used up its attempts for the sliding window. Rejected
+     * attempts are not counted, so a client that keeps retrying is let
+     * back in as soon as its earlier attempts slide out.
+     * @param email the email the client is signing in with.
+     * @param address the client address.
+     * @throws TooManyRequestsException if a limit is reached.
+     */
+    public void acquire(final String email, final String address) {
+        long now = clock.getAsLong();
+        Windows current = advance(now);
+        double elapsed = (double) (now - current.latest.index * windowMillis)
+                / windowMillis;
+        double previousWeight = Math.max(0.0, Math.min(1.0, 1.0 - elapsed));
+        int[] emailSlots = slots(normalize(email), emailWidth);
+        int[] addressSlots = slots(String.valueOf(address), addressWidth);
+        if (current.estimate(emailSlots, previousWeight, true) >= maxPerEmail
+                || current.estimate(addressSlots, previousWeight, false)
+                        >= maxPerAddress) {
+            rejected.increment();
+            throw new TooManyRequestsException(
+                    "Too many login attempts, retry later",
+                    Math.max(1, windowMillis / MILLIS_PER_SECOND));
+        }
+        current.latest.emails.add(emailSlots);
+        current.latest.addresses.add(addressSlots);
+        allowed.increment();
+    }
+
+    /**
+     * Returns the current throttle metrics.
+     * @return a stats snapshot.
+     */
+    public LoginThrottleStats stats() {
+        return new LoginThrottleStats(
+                maxPerEmail,
+                maxPerAddress,
+                windowMillis,
+                allowed.sum(),
+                rejected.sum()
+        );
+    }
+
+    /**
+     * Returns the sketches for the window containing the instant,
+     * publishing a new current window if the previous one has ended.
+     * @param now the current time in epoch milliseconds.
+     * @return the sketches to count against.
+     */
+    private Windows advance(final long now) {
+        long index = now / windowMillis;
+        while (true) {
+            Windows current = windows.get();
+            if (current.latest.index >= index) {
+                return current;
+            }
+            Sketch previous = current.latest.index == index - 1
+                    ? current.latest
+                    : null;
+            Windows next = new Windows(new Sketch(index), previous);
+            if (windows.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Sizes a sketch so that, with the expected attempts spread over it,
+     * a key is unlikely to be overestimated by more than half its limit.
+     * @param expectedAttempts attempts expected within one window.
+     * @param limit attempts allowed per key.
+     * @return counters per hash row, a power of two.
+     */
+    private static int width(final long expectedAttempts, final int limit) {
+        long wanted = (long) Math.ceil(
+                COUNTERS_PER_LIMIT * expectedAttempts / limit);
+        int capped = (int) Math.max(1, Math.min(MAX_WIDTH, wanted));
+        return Integer.highestOneBit(capped) == capped
+                ? capped
+                : Integer.highestOneBit(capped) << 1;
+    }
+
+    /**
+     * Lowercases an email so case variants share one counter.
+     * @param email the email, possibly null.
+     * @return the normalized email.
+     */
+    private static String normalize(final String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Hashes a key to one counter index per row.
+     * @param key the throttled key.
+     * @param width counters per row of the target sketch.
+     * @return the counter indexes, row by row.
+     */
+    private int[] slots(final String key, final int width) {
+        int[] slots = new int[DEPTH];
+        for (int row = 0; row < DEPTH; row++) {
+            long hash = seeds[row];
+            for (int i = 0; i < key.length(); i++) {
+                hash = (hash ^ key.charAt(i)) * FNV_PRIME;
+            }
+            hash = (hash ^ (hash >>> MIX_SHIFT)) * MIX_1;
+            hash = (hash ^ (hash >>> MIX_SHIFT)) * MIX_2;
+            hash ^= hash >>> MIX_SHIFT;
+            slots[row] = row * width + (int) (hash & (width - 1));
+        }
+        return slots;
+    }
+
+    /**
+     * Sketches of the current and previous fixed windows.
+     * @param latest the sketch of the current window.
+     * @param previous the sketch of the window before, or null if no
+     *                 attempt was made in it.
+     */
+    private record Windows(Sketch latest, Sketch previous) {
+
+        /**
+         * Estimates the attempts of a key over the sliding window.
+         * @param slots the counter indexes of the key.
+         * @param previousWeight share of the previous window still
+         *                       inside the sliding window.
+         * @param email true for an email key, false for an address.
+         * @return the estimated number of attempts.
+         */
+        double estimate(
+                final int[] slots,
+                final double previousWeight,
+                final boolean email
+        ) {
+            double count = latest.of(email).count(slots);
+            if (previous != null) {
+                count += previous.of(email).count(slots) * previousWeight;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Email and address sketches of the attempts made within one fixed
+     * window.
+     */
+    private final class Sketch {
+
+        /** Index of the window since the epoch. */
+        private final long index;
+
+        /** Attempts per email. */
+        private final Counters emails;
+
+        /** Attempts per client address. */
+        private final Counters addresses;
+
+        /**
+         * Creates empty sketches.
+         * @param windowIndex index of the window since the epoch.
+         */
+        Sketch(final long windowIndex) {
+            this.index = windowIndex;
+            this.emails = new Counters(emailWidth);
+            this.addresses = new Counters(addressWidth);
+        }
+
+        /**
+         * Returns the sketch of one kind of key.
+         * @param email true for emails, false for addresses.
+         * @return the matching counters.
+         */
+        Counters of(final boolean email) {
+            return email ? emails : addresses;
+        }
+    }
+
+    /**
+     * Count-min sketch of one kind of key.
+     */
+    private static final class Counters {
+
+        /** Counters of every row, laid out row after row. */
+        private final AtomicLongArray counters;
+
+        /**
+         * Creates an empty sketch.
+         * @param width counters per row.
+         */
+        Counters(final int width) {
+            this.counters = new AtomicLongArray(DEPTH * width);
+        }
+
+        /**
+         * Counts one attempt for a key.
+         * @param slots the counter indexes of the key.
+         */
+        void add(final int[] slots) {
+            for (int slot : slots) {
+                counters.incrementAndGet(slot);
+            }
+        }
+
+        /**
+         * Estimates the attempts of a key, never below the real count.
+         * @param slots the counter indexes of the key.
+         * @return the smallest counter of the key.
+         */
+        long count(final int[] slots) {
+            long min = Long.MAX_VALUE;
+            for (int slot : slots) {
+                min = Math.min(min, counters.get(slot));
+            }
+            return min;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package bflow.auth.security;
+
+/**
+ * Snapshot of the login throttle.
+ * @param maxPerEmail attempts allowed per email within one window.
+ * @param maxPerAddress attempts allowed per client address within one
+ *                      window.
+ * @param windowMs length of the sliding window in milliseconds.
+ * @param allowed attempts let through since startup.
+ * @param rejected attempts rejected since startup.
+ */
+public record LoginThrottleStats(
+        int maxPerEmail,
+        int maxPerAddress,
+        long windowMs,
+        long allowed,
+        long rejected
+) {
+}
@@ -1,13 +1,25 @@
 package bflow.auth.security;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
- * Configuration for password hashing using Argon2.
+ * Configuration for password hashing using Argon2, run on a bounded
+ * executor sized by {@code bflow.password.hash-threads} (0 means one per
+ * CPU) and {@code bflow.password.hash-queue}.
+ * <p>
+ * By default the costs are {@code bflow.password.argon2.memory-kb} and
+ * {@code bflow.password.argon2.iterations}, shared by every node. With
+ * {@code bflow.password.argon2.mode=calibrated} the memory and
+ * iteration costs are measured on boot to hit
+ * {@code bflow.password.argon2.target-ms} within the memory setting;
+ * the chosen costs are logged so they can be pinned in the fixed
+ * settings. Hashes made with lower costs are re-encoded on the next
+ * successful login.
  */
+@Slf4j
 @Configuration
 public class PasswordEncoderConfig {
     /** The salt length in bytes. */
@@ -16,23 +28,51 @@ public class PasswordEncoderConfig {
     private static final int HASH_LENGTH = 32;
     /** The degree of parallelism. */
     private static final int PARALLELISM = 8;
-    /** The memory cost in KB (64MB). */
-    private static final int MEMORY = 65536;
-    /** The number of iterations. */
-    private static final int ITERATIONS = 10;
 
     /**
      * Provides the Argon2 password encoder bean.
-     * @return an Argon2PasswordEncoder instance.
+     * @param threads number of hashing threads, 0 for one per CPU.
+     * @param queueCapacity maximum number of waiting hashes.
+     * @param mode {@code fixed} or {@code calibrated}.
+     * @param targetMillis target hash latency in calibrated mode.
+     * @param memoryKb memory cost, or the budget in calibrated mode.
+     * @param iterations number of iterations in fixed mode.
+     * @return an Argon2 encoder running on a bounded executor.
      */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new Argon2PasswordEncoder(
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${bflow.password.hash-threads:0}") final int threads,
+            @Value("${bflow.password.hash-queue:64}") final int queueCapacity,
+            @Value("${bflow.password.argon2.mode:fixed}") final String mode,
+            @Value("${bflow.password.argon2.target-ms:250}")
+            final long targetMillis,
+            @Value("${bflow.password.argon2.memory-kb:65536}")
+            final int memoryKb,
+            @Value("${bflow.password.argon2.iterations:10}")
+            final int iterations
+    ) {
+        Argon2Parameters parameters = new Argon2Parameters(
                 SALT_LENGTH,
                 HASH_LENGTH,
                 PARALLELISM,
-                MEMORY,
-                ITERATIONS
+                memoryKb,
+                iterations
+        );
+        if ("calibrated".equalsIgnoreCase(mode)) {
+            parameters = Argon2Calibrator.measuring()
+                    .calibrate(parameters, targetMillis, memoryKb);
+        }
+        log.info("Argon2 costs: memory={}KB iterations={} parallelism={}",
+                parameters.memoryKb(),
+                parameters.iterations(),
+                parameters.parallelism());
+        int poolSize = threads > 0
+                ? threads
+                : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                new TunedArgon2PasswordEncoder(parameters),
+                poolSize,
+                queueCapacity
         );
     }
 }
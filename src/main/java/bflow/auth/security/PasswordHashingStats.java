@@ -0,0 +1,20 @@
+package bflow.auth.security;
+
+/**
+ * Snapshot of the password hashing executor.
+ * @param threads number of hashing threads.
+ * @param active hashes currently running.
+ * @param queued hashes waiting for a thread.
+ * @param queueCapacity maximum number of waiting hashes.
+ * @param completed hashes finished since startup.
+ * @param rejected hashes rejected because the queue was full.
+ */
+public record PasswordHashingStats(
+        int threads,
+        int active,
+        int queued,
+        int queueCapacity,
+        long completed,
+        long rejected
+) {
+}
@@ -1,5 +1,6 @@
 package bflow.auth.security;
 
+import bflow.auth.enums.UserRole;
 import bflow.auth.security.jwt.JwtAuthenticationFilter;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -61,6 +62,11 @@ public class SecurityConfig {
                         .permitAll()
                     .requestMatchers("/login/oauth2/**", "/oauth2/**")
                         .permitAll()
+                    // Password logins carry bare role names, OAuth2 logins
+                    // prefixed ones
+                    .requestMatchers("/internal/**")
+                        .hasAnyAuthority(UserRole.ADMIN.name(),
+                                UserRole.ADMIN.authority())
                     .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth2 ->
@@ -0,0 +1,60 @@
+package bflow.auth.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Argon2 encoder that asks for a re-encode when a stored hash was made
+ * with lower costs than the active ones. Hashes made with higher costs
+ * are kept, so nodes that briefly disagree on the costs never re-hash a
+ * password back and forth.
+ */
+public final class TunedArgon2PasswordEncoder implements PasswordEncoder {
+
+    /** The active parameters. */
+    private final Argon2Parameters parameters;
+
+    /** The underlying encoder. */
+    private final Argon2PasswordEncoder delegate;
+
+    /**
+     * Creates the encoder.
+     * @param argon2Parameters the active parameters.
+     */
+    public TunedArgon2PasswordEncoder(final Argon2Parameters argon2Parameters) {
+        this.parameters = argon2Parameters;
+        this.delegate = new Argon2PasswordEncoder(
+                argon2Parameters.saltLength(),
+                argon2Parameters.hashLength(),
+                argon2Parameters.parallelism(),
+                argon2Parameters.memoryKb(),
+                argon2Parameters.iterations()
+        );
+    }
+
+    /**
+     * Returns the active parameters.
+     * @return the parameters new hashes are made with.
+     */
+    public Argon2Parameters parameters() {
+        return parameters;
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(
+            final CharSequence rawPassword,
+            final String encodedPassword
+    ) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return parameters.strongerThan(encodedPassword);
+    }
+}
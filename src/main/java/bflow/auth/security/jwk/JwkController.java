@@ -1,28 +1,69 @@
 package bflow.auth.security.jwk;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import java.util.Map;
+import org.springframework.web.context.request.WebRequest;
+import java.time.Duration;
 
 /**
  * Controller that exposes the JSON Web Key Set (JWKS) endpoint.
+ * The max-age is the same setting that delays the activation of a
+ * rotated key, so a cached key set never misses the signing key.
  */
 @RestController
 @RequestMapping("/.well-known")
-@RequiredArgsConstructor
 public final class JwkController {
 
     /** Service for retrieving formatted JWK data. */
     private final JwkService jwkService;
 
+    /** How long clients may cache the key set. */
+    private final Duration maxAge;
+
+    /**
+     * Creates the controller.
+     * @param service the service building the key set document.
+     * @param maxAgeMs how long clients may cache the key set.
+     */
+    public JwkController(
+            final JwkService service,
+            @Value("${bflow.jwt.jwks-max-age-ms:300000}")
+            final long maxAgeMs
+    ) {
+        this.jwkService = service;
+        this.maxAge = Duration.ofMillis(maxAgeMs);
+    }
+
     /**
      * Exposes the public keys used for JWT signature verification.
-     * @return a map representing the JWKS (JSON Web Key Set).
+     * Answers 304 Not Modified when the client already holds the
+     * current version.
+     * @param request the current request, used for If-None-Match.
+     * @return the serialized JWKS (JSON Web Key Set).
      */
     @GetMapping("/jwks.json")
-    public Map<String, Object> keys() {
-        return jwkService.getJwks();
+    public ResponseEntity<byte[]> keys(final WebRequest request) {
+        JwksDocument jwks = jwkService.getJwksDocument();
+        CacheControl cacheControl = CacheControl.maxAge(maxAge)
+                .cachePublic();
+
+        if (request.checkNotModified(jwks.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(jwks.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(jwks.etag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jwks.body());
     }
 }
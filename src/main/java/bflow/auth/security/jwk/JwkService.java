@@ -11,4 +11,10 @@ public interface JwkService {
      * @return a map containing the list of JWKs.
      */
     Map<String, Object> getJwks();
+
+    /**
+     * Retrieves the JWKS serialized once per key set version.
+     * @return the cached document with its entity tag.
+     */
+    JwksDocument getJwksDocument();
 }
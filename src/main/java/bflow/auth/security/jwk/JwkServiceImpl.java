@@ -1,52 +1,127 @@
 package bflow.auth.security.jwk;
 
+import bflow.auth.security.jwt.KeySet;
 import bflow.auth.security.jwt.RsaKeyProvider;
+import bflow.auth.security.jwt.SigningKey;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Base64URL;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
 import java.security.interfaces.RSAPublicKey;
-import java.util.Base64;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Implementation of {@link JwkService} that transforms RSA keys into JWK maps.
+ * Implementation of {@link JwkService} that transforms the signing keys
+ * into JWK maps (RSA, EC or OKP depending on the key type).
+ * The serialized document is rebuilt only when the key set version
+ * changes, i.e. after a rotation. Keys are listed in activation order,
+ * so nodes with the same keys serve the same bytes and ETag.
  */
 @Service
 @RequiredArgsConstructor
 public final class JwkServiceImpl implements JwkService {
 
-    /** Provider for retrieving the current RSA key pairs. */
+    /** Length in bytes of a raw Ed25519 public key. */
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    /** Provider for retrieving the current signing keys. */
     private final RsaKeyProvider rsaKeyProvider;
 
+    /** Last serialized document, tagged with its key set version. */
+    private final AtomicReference<JwksDocument> document =
+            new AtomicReference<>();
+
     @Override
     public Map<String, Object> getJwks() {
+        return toJwkSet(rsaKeyProvider.getKeySet()).toJSONObject(true);
+    }
+
+    @Override
+    public JwksDocument getJwksDocument() {
+        KeySet keySet = rsaKeyProvider.getKeySet();
+        JwksDocument current = document.get();
+
+        if (current != null && current.version() == keySet.version()) {
+            return current;
+        }
+
+        byte[] body = toJwkSet(keySet).toString(true)
+                .getBytes(StandardCharsets.UTF_8);
+        JwksDocument rebuilt = new JwksDocument(
+                body,
+                "\"" + DigestUtils.sha256Hex(body) + "\"",
+                keySet.version()
+        );
+        document.set(rebuilt);
+        return rebuilt;
+    }
 
-        List<Map<String, Object>> keys = rsaKeyProvider
-                .getAll()
-                .values()
+    /**
+     * Builds the public JWK set for a key set snapshot.
+     * @param keySet the key set snapshot.
+     * @return the JWK set.
+     */
+    private static JWKSet toJwkSet(final KeySet keySet) {
+        List<JWK> keys = keySet
+                .ordered()
                 .stream()
-                .map(k -> {
-                    RSAPublicKey pub = k.publicKey();
-
-                    Map<String, Object> jwk = new HashMap<>();
-                    jwk.put("kty", "RSA");
-                    jwk.put("kid", k.kid());
-                    jwk.put("alg", "RS256");
-                    jwk.put("use", "sig");
-                    jwk.put("n", Base64.getUrlEncoder()
-                            .withoutPadding()
-                            .encodeToString(pub.getModulus().toByteArray()));
-                    jwk.put("e", Base64.getUrlEncoder()
-                            .withoutPadding()
-                            .encodeToString(pub.getPublicExponent()
-                                    .toByteArray())
-                    );
-
-                    return jwk;
-                })
+                .map(JwkServiceImpl::toJwk)
                 .toList();
 
-        return Map.of("keys", keys);
+        return new JWKSet(keys);
+    }
+
+    /**
+     * Maps a signing key to the public JWK matching its key type.
+     * @param key the signing key.
+     * @return the public JWK.
+     */
+    private static JWK toJwk(final SigningKey key) {
+        PublicKey pub = key.publicKey();
+
+        if (pub instanceof RSAPublicKey rsa) {
+            return new RSAKey.Builder(rsa)
+                    .keyID(key.kid())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(key.algorithm())
+                    .build();
+        }
+
+        if (pub instanceof ECPublicKey ec) {
+            return new ECKey.Builder(Curve.P_256, ec)
+                    .keyID(key.kid())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(key.algorithm())
+                    .build();
+        }
+
+        if (pub instanceof EdECPublicKey) {
+            byte[] encoded = pub.getEncoded();
+            byte[] raw = Arrays.copyOfRange(encoded,
+                    encoded.length - ED25519_KEY_LENGTH, encoded.length);
+            return new OctetKeyPair.Builder(Curve.Ed25519,
+                    Base64URL.encode(raw))
+                    .keyID(key.kid())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(key.algorithm())
+                    .build();
+        }
+
+        throw new IllegalStateException(
+                "Unsupported key type: " + pub.getAlgorithm());
     }
 }
@@ -0,0 +1,13 @@
+package bflow.auth.security.jwk;
+
+/**
+ * Serialized JWKS for one key set version.
+ * @param body the UTF-8 JSON document.
+ * @param etag strong entity tag derived from the body.
+ * @param version the key set version the document was built from.
+ */
+public record JwksDocument(
+        byte[] body,
+        String etag,
+        long version
+) { }
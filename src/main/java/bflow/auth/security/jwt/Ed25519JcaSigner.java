@@ -0,0 +1,59 @@
+package bflow.auth.security.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.util.Base64URL;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Set;
+
+/**
+ * EdDSA (Ed25519) signer using the JDK provider, so no extra
+ * cryptography library is needed.
+ */
+final class Ed25519JcaSigner implements JWSSigner {
+
+    /** The Ed25519 private key. */
+    private final PrivateKey privateKey;
+    /** JCA context required by the Nimbus provider contract. */
+    private final JCAContext jcaContext = new JCAContext();
+
+    /**
+     * Creates a signer for the given key.
+     * @param key the Ed25519 private key.
+     */
+    Ed25519JcaSigner(final PrivateKey key) {
+        this.privateKey = key;
+    }
+
+    @Override
+    public Base64URL sign(final JWSHeader header, final byte[] signingInput)
+            throws JOSEException {
+        if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+            throw new JOSEException("Unsupported JWS algorithm: "
+                    + header.getAlgorithm());
+        }
+        try {
+            Signature signature = Signature.getInstance("Ed25519");
+            signature.initSign(privateKey);
+            signature.update(signingInput);
+            return Base64URL.encode(signature.sign());
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return Set.of(JWSAlgorithm.EdDSA);
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return jcaContext;
+    }
+}
@@ -0,0 +1,60 @@
+package bflow.auth.security.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.util.Base64URL;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Set;
+
+/**
+ * EdDSA (Ed25519) verifier using the JDK provider.
+ */
+final class Ed25519JcaVerifier implements JWSVerifier {
+
+    /** The Ed25519 public key. */
+    private final PublicKey publicKey;
+    /** JCA context required by the Nimbus provider contract. */
+    private final JCAContext jcaContext = new JCAContext();
+
+    /**
+     * Creates a verifier for the given key.
+     * @param key the Ed25519 public key.
+     */
+    Ed25519JcaVerifier(final PublicKey key) {
+        this.publicKey = key;
+    }
+
+    @Override
+    public boolean verify(
+            final JWSHeader header,
+            final byte[] signedContent,
+            final Base64URL signature
+    ) throws JOSEException {
+        if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+            return false;
+        }
+        try {
+            Signature verifier = Signature.getInstance("Ed25519");
+            verifier.initVerify(publicKey);
+            verifier.update(signedContent);
+            return verifier.verify(signature.decode());
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return Set.of(JWSAlgorithm.EdDSA);
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return jcaContext;
+    }
+}
@@ -0,0 +1,39 @@
+package bflow.auth.security.jwt;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signing key store local to this JVM. Keys are lost on restart, so it
+ * only suits single-node development setups and tests.
+ */
+@Component
+@ConditionalOnProperty(name = "bflow.jwt.key-store", havingValue = "memory")
+public final class InMemorySigningKeyStore implements SigningKeyStore {
+
+    /** Stored keys by key identifier. */
+    private final Map<String, SigningKey> keys = new ConcurrentHashMap<>();
+
+    @Override
+    public List<SigningKey> loadAll() {
+        return List.copyOf(keys.values());
+    }
+
+    @Override
+    public void save(final SigningKey key) {
+        keys.putIfAbsent(key.kid(), key);
+    }
+
+    @Override
+    public void delete(final String kid) {
+        keys.remove(kid);
+    }
+
+    @Override
+    public boolean shared() {
+        return false;
+    }
+}
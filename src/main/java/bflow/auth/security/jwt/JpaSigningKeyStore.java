@@ -0,0 +1,115 @@
+package bflow.auth.security.jwt;
+
+import bflow.auth.entities.JwtSigningKey;
+import bflow.auth.repository.RepositorySigningKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signing key store backed by the {@code auth_signing_keys} table and
+ * shared by every node. Private keys are encrypted with a secret from
+ * {@code bflow.jwt.key-encryption-secret}. Rows are only read at startup
+ * and by the periodic sync, never while serving a request.
+ */
+@Component
+@ConditionalOnProperty(
+        name = "bflow.jwt.key-store",
+        havingValue = "database",
+        matchIfMissing = true
+)
+public final class JpaSigningKeyStore implements SigningKeyStore {
+
+    /** Repository for stored keys. */
+    private final RepositorySigningKey repository;
+
+    /** Cipher protecting private keys at rest. */
+    private final SigningKeyCipher cipher;
+
+    /** Keys already decrypted, so a sync only decodes new rows. */
+    private final Map<String, SigningKey> decoded =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Creates the store.
+     * @param repositorySigningKey repository for stored keys.
+     * @param secret the key encryption secret.
+     */
+    public JpaSigningKeyStore(
+            final RepositorySigningKey repositorySigningKey,
+            @Value("${bflow.jwt.key-encryption-secret:}")
+            final String secret
+    ) {
+        this.repository = repositorySigningKey;
+        this.cipher = new SigningKeyCipher(secret);
+    }
+
+    @Override
+    public List<SigningKey> loadAll() {
+        List<JwtSigningKey> rows = repository.findAll();
+        decoded.keySet().retainAll(
+                rows.stream().map(JwtSigningKey::getKid).toList());
+        return rows.stream()
+                .map(row -> decoded.computeIfAbsent(
+                        row.getKid(), kid -> decode(row)))
+                .toList();
+    }
+
+    /**
+     * Inserts the key without overwriting a row with the same kid. The
+     * local key is not cached: the next {@link #loadAll()} decodes
+     * whichever row won, so nodes racing to create the first key all
+     * end up signing with the same one.
+     * @param key the key to store.
+     */
+    @Override
+    public void save(final SigningKey key) {
+        repository.insertIfAbsent(
+                key.kid(),
+                SigningAlgorithm.from(key.algorithm()).name(),
+                Base64.getEncoder()
+                        .encodeToString(key.publicKey().getEncoded()),
+                cipher.encrypt(key.privateKey().getEncoded(), key.kid()),
+                key.activatedAt(),
+                Instant.now());
+    }
+
+    @Override
+    public void delete(final String kid) {
+        repository.deleteById(kid);
+        decoded.remove(kid);
+    }
+
+    @Override
+    public boolean shared() {
+        return true;
+    }
+
+    /**
+     * Decrypts and decodes a stored key.
+     * @param row the stored key.
+     * @return the signing key.
+     */
+    private SigningKey decode(final JwtSigningKey row) {
+        SigningAlgorithm algorithm =
+                SigningAlgorithm.valueOf(row.getAlgorithm());
+        try {
+            KeyPair keyPair = algorithm.decodeKeyPair(
+                    Base64.getDecoder().decode(row.getPublicKey()),
+                    cipher.decrypt(row.getEncryptedPrivateKey(), row.getKid())
+            );
+            return algorithm.signingKey(
+                    row.getKid(), keyPair, row.getActivatedAt());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(
+                    "Stored key " + row.getKid() + " is invalid", e);
+        }
+    }
+}
@@ -8,7 +8,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -36,29 +35,8 @@ public final class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = extractTokenFromCookie(request);
 
-        if (token != null && jwtService.validateToken(token)) {
-
-            UUID userId = jwtService.extractUserId(token);
-            String email = jwtService.extractEmail(token);
-
-            List<GrantedAuthority> authorities =
-                    jwtService.extractRoles(token)
-                            .stream()
-                            .map(role -> (GrantedAuthority)
-                                    new SimpleGrantedAuthority(role))
-                            .toList();
-
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(
-                            userId.toString(),
-                            null,
-                            authorities
-                    );
-
-            authentication.setDetails(Map.of("email", email));
-
-            SecurityContextHolder.getContext()
-                    .setAuthentication(authentication);
+        if (token != null) {
+            jwtService.verify(token).ifPresent(this::authenticate);
         }
 
         filterChain.doFilter(request, response);
@@ -76,6 +54,30 @@ public final class JwtAuthenticationFilter extends OncePerRequestFilter {
                 || path.equals("/.well-known/jwks.json");
     }
 
+    /**
+     * Populates the security context from an already verified token.
+     * @param principal the verified token claims.
+     */
+    private void authenticate(final JwtPrincipal principal) {
+        List<GrantedAuthority> authorities = principal.roles()
+                .stream()
+                .map(role -> (GrantedAuthority)
+                        new SimpleGrantedAuthority(role))
+                .toList();
+
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(
+                        principal.userId().toString(),
+                        null,
+                        authorities
+                );
+
+        authentication.setDetails(Map.of("email", principal.email()));
+
+        SecurityContextHolder.getContext()
+                .setAuthentication(authentication);
+    }
+
     /**
      * Helper to extract the access token from the request cookies.
      * @param request the current HTTP request.
@@ -0,0 +1,35 @@
+package bflow.auth.security.jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable view of an access token whose signature and expiry were
+ * already verified.
+ * @param userId the subject of the token.
+ * @param email the email claim.
+ * @param roles the roles claim.
+ * @param expiresAt the expiration time of the token.
+ * @param kid the identifier of the key that signed the token.
+ */
+public record JwtPrincipal(
+        UUID userId,
+        String email,
+        List<String> roles,
+        Instant expiresAt,
+        String kid
+) {
+
+    /**
+     * Defensively copies the roles so the principal stays immutable.
+     * @param userId the subject of the token.
+     * @param email the email claim.
+     * @param roles the roles claim.
+     * @param expiresAt the expiration time of the token.
+     * @param kid the identifier of the key that signed the token.
+     */
+    public JwtPrincipal {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+}
@@ -2,6 +2,7 @@ package bflow.auth.security.jwt;
 
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -34,6 +35,13 @@ public interface JwtService {
      */
     boolean validateToken(String token);
 
+    /**
+     * Parses and verifies a token once and exposes its claims.
+     * @param token serialized JWT.
+     * @return the verified principal, or empty if the token is invalid.
+     */
+    Optional<JwtPrincipal> verify(String token);
+
     /**
      * Extracts user ID from token.
      * @param token serialized JWT.
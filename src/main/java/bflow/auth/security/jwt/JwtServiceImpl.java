@@ -1,10 +1,7 @@
 package bflow.auth.security.jwt;
 
 
-import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import jakarta.servlet.http.HttpServletResponse;
@@ -12,22 +9,25 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Service;
-import java.security.interfaces.RSAPublicKey;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Implementation of JwtService using RSA (RS256).
+ * Implementation of JwtService signing with the active key of the
+ * {@link RsaKeyProvider} (RS256 by default, ES256 or EdDSA if configured).
  */
 @Service
 @RequiredArgsConstructor
 public final class JwtServiceImpl implements JwtService {
 
-    /** Key provider for RSA keys. */
+    /** Key provider for signing keys. */
     private final RsaKeyProvider rsaKeyProvider;
+    /** Cache of tokens whose signature was already verified. */
+    private final VerifiedTokenCache verifiedTokenCache;
 
     /** Seconds in one hour. */
     private static final long ACCESS_TOKEN_TTL_SECONDS = 3600;
@@ -38,7 +38,7 @@ public final class JwtServiceImpl implements JwtService {
     public String generateToken(final UUID userId, final String email,
                                 final List<String> roles) {
         try {
-            RsaKeyPair keys = rsaKeyProvider.getActive();
+            SigningKey key = rsaKeyProvider.getActiveKey();
 
             JWTClaimsSet claims = new JWTClaimsSet.Builder()
                     .subject(userId.toString())
@@ -50,12 +50,12 @@ public final class JwtServiceImpl implements JwtService {
                     .issuer("bflow-api")
                     .build();
 
-            JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256)
-                    .keyID(keys.kid())
+            JWSHeader header = new JWSHeader.Builder(key.algorithm())
+                    .keyID(key.kid())
                     .build();
 
             SignedJWT jwt = new SignedJWT(header, claims);
-            jwt.sign(new RSASSASigner(keys.privateKey()));
+            jwt.sign(key.signer());
 
             return jwt.serialize();
         } catch (Exception e) {
@@ -67,18 +67,56 @@ public final class JwtServiceImpl implements JwtService {
 
     @Override
     public boolean validateToken(final String token) {
+        return verify(token).isPresent();
+    }
+
+    @Override
+    public Optional<JwtPrincipal> verify(final String token) {
+        Optional<JwtPrincipal> cached = verifiedTokenCache.get(token);
+        if (cached.isPresent()) {
+            if (rsaKeyProvider.hasKey(cached.get().kid())) {
+                return cached;
+            }
+            verifiedTokenCache.invalidate(token);
+        }
+
+        Optional<JwtPrincipal> verified = verifySignature(token);
+        verified.ifPresent(p -> verifiedTokenCache.put(token, p));
+        return verified;
+    }
+
+    /**
+     * Parses the token and runs the full signature and expiry checks.
+     * @param token serialized JWT.
+     * @return the verified principal, or empty if the token is invalid.
+     */
+    private Optional<JwtPrincipal> verifySignature(final String token) {
         try {
             SignedJWT jwt = SignedJWT.parse(token);
 
             String kid = jwt.getHeader().getKeyID();
-            RSAPublicKey key = rsaKeyProvider.getPublicKey(kid);
-
-            return jwt.verify(new RSASSAVerifier(key))
-                    && jwt.getJWTClaimsSet()
-                    .getExpirationTime()
-                    .after(new Date());
+            SigningKey key = rsaKeyProvider.getKey(kid);
+
+            if (!jwt.verify(key.verifier())) {
+                return Optional.empty();
+            }
+
+            JWTClaimsSet claims = jwt.getJWTClaimsSet();
+            Date expiration = claims.getExpirationTime();
+
+            if (expiration == null || !expiration.after(new Date())) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new JwtPrincipal(
+                    UUID.fromString(claims.getSubject()),
+                    claims.getStringClaim("email"),
+                    claims.getStringListClaim("roles"),
+                    expiration.toInstant(),
+                    kid
+            ));
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
         }
     }
 
@@ -0,0 +1,90 @@
+package bflow.auth.security.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Periodic key maintenance: syncs the key set with the store, rotates
+ * the signing key every {@code bflow.jwt.key-rotation-interval-ms} and
+ * retires keys whose tokens have all expired. A non-positive interval
+ * disables automatic rotation.
+ */
+@Component
+public final class KeyRotationScheduler {
+
+    /** Provider holding the published key set. */
+    private final RsaKeyProvider keyProvider;
+
+    /** Service exposing the access token lifetime. */
+    private final JwtService jwtService;
+
+    /** Cache of verified tokens to purge on retirement. */
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    /** Interval between automatic rotations. */
+    private final Duration rotationInterval;
+
+    /** Keys generated by the scheduler. */
+    private final LongAdder rotations = new LongAdder();
+
+    /** Keys retired by the scheduler. */
+    private final LongAdder retired = new LongAdder();
+
+    /**
+     * Creates the scheduler.
+     * @param provider the key provider.
+     * @param service the JWT service.
+     * @param cache the verified token cache.
+     * @param rotationIntervalMs interval between automatic rotations.
+     */
+    public KeyRotationScheduler(
+            final RsaKeyProvider provider,
+            final JwtService service,
+            final VerifiedTokenCache cache,
+            @Value("${bflow.jwt.key-rotation-interval-ms:86400000}")
+            final long rotationIntervalMs
+    ) {
+        this.keyProvider = provider;
+        this.jwtService = service;
+        this.verifiedTokenCache = cache;
+        this.rotationInterval = Duration.ofMillis(rotationIntervalMs);
+    }
+
+    /**
+     * Runs one maintenance pass on the key sync interval.
+     */
+    @Scheduled(
+            initialDelayString = "${bflow.jwt.key-sync-interval-ms:30000}",
+            fixedDelayString = "${bflow.jwt.key-sync-interval-ms:30000}"
+    )
+    public void run() {
+        keyProvider.refresh();
+        if (!rotationInterval.isZero()
+                && !rotationInterval.isNegative()
+                && keyProvider.rotateIfDue(rotationInterval)) {
+            rotations.increment();
+        }
+        List<String> kids = keyProvider.retireExpired(Duration.ofSeconds(
+                jwtService.getAccessTokenTtlSeconds()));
+        kids.forEach(verifiedTokenCache::evictKid);
+        retired.add(kids.size());
+    }
+
+    /**
+     * Returns the current rotation metrics.
+     * @return a stats snapshot.
+     */
+    public KeyRotationStats stats() {
+        KeySet keySet = keyProvider.getKeySet();
+        return new KeyRotationStats(
+                keySet.activeKid(),
+                keySet.keys().size(),
+                rotations.sum(),
+                retired.sum()
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package bflow.auth.security.jwt;
+
+/**
+ * Snapshot of the scheduled key rotation.
+ * @param activeKid identifier of the key signing new tokens.
+ * @param keys number of keys trusted for verification.
+ * @param rotations keys generated by the scheduler.
+ * @param retired keys removed after their grace period.
+ */
+public record KeyRotationStats(
+        String activeKid,
+        int keys,
+        long rotations,
+        long retired
+) {
+}
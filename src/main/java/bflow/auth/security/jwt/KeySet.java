@@ -0,0 +1,181 @@
+package bflow.auth.security.jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the signing keys known to this node.
+ * A rotation never mutates a snapshot; it publishes a new one.
+ * @param keys signing keys by key identifier.
+ * @param activeKid identifier of the key used for new tokens.
+ * @param version counter incremented on every published change.
+ */
+public record KeySet(
+        Map<String, SigningKey> keys,
+        String activeKid,
+        long version
+) {
+
+    /** Orders keys by activation time, then by kid for ties. */
+    private static final Comparator<SigningKey> BY_ACTIVATION =
+            Comparator.comparing(SigningKey::activatedAt)
+                    .thenComparing(SigningKey::kid);
+
+    /**
+     * Validates the snapshot and freezes the key map.
+     * @param keys signing keys by key identifier.
+     * @param activeKid identifier of the key used for new tokens.
+     * @param version counter incremented on every published change.
+     */
+    public KeySet {
+        keys = Map.copyOf(keys);
+        if (!keys.containsKey(activeKid)) {
+            throw new IllegalArgumentException(
+                    "Active kid is not part of the key set");
+        }
+    }
+
+    /**
+     * Creates the first snapshot holding a single active key.
+     * @param key the initial signing key.
+     * @return the new snapshot.
+     */
+    public static KeySet of(final SigningKey key) {
+        return new KeySet(Map.of(key.kid(), key), key.kid(), 1);
+    }
+
+    /**
+     * Creates a snapshot whose active key is the most recently activated
+     * one at the given instant. Keys activating in the future are kept
+     * for verification only, unless no key has activated yet.
+     * @param keys the signing keys, at least one.
+     * @param now the instant used to pick the active key.
+     * @param version the snapshot version.
+     * @return the new snapshot.
+     */
+    public static KeySet of(
+            final Collection<SigningKey> keys,
+            final Instant now,
+            final long version
+    ) {
+        Map<String, SigningKey> byKid = new HashMap<>();
+        keys.forEach(key -> byKid.put(key.kid(), key));
+        SigningKey active = keys.stream()
+                .filter(key -> !key.activatedAt().isAfter(now))
+                .max(BY_ACTIVATION)
+                .orElseGet(() -> keys.stream()
+                        .min(BY_ACTIVATION)
+                        .orElseThrow(() -> new IllegalArgumentException(
+                                "Key set must not be empty")));
+        return new KeySet(byKid, active.kid(), version);
+    }
+
+    /**
+     * Returns the key used to sign new tokens.
+     * @return the active SigningKey.
+     */
+    public SigningKey active() {
+        return keys.get(activeKid);
+    }
+
+    /**
+     * Returns the keys oldest first, by activation time and then kid, so
+     * nodes holding the same keys list them in the same order.
+     * @return the keys in a stable order.
+     */
+    public List<SigningKey> ordered() {
+        return keys.values().stream().sorted(BY_ACTIVATION).toList();
+    }
+
+    /**
+     * Returns a copy of this snapshot with the key added. The key becomes
+     * active once its activation time has been reached.
+     * @param key the new signing key.
+     * @param now the instant used to pick the active key.
+     * @return the next snapshot.
+     */
+    public KeySet with(final SigningKey key, final Instant now) {
+        Map<String, SigningKey> next = new HashMap<>(keys);
+        next.put(key.kid(), key);
+        return of(next.values(), now, version + 1);
+    }
+
+    /**
+     * Reconciles this snapshot with the keys read from the shared store.
+     * Already known keys keep their signer and verifier instances, and
+     * the snapshot itself is returned when nothing changed.
+     * @param stored the keys currently in the store.
+     * @param now the instant used to pick the active key.
+     * @return this snapshot, or the next one if the keys changed.
+     */
+    public KeySet reconcile(
+            final Collection<SigningKey> stored,
+            final Instant now
+    ) {
+        if (stored.isEmpty()) {
+            return this;
+        }
+        Map<String, SigningKey> next = new HashMap<>();
+        stored.forEach(key ->
+                next.put(key.kid(), keys.getOrDefault(key.kid(), key)));
+        KeySet candidate = of(next.values(), now, version + 1);
+        if (candidate.keys.keySet().equals(keys.keySet())
+                && candidate.activeKid.equals(activeKid)) {
+            return this;
+        }
+        return candidate;
+    }
+
+    /**
+     * Returns the activation time of the newest key, pending or not.
+     * @return the latest activation instant.
+     */
+    public Instant latestActivation() {
+        return keys.values().stream()
+                .map(SigningKey::activatedAt)
+                .max(Instant::compareTo)
+                .orElseThrow();
+    }
+
+    /**
+     * Lists the keys superseded by a key that activated at or before the
+     * cutoff. Tokens they signed have expired by then, so they are no
+     * longer needed for verification.
+     * @param cutoff the latest activation time a successor may have.
+     * @return identifiers of the retirable keys, oldest first.
+     */
+    public List<String> retirableBefore(final Instant cutoff) {
+        return keys.values().stream()
+                .filter(key -> !key.activatedAt().isAfter(cutoff))
+                .max(BY_ACTIVATION)
+                .map(successor -> keys.values().stream()
+                        .filter(key -> BY_ACTIVATION
+                                .compare(key, successor) < 0)
+                        .filter(key -> !key.kid().equals(activeKid))
+                        .sorted(BY_ACTIVATION)
+                        .map(SigningKey::kid)
+                        .toList())
+                .orElse(List.of());
+    }
+
+    /**
+     * Returns a copy of this snapshot without the given keys. The active
+     * key is never removed.
+     * @param kids identifiers of the keys to drop.
+     * @return this snapshot, or the next one if a key was removed.
+     */
+    public KeySet without(final Collection<String> kids) {
+        Map<String, SigningKey> next = new HashMap<>(keys);
+        kids.stream()
+                .filter(kid -> !kid.equals(activeKid))
+                .forEach(next::remove);
+        if (next.size() == keys.size()) {
+            return this;
+        }
+        return new KeySet(next, activeKid, version + 1);
+    }
+}
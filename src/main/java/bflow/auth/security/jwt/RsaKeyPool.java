@@ -0,0 +1,188 @@
+package bflow.auth.security.jwt;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small pool of signing key pairs generated ahead of time on a background
+ * thread, so rotation does not pay for key generation on the caller.
+ * Generates RSA keys unless another {@link SigningAlgorithm} is set.
+ */
+@Component
+public final class RsaKeyPool {
+
+    /** Number of key pairs kept ready by default. */
+    private static final int DEFAULT_CAPACITY = 2;
+
+    /** Algorithm the pooled key pairs are generated for. */
+    private final SigningAlgorithm signingAlgorithm;
+    /** Key pairs ready to be handed out. */
+    private final BlockingQueue<KeyPair> ready;
+    /** Maximum number of ready key pairs. */
+    private final int capacity;
+    /** Single background thread generating key pairs. */
+    private final ExecutorService generator =
+            Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rsa-key-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+    /** Whether a refill task is queued or running. */
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    /** Key pairs generated since startup. */
+    private final LongAdder generated = new LongAdder();
+    /** Takes that found the pool empty. */
+    private final LongAdder misses = new LongAdder();
+    /** Total generation time in nanoseconds. */
+    private final LongAdder totalGenerationNanos = new LongAdder();
+    /** Duration of the last generation in nanoseconds. */
+    private final AtomicLong lastGenerationNanos = new AtomicLong();
+
+    /**
+     * Creates an RS256 pool with the default capacity.
+     */
+    public RsaKeyPool() {
+        this(SigningAlgorithm.RS256, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an RS256 pool with the given capacity.
+     * @param size number of key pairs to keep ready, must be positive.
+     */
+    public RsaKeyPool(final int size) {
+        this(SigningAlgorithm.RS256, size);
+    }
+
+    /**
+     * Creates a pool for the configured algorithm.
+     * @param mode the configured signing algorithm.
+     */
+    @Autowired
+    public RsaKeyPool(
+            @Value("${bflow.jwt.algorithm:RS256}")
+            final SigningAlgorithm mode
+    ) {
+        this(mode, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a pool with the given algorithm and capacity and starts
+     * filling it.
+     * @param mode the signing algorithm to generate keys for.
+     * @param size number of key pairs to keep ready, must be positive.
+     */
+    public RsaKeyPool(final SigningAlgorithm mode, final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException(
+                    "Pool capacity must be positive");
+        }
+        this.signingAlgorithm = mode;
+        this.capacity = size;
+        this.ready = new LinkedBlockingQueue<>(size);
+        refill();
+    }
+
+    /**
+     * Hands out a ready key pair and schedules a refill.
+     * Falls back to generating on the caller if the pool is empty.
+     * @return a freshly generated key pair.
+     */
+    public KeyPair take() {
+        KeyPair keyPair = ready.poll();
+        if (keyPair == null) {
+            misses.increment();
+            keyPair = generate();
+        }
+        refill();
+        return keyPair;
+    }
+
+    /**
+     * Returns the algorithm the pooled key pairs are generated for.
+     * @return the SigningAlgorithm.
+     */
+    public SigningAlgorithm algorithm() {
+        return signingAlgorithm;
+    }
+
+    /**
+     * Returns the current pool metrics.
+     * @return depth, capacity and generation timings.
+     */
+    public RsaKeyPoolStats stats() {
+        long count = generated.sum();
+        return new RsaKeyPoolStats(
+                ready.size(),
+                capacity,
+                count,
+                misses.sum(),
+                TimeUnit.NANOSECONDS.toMillis(lastGenerationNanos.get()),
+                count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(
+                        totalGenerationNanos.sum() / count)
+        );
+    }
+
+    /**
+     * Stops the background generator.
+     */
+    @PreDestroy
+    public void shutdown() {
+        generator.shutdownNow();
+    }
+
+    /**
+     * Queues a background task that tops the pool up to capacity,
+     * unless one is already pending.
+     */
+    private void refill() {
+        if (ready.remainingCapacity() == 0
+                || generator.isShutdown()
+                || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        generator.execute(() -> {
+            try {
+                while (ready.remainingCapacity() > 0
+                        && !Thread.currentThread().isInterrupted()) {
+                    if (!ready.offer(generate())) {
+                        break;
+                    }
+                }
+            } finally {
+                refilling.set(false);
+            }
+        });
+    }
+
+    /**
+     * Generates one key pair and records how long it took.
+     * @return the new key pair.
+     */
+    private KeyPair generate() {
+        long start = System.nanoTime();
+        try {
+            return signingAlgorithm.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            lastGenerationNanos.set(elapsed);
+            totalGenerationNanos.add(elapsed);
+            generated.increment();
+        }
+    }
+}
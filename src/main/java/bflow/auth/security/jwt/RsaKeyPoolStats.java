@@ -0,0 +1,19 @@
+package bflow.auth.security.jwt;
+
+/**
+ * Point-in-time metrics of the {@link RsaKeyPool}.
+ * @param depth key pairs ready to be handed out.
+ * @param capacity maximum number of pre-generated key pairs.
+ * @param generated key pairs generated since startup.
+ * @param misses requests served by generating inline on an empty pool.
+ * @param lastGenerationMillis duration of the last generation.
+ * @param averageGenerationMillis mean duration of all generations.
+ */
+public record RsaKeyPoolStats(
+        int depth,
+        int capacity,
+        long generated,
+        long misses,
+        long lastGenerationMillis,
+        long averageGenerationMillis
+) { }
@@ -1,106 +1,232 @@
 package bflow.auth.security.jwt;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPublicKey;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Service providing and rotating RSA key pairs for JWT signing.
+ * Service providing and rotating the key pairs used for JWT signing.
+ * Keys are published as immutable {@link KeySet} snapshots, so request
+ * threads read them without locking while rotation swaps in a copy.
+ * The algorithm of new keys follows the configured
+ * {@link SigningAlgorithm}; RS256 is the default.
+ * <p>
+ * Keys live in a {@link SigningKeyStore}. The set is loaded once at
+ * startup and re-read by {@link KeyRotationScheduler}, so rotations
+ * made on other nodes are picked up without touching the store on the
+ * request path.
+ * A new key activates only after the JWKS max-age, so clients caching
+ * the key set fetch it before any token is signed with it. With a
+ * shared store it also waits at least two sync intervals, so every node
+ * can verify it before any node signs with it.
  */
 @Service
 public final class RsaKeyProvider {
 
-    /** RSA Key size constant. */
-    private static final int RSA_KEY_SIZE = 2048;
+    /** Identifier of the first key when the store is empty. */
+    private static final String INITIAL_KID = "key-2026-01";
 
-    /** Map of key identifiers to key pairs. */
-    private final Map<String, RsaKeyPair> keys = new HashMap<>();
+    /** Tolerated clock difference between nodes. */
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
 
-    /** The currently active key identifier. */
-    private String activeKid;
+    /** Pool of key pairs generated ahead of time. */
+    private final RsaKeyPool keyPool;
+
+    /** Store holding the keys shared by all nodes. */
+    private final SigningKeyStore store;
+
+    /** Delay between storing a new key and signing with it. */
+    private final Duration activationDelay;
+
+    /** The currently published key set. */
+    private final AtomicReference<KeySet> keySet;
 
     /**
-     * Initializes the provider with a default key.
+     * Initializes the provider with a private RS256 key pool.
      */
     public RsaKeyProvider() {
-        RsaKeyPair key = generate("key-2026-01");
-        keys.put(key.kid(), key);
-        activeKid = key.kid();
+        this(new RsaKeyPool());
+    }
+
+    /**
+     * Initializes the provider with keys kept in this JVM only.
+     * @param pool the pool of pre-generated key pairs.
+     */
+    public RsaKeyProvider(final RsaKeyPool pool) {
+        this(pool, new InMemorySigningKeyStore(), 0);
+    }
+
+    /**
+     * Initializes the provider from the key store for clients that do
+     * not cache the key set.
+     * @param pool the pool of pre-generated key pairs.
+     * @param keyStore the store holding the signing keys.
+     * @param syncIntervalMs interval of the scheduled key sync.
+     */
+    public RsaKeyProvider(
+            final RsaKeyPool pool,
+            final SigningKeyStore keyStore,
+            final long syncIntervalMs
+    ) {
+        this(pool, keyStore, syncIntervalMs, 0);
+    }
+
+    /**
+     * Initializes the provider from the key store, creating the first
+     * key if the store is empty.
+     * @param pool the pool of pre-generated key pairs.
+     * @param keyStore the store holding the signing keys.
+     * @param syncIntervalMs interval of the scheduled key sync.
+     * @param jwksMaxAgeMs how long clients may cache the key set.
+     */
+    @Autowired
+    public RsaKeyProvider(
+            final RsaKeyPool pool,
+            final SigningKeyStore keyStore,
+            @Value("${bflow.jwt.key-sync-interval-ms:30000}")
+            final long syncIntervalMs,
+            @Value("${bflow.jwt.jwks-max-age-ms:300000}")
+            final long jwksMaxAgeMs
+    ) {
+        this.keyPool = pool;
+        this.store = keyStore;
+        long syncDelayMs = keyStore.shared() ? 2 * syncIntervalMs : 0;
+        this.activationDelay =
+                Duration.ofMillis(Math.max(syncDelayMs, jwksMaxAgeMs));
+        this.keySet = new AtomicReference<>(load());
+    }
+
+    /**
+     * Retrieves the currently active signing key with its signer.
+     * @return the active SigningKey.
+     */
+    public SigningKey getActiveKey() {
+        return keySet.get().active();
     }
 
     /**
-     * Retrieves the currently active key pair.
-     * @return the active RsaKeyPair.
+     * Returns the currently published key set snapshot.
+     * @return the immutable KeySet.
      */
-    public RsaKeyPair getActive() {
-        return keys.get(activeKid);
+    public KeySet getKeySet() {
+        return keySet.get();
     }
 
     /**
-     * Retrieves a public key by its identifier.
+     * Retrieves a signing key, including its verifier, by identifier.
      * @param kid the key ID.
-     * @return the RSAPublicKey.
+     * @return the SigningKey.
      */
-    public RSAPublicKey getPublicKey(final String kid) {
-        RsaKeyPair pair = keys.get(kid);
-        if (pair == null) {
+    public SigningKey getKey(final String kid) {
+        SigningKey key = kid == null ? null : keySet.get().keys().get(kid);
+        if (key == null) {
             throw new SecurityException("Unknown kid");
         }
-        return pair.publicKey();
+        return key;
     }
 
     /**
-     * Rotates keys by generating a new pair and setting it as active.
+     * Checks whether a key identifier is still trusted for verification.
+     * @param kid the key ID.
+     * @return true if the key is known.
      */
-    public void rotate() {
-        RsaKeyPair newKey = generate("key-" + System.currentTimeMillis());
-        keys.put(newKey.kid(), newKey);
-        activeKid = newKey.kid();
+    public boolean hasKey(final String kid) {
+        return kid != null && keySet.get().keys().containsKey(kid);
     }
 
     /**
-     * Generates a new RSA key pair.
-     * @param kid the identifier to assign.
-     * @return a new RsaKeyPair.
+     * Rotates keys by generating a new pair and storing it. The signer
+     * and verifier of the new key are built here once, before the new
+     * snapshot is published. With a shared store the key is published
+     * for verification now and becomes active after the activation delay.
      */
-    private RsaKeyPair generate(final String kid) {
-        try {
-            KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
-            gen.initialize(RSA_KEY_SIZE);
-            KeyPair kp = gen.generateKeyPair();
-
-            return new RsaKeyPair(
-                    kid,
-                    kp.getPrivate(),
-                    (RSAPublicKey) kp.getPublic()
-            );
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
+    public void rotate() {
+        Instant activation = Instant.now().plus(activationDelay);
+        Instant latest = keySet.get().latestActivation();
+        if (!activation.isAfter(latest)) {
+            activation = latest.plusMillis(1);
         }
+        SigningKey newKey = generate("key-" + UUID.randomUUID(), activation);
+        store.save(newKey);
+        keySet.updateAndGet(current -> current.with(newKey, Instant.now()));
     }
 
     /**
-     * Returns a map of all public keys currently stored.
-     * @return map of kid to RSAPublicKey.
+     * Rotates if the newest key, including one still pending, activated
+     * at least one interval ago. Checking the newest key instead of a
+     * local timer keeps nodes sharing a store from rotating one after
+     * the other.
+     * @param interval the rotation interval.
+     * @return true if a new key was generated.
      */
-    public Map<String, RSAPublicKey> getAllPublicKeys() {
-        Map<String, RSAPublicKey> publicKeys = new HashMap<>();
+    public boolean rotateIfDue(final Duration interval) {
+        Instant due = keySet.get().latestActivation().plus(interval);
+        if (due.isAfter(Instant.now())) {
+            return false;
+        }
+        rotate();
+        return true;
+    }
 
-        for (Map.Entry<String, RsaKeyPair> entry : keys.entrySet()) {
-            publicKeys.put(entry.getKey(), entry.getValue().publicKey());
+    /**
+     * Removes keys whose tokens can no longer be valid. A key is retired
+     * once its successor has been signing for longer than the token
+     * lifetime plus the activation delay and a clock skew margin, which
+     * bounds the key set to the keys of roughly one token lifetime.
+     * @param tokenLifetime the longest lifetime of a signed token.
+     * @return identifiers of the retired keys.
+     */
+    public List<String> retireExpired(final Duration tokenLifetime) {
+        Instant cutoff = Instant.now()
+                .minus(tokenLifetime)
+                .minus(activationDelay)
+                .minus(CLOCK_SKEW);
+        List<String> retired = keySet.get().retirableBefore(cutoff);
+        if (retired.isEmpty()) {
+            return retired;
         }
+        retired.forEach(store::delete);
+        keySet.updateAndGet(current -> current.without(retired));
+        return retired;
+    }
 
-        return publicKeys;
+    /**
+     * Re-reads the key store and publishes a new snapshot if keys were
+     * added or retired elsewhere or a pending key reached its activation
+     * time.
+     */
+    public void refresh() {
+        List<SigningKey> stored = store.loadAll();
+        keySet.updateAndGet(
+                current -> current.reconcile(stored, Instant.now()));
     }
 
     /**
-     * Returns a copy of all internal key pairs.
-     * @return map of kid to RsaKeyPair.
+     * Loads the stored keys, generating the first one if none exist.
+     * @return the initial snapshot.
+     */
+    private KeySet load() {
+        List<SigningKey> stored = store.loadAll();
+        if (stored.isEmpty()) {
+            store.save(generate(INITIAL_KID, Instant.now()));
+            stored = store.loadAll();
+        }
+        return KeySet.of(stored, Instant.now(), 1);
+    }
+
+    /**
+     * Builds a signing key from a pre-generated key pair.
+     * @param kid the identifier to assign.
+     * @param activatedAt when the key starts signing new tokens.
+     * @return a new SigningKey.
      */
-    public Map<String, RsaKeyPair> getAll() {
-        return Map.copyOf(keys);
+    private SigningKey generate(final String kid, final Instant activatedAt) {
+        return keyPool.algorithm()
+                .signingKey(kid, keyPool.take(), activatedAt);
     }
 }
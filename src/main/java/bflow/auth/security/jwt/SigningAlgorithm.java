@@ -0,0 +1,192 @@
+package bflow.auth.security.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+
+/**
+ * Signing algorithms supported for access tokens.
+ * Configured through the {@code bflow.jwt.algorithm} property.
+ */
+public enum SigningAlgorithm {
+
+    /** RSASSA-PKCS1-v1_5 with SHA-256 and 2048-bit keys. */
+    RS256(JWSAlgorithm.RS256, "RSA") {
+        @Override
+        KeyPair generateKeyPair() throws GeneralSecurityException {
+            KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
+            gen.initialize(RSA_KEY_SIZE);
+            return gen.generateKeyPair();
+        }
+
+        @Override
+        SigningKey signingKey(
+                final String kid,
+                final KeyPair keyPair,
+                final Instant activatedAt
+        ) {
+            return new SigningKey(
+                    kid,
+                    jwsAlgorithm(),
+                    keyPair.getPrivate(),
+                    keyPair.getPublic(),
+                    new RSASSASigner(keyPair.getPrivate()),
+                    new RSASSAVerifier((RSAPublicKey) keyPair.getPublic()),
+                    activatedAt
+            );
+        }
+    },
+
+    /** ECDSA with SHA-256 on the P-256 curve. */
+    ES256(JWSAlgorithm.ES256, "EC") {
+        @Override
+        KeyPair generateKeyPair() throws GeneralSecurityException {
+            KeyPairGenerator gen = KeyPairGenerator.getInstance("EC");
+            gen.initialize(new ECGenParameterSpec("secp256r1"));
+            return gen.generateKeyPair();
+        }
+
+        @Override
+        SigningKey signingKey(
+                final String kid,
+                final KeyPair keyPair,
+                final Instant activatedAt
+        ) {
+            try {
+                return new SigningKey(
+                        kid,
+                        jwsAlgorithm(),
+                        keyPair.getPrivate(),
+                        keyPair.getPublic(),
+                        new ECDSASigner((ECPrivateKey) keyPair.getPrivate()),
+                        new ECDSAVerifier((ECPublicKey) keyPair.getPublic()),
+                        activatedAt
+                );
+            } catch (JOSEException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    },
+
+    /** EdDSA over Ed25519, backed by the JDK provider. */
+    ED25519(JWSAlgorithm.EdDSA, "Ed25519") {
+        @Override
+        KeyPair generateKeyPair() throws GeneralSecurityException {
+            return KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        }
+
+        @Override
+        SigningKey signingKey(
+                final String kid,
+                final KeyPair keyPair,
+                final Instant activatedAt
+        ) {
+            return new SigningKey(
+                    kid,
+                    jwsAlgorithm(),
+                    keyPair.getPrivate(),
+                    keyPair.getPublic(),
+                    new Ed25519JcaSigner(keyPair.getPrivate()),
+                    new Ed25519JcaVerifier(keyPair.getPublic()),
+                    activatedAt
+            );
+        }
+    };
+
+    /** RSA Key size constant. */
+    private static final int RSA_KEY_SIZE = 2048;
+
+    /** The JOSE algorithm written to the token header. */
+    private final JWSAlgorithm jws;
+
+    /** The JCA key algorithm used to decode stored keys. */
+    private final String keyAlgorithm;
+
+    /**
+     * Binds the enum constant to its JOSE and JCA algorithms.
+     * @param jwsAlgorithm the JOSE algorithm.
+     * @param jcaKeyAlgorithm the JCA key algorithm name.
+     */
+    SigningAlgorithm(
+            final JWSAlgorithm jwsAlgorithm,
+            final String jcaKeyAlgorithm
+    ) {
+        this.jws = jwsAlgorithm;
+        this.keyAlgorithm = jcaKeyAlgorithm;
+    }
+
+    /**
+     * Resolves the algorithm written in a token or key header.
+     * @param algorithm the JOSE algorithm.
+     * @return the matching SigningAlgorithm.
+     */
+    public static SigningAlgorithm from(final JWSAlgorithm algorithm) {
+        for (SigningAlgorithm candidate : values()) {
+            if (candidate.jws.equals(algorithm)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException(
+                "Unsupported signing algorithm: " + algorithm);
+    }
+
+    /**
+     * Returns the JOSE algorithm written to the token header.
+     * @return the JWSAlgorithm.
+     */
+    public JWSAlgorithm jwsAlgorithm() {
+        return jws;
+    }
+
+    /**
+     * Generates a new key pair for this algorithm.
+     * @return the key pair.
+     * @throws GeneralSecurityException if the JCA provider fails.
+     */
+    abstract KeyPair generateKeyPair() throws GeneralSecurityException;
+
+    /**
+     * Builds a signing key with a reusable signer and verifier.
+     * @param kid the key identifier.
+     * @param keyPair a key pair generated for this algorithm.
+     * @param activatedAt when the key starts signing new tokens.
+     * @return the signing key.
+     */
+    abstract SigningKey signingKey(
+            String kid,
+            KeyPair keyPair,
+            Instant activatedAt
+    );
+
+    /**
+     * Rebuilds a key pair from its standard encodings.
+     * @param publicKey the X.509 encoded public key.
+     * @param privateKey the PKCS#8 encoded private key.
+     * @return the decoded key pair.
+     * @throws GeneralSecurityException if the encodings are invalid.
+     */
+    KeyPair decodeKeyPair(
+            final byte[] publicKey,
+            final byte[] privateKey
+    ) throws GeneralSecurityException {
+        KeyFactory factory = KeyFactory.getInstance(keyAlgorithm);
+        return new KeyPair(
+                factory.generatePublic(new X509EncodedKeySpec(publicKey)),
+                factory.generatePrivate(new PKCS8EncodedKeySpec(privateKey))
+        );
+    }
+}
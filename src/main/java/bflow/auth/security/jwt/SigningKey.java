@@ -0,0 +1,45 @@
+package bflow.auth.security.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+
+/**
+ * Key material for one key identifier together with the signer and
+ * verifier built from it. Both are stateless and safe to share across
+ * threads, so they are created once per key instead of once per token.
+ * @param kid the key identifier.
+ * @param algorithm the JWS algorithm the key signs with.
+ * @param privateKey the private key.
+ * @param publicKey the public key.
+ * @param signer the reusable signer for the private key.
+ * @param verifier the reusable verifier for the public key.
+ * @param activatedAt when the key starts signing new tokens.
+ */
+public record SigningKey(
+        String kid,
+        JWSAlgorithm algorithm,
+        PrivateKey privateKey,
+        PublicKey publicKey,
+        JWSSigner signer,
+        JWSVerifier verifier,
+        Instant activatedAt
+) {
+
+    /**
+     * Builds an RS256 signing key from an RSA key pair.
+     * @param keys the RSA key pair.
+     * @return the signing key with its signer and verifier.
+     */
+    public static SigningKey rs256(final RsaKeyPair keys) {
+        return SigningAlgorithm.RS256.signingKey(
+                keys.kid(),
+                new KeyPair(keys.publicKey(), keys.privateKey()),
+                Instant.now()
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package bflow.auth.security.jwt;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encrypts private key material at rest with AES-256-GCM. The key
+ * identifier is bound as associated data, so a ciphertext copied to
+ * another row fails to decrypt.
+ */
+final class SigningKeyCipher {
+
+    /** The JCA transformation. */
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    /** Length of the random nonce in bytes. */
+    private static final int IV_LENGTH = 12;
+
+    /** Length of the authentication tag in bits. */
+    private static final int TAG_BITS = 128;
+
+    /** The AES key derived from the configured secret. */
+    private final SecretKeySpec key;
+
+    /** Source of nonces. */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Derives the encryption key from a secret.
+     * @param secret a high-entropy secret shared by every node.
+     */
+    SigningKeyCipher(final String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException(
+                    "JWT_KEY_SECRET (bflow.jwt.key-encryption-secret) must"
+                    + " be set to a secret shared by all nodes when"
+                    + " bflow.jwt.key-store=database; use"
+                    + " JWT_KEY_STORE=memory for a single node");
+        }
+        this.key = new SecretKeySpec(DigestUtils.sha256(secret), "AES");
+    }
+
+    /**
+     * Encrypts key material.
+     * @param plain the encoded private key.
+     * @param kid the key identifier bound to the ciphertext.
+     * @return the Base64 nonce and ciphertext.
+     */
+    String encrypt(final byte[] plain, final String kid) {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = cipher(Cipher.ENCRYPT_MODE, iv, kid);
+            byte[] sealed = cipher.doFinal(plain);
+            return Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + sealed.length)
+                            .put(iv)
+                            .put(sealed)
+                            .array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Key encryption failed", e);
+        }
+    }
+
+    /**
+     * Decrypts key material written by {@link #encrypt}.
+     * @param encoded the Base64 nonce and ciphertext.
+     * @param kid the key identifier bound to the ciphertext.
+     * @return the encoded private key.
+     */
+    byte[] decrypt(final String encoded, final String kid) {
+        byte[] data = Base64.getDecoder().decode(encoded);
+        try {
+            Cipher cipher = cipher(
+                    Cipher.DECRYPT_MODE,
+                    Arrays.copyOf(data, IV_LENGTH),
+                    kid
+            );
+            return cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(
+                    "Key decryption failed for kid " + kid, e);
+        }
+    }
+
+    /**
+     * Initializes a cipher for one operation.
+     * @param mode encrypt or decrypt.
+     * @param iv the nonce.
+     * @param kid the key identifier used as associated data.
+     * @return the initialized cipher.
+     * @throws GeneralSecurityException if the JCA provider fails.
+     */
+    private Cipher cipher(
+            final int mode,
+            final byte[] iv,
+            final String kid
+    ) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(mode, key, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher;
+    }
+}
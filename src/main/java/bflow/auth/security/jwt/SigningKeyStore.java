@@ -0,0 +1,39 @@
+package bflow.auth.security.jwt;
+
+import java.util.List;
+
+/**
+ * Backing store for signing keys. A shared store lets every node sign
+ * and verify with the same keys, so tokens survive restarts and can be
+ * verified by any instance behind the load balancer.
+ */
+public interface SigningKeyStore {
+
+    /**
+     * Loads every stored signing key.
+     * @return the stored keys, possibly empty.
+     */
+    List<SigningKey> loadAll();
+
+    /**
+     * Persists a new signing key. A key whose kid is already stored is
+     * left untouched, so callers re-read the store rather than trusting
+     * the key they passed in.
+     * @param key the key to store.
+     */
+    void save(SigningKey key);
+
+    /**
+     * Removes a retired signing key. Missing keys are ignored.
+     * @param kid the key identifier.
+     */
+    void delete(String kid);
+
+    /**
+     * Tells whether other nodes read the same keys. New keys in a shared
+     * store are activated only after every node had a chance to load
+     * them.
+     * @return true if the store is shared between nodes.
+     */
+    boolean shared();
+}
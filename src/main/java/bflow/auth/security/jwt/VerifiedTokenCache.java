@@ -0,0 +1,166 @@
+package bflow.auth.security.jwt;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded in-memory cache of already verified access tokens.
+ * Entries are keyed by the SHA-256 digest of the serialized token, so a
+ * hit means the exact same bytes were verified before and the RSA
+ * signature check can be skipped.
+ */
+@Component
+public final class VerifiedTokenCache {
+
+    /** Default maximum number of cached tokens. */
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+    /** Fraction of the capacity freed when the cache is full. */
+    private static final int EVICTION_DIVISOR = 10;
+
+    /** Verified principals by token digest. */
+    private final Map<String, JwtPrincipal> entries =
+            new ConcurrentHashMap<>();
+
+    /** Maximum number of entries kept. */
+    private final int maxEntries;
+
+    /** Lookups answered from the cache. */
+    private final LongAdder hits = new LongAdder();
+    /** Lookups that were not in the cache. */
+    private final LongAdder misses = new LongAdder();
+    /** Entries removed before being looked up again. */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache with the default capacity.
+     */
+    public VerifiedTokenCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a cache holding at most the given number of tokens.
+     * @param capacity the maximum number of entries, must be positive.
+     */
+    public VerifiedTokenCache(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "Cache capacity must be positive");
+        }
+        this.maxEntries = capacity;
+    }
+
+    /**
+     * Looks up a previously verified token.
+     * Expired entries are removed and reported as a miss.
+     * @param token serialized JWT.
+     * @return the cached principal, or empty on a miss.
+     */
+    public Optional<JwtPrincipal> get(final String token) {
+        String key = digest(token);
+        JwtPrincipal principal = entries.get(key);
+
+        if (principal == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        if (!principal.expiresAt().isAfter(Instant.now())) {
+            if (entries.remove(key, principal)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(principal);
+    }
+
+    /**
+     * Stores a freshly verified token.
+     * @param token serialized JWT.
+     * @param principal the verified claims.
+     */
+    public void put(final String token, final JwtPrincipal principal) {
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(digest(token), principal);
+    }
+
+    /**
+     * Removes a single token, e.g. when its key is no longer trusted.
+     * @param token serialized JWT.
+     */
+    public void invalidate(final String token) {
+        if (entries.remove(digest(token)) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes every token signed with the given key identifier.
+     * @param kid the retired key identifier.
+     */
+    public void evictKid(final String kid) {
+        Iterator<JwtPrincipal> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (kid.equals(it.next().kid())) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns the current cache counters.
+     * @return hit, miss and eviction counts plus the current size.
+     */
+    public VerifiedTokenCacheStats stats() {
+        return new VerifiedTokenCacheStats(
+                hits.sum(),
+                misses.sum(),
+                evictions.sum(),
+                entries.size()
+        );
+    }
+
+    /**
+     * Frees space by dropping expired entries first and then arbitrary
+     * ones until a tenth of the capacity is available.
+     */
+    private void makeRoom() {
+        Instant now = Instant.now();
+        Iterator<JwtPrincipal> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (!it.next().expiresAt().isAfter(now)) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+
+        int target = maxEntries - Math.max(1, maxEntries / EVICTION_DIVISOR);
+        it = entries.values().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Hashes a token so raw credentials are never used as map keys.
+     * @param token serialized JWT.
+     * @return hex encoded SHA-256 digest.
+     */
+    private static String digest(final String token) {
+        return DigestUtils.sha256Hex(token);
+    }
+}
@@ -0,0 +1,15 @@
+package bflow.auth.security.jwt;
+
+/**
+ * Point-in-time counters of the {@link VerifiedTokenCache}.
+ * @param hits lookups answered from the cache.
+ * @param misses lookups that required a full verification.
+ * @param evictions entries dropped by expiry, key retirement or size.
+ * @param size entries currently held.
+ */
+public record VerifiedTokenCacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        int size
+) { }
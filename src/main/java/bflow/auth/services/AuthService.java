@@ -11,7 +11,6 @@ import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
-import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -19,7 +18,6 @@ import org.springframework.stereotype.Service;
  * Service providing core authentication and registration business logic.
  */
 @Service
-@RequiredArgsConstructor
 public class AuthService {
 
     /** Repository for authentication account data. */
@@ -28,9 +26,38 @@ public class AuthService {
     private final RepositoryUser userRepository;
     /** Encoder for hashing and verifying passwords. */
     private final PasswordEncoder passwordEncoder;
+    /** Filter of registered emails, to skip lookups for unknown ones. */
+    private final KnownEmailFilter knownEmailFilter;
+    /** Hash checked against for unknown emails, created at startup. */
+    private final String dummyHash;
 
     /**
-     * Authenticates a user based on email and password.
+     * Creates the service and hashes a random password up front, so the
+     * first login for an unknown email costs one check like every other.
+     * @param authAccountRepo repository for authentication accounts.
+     * @param userRepo repository for user profiles.
+     * @param encoder encoder for hashing and verifying passwords.
+     * @param emailFilter filter of registered emails.
+     */
+    public AuthService(
+            final RepositoryAuthAccount authAccountRepo,
+            final RepositoryUser userRepo,
+            final PasswordEncoder encoder,
+            final KnownEmailFilter emailFilter
+    ) {
+        this.authAccountRepository = authAccountRepo;
+        this.userRepository = userRepo;
+        this.passwordEncoder = encoder;
+        this.knownEmailFilter = emailFilter;
+        this.dummyHash = encoder.encode(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Authenticates a user based on email and password. A hash made with
+     * outdated Argon2 costs is re-encoded with the current ones. Emails
+     * the filter knows are not registered skip the account lookup, but
+     * every failure for an unknown email still costs one hash, so timing
+     * does not reveal which emails are registered.
      * @param email the user's email address.
      * @param password the plain-text password.
      * @return the authenticated User entity.
@@ -41,9 +68,13 @@ public class AuthService {
             final String password
     ) {
 
+        if (!knownEmailFilter.mightContain(email)) {
+            throw unknownAccount(password);
+        }
+
         AuthAccount account = authAccountRepository
                 .findActiveByLoginAndProvider(email, AuthProvider.LOCAL)
-                .orElseThrow(InvalidCredentialsException::new);
+                .orElseThrow(() -> unknownAccount(password));
 
         if (account.getPasswordHash() == null
                 || !passwordEncoder.matches(
@@ -52,6 +83,11 @@ public class AuthService {
             throw new InvalidCredentialsException();
         }
 
+        if (passwordEncoder.upgradeEncoding(account.getPasswordHash())) {
+            account.setPasswordHash(passwordEncoder.encode(password));
+            authAccountRepository.save(account);
+        }
+
         return account.getUser();
     }
 
@@ -80,6 +116,8 @@ public class AuthService {
             throw new IllegalStateException("User already exists");
         }
 
+        knownEmailFilter.add(dto.getEmail());
+
         User user = new User();
         user.setEmail(dto.getEmail());
         user.setProvider(AuthProvider.LOCAL);
@@ -99,12 +137,13 @@ public class AuthService {
     }
 
     /**
-     * Finds a user by their unique identifier.
-     * @param userId the user UUID.
-     * @return the found User.
+     * Spends one password check on a login without an account, then
+     * returns the failure to throw.
+     * @param password the plain-text password.
+     * @return the exception to throw.
      */
-    public User findById(final UUID userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalStateException("User not found"));
+    private InvalidCredentialsException unknownAccount(final String password) {
+        passwordEncoder.matches(password, dummyHash);
+        return new InvalidCredentialsException();
     }
 }
@@ -0,0 +1,238 @@
+package bflow.auth.services;
+
+import bflow.auth.DTO.Record.KnownEmailFilterStats;
+import bflow.auth.repository.RepositoryUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of registered emails, letting a login for an email that
+ * was never registered be rejected without a database round-trip. The
+ * filter may answer "maybe" for an unknown email, which only costs the
+ * usual lookup, but never "no" for a registered one once loaded.
+ *
+ * <p>Emails are added before the user row is saved, and the whole table
+ * is scanned on startup and then on every rebuild interval, so accounts
+ * created on other nodes are picked up within one interval. Bits are
+ * only ever set, so a rebuild merges into the live filter instead of
+ * replacing it. Until the first scan completes every email is reported
+ * as possibly registered.
+ */
+@Slf4j
+@Component
+public final class KnownEmailFilter {
+
+    /** Bits per 64-bit word. */
+    private static final int WORD_BITS = Long.SIZE;
+
+    /** Shift turning a bit index into a word index. */
+    private static final int WORD_SHIFT = 6;
+
+    /** Emails read per page while scanning the users table. */
+    private static final int PAGE_SIZE = 5000;
+
+    /** FNV-1a 64-bit offset basis. */
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    /** FNV-1a 64-bit prime. */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** First multiplier of the 64-bit finalizer. */
+    private static final long MIX_1 = 0xff51afd7ed558ccdL;
+
+    /** Second multiplier of the 64-bit finalizer. */
+    private static final long MIX_2 = 0xc4ceb9fe1a85ec53L;
+
+    /** Shift of the 64-bit finalizer. */
+    private static final int MIX_SHIFT = 33;
+
+    /** Half of a 64-bit hash, used to derive the second hash. */
+    private static final int HALF_SHIFT = 32;
+
+    /** Scheduling interval property. */
+    private static final String INTERVAL =
+            "${bflow.auth.email-filter.rebuild-interval-ms:60000}";
+
+    /** Repository scanned to load the filter. */
+    private final RepositoryUser userRepository;
+
+    /** Whether the filter is consulted at all. */
+    private final boolean enabled;
+
+    /** Filter bits. */
+    private final AtomicLongArray bits;
+
+    /** Number of filter bits. */
+    private final long bitCount;
+
+    /** Number of bits set per email. */
+    private final int hashes;
+
+    /** Number of emails the filter is sized for. */
+    private final long capacity;
+
+    /** Whether a full scan of the users table has completed. */
+    private volatile boolean loaded;
+
+    /** Emails found by the last scan. */
+    private volatile long scannedEmails;
+
+    /** Lookups answered with "not registered". */
+    private final LongAdder negatives = new LongAdder();
+
+    /**
+     * Creates the filter, sized for the expected number of emails and
+     * false positive rate.
+     * @param repositoryUser repository scanned to load the filter.
+     * @param filterEnabled whether the filter is consulted at all.
+     * @param expectedEmails number of emails the filter is sized for.
+     * @param falsePositiveRate target rate of unknown emails reported as
+     *                          possibly registered.
+     */
+    public KnownEmailFilter(
+            final RepositoryUser repositoryUser,
+            @Value("${bflow.auth.email-filter.enabled:true}")
+            final boolean filterEnabled,
+            @Value("${bflow.auth.email-filter.expected-emails:1000000}")
+            final long expectedEmails,
+            @Value("${bflow.auth.email-filter.false-positive-rate:0.01}")
+            final double falsePositiveRate
+    ) {
+        if (expectedEmails < 1
+                || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException(
+                    "Invalid email filter sizing");
+        }
+        this.userRepository = repositoryUser;
+        this.enabled = filterEnabled;
+        this.capacity = expectedEmails;
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(
+                -expectedEmails * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int words = (int) Math.max(1,
+                (optimalBits + WORD_BITS - 1) >>> WORD_SHIFT);
+        this.bits = new AtomicLongArray(filterEnabled ? words : 1);
+        this.bitCount = (long) bits.length() * WORD_BITS;
+        this.hashes = Math.max(1, (int) Math.round(
+                (double) bitCount / expectedEmails * ln2));
+    }
+
+    /**
+     * Records a registered email. Call before the user row is saved so a
+     * login racing the registration is never turned away.
+     * @param email the email.
+     */
+    public void add(final String email) {
+        long hash = hash(email);
+        for (int i = 0; i < hashes; i++) {
+            long bit = bit(hash, i);
+            int word = (int) (bit >>> WORD_SHIFT);
+            long mask = 1L << bit;
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (a, b) -> a | b);
+            }
+        }
+    }
+
+    /**
+     * Tells whether an email may belong to a registered user.
+     * @param email the email.
+     * @return false only if the email is certainly not registered.
+     */
+    public boolean mightContain(final String email) {
+        if (!enabled || !loaded || email == null) {
+            return true;
+        }
+        long hash = hash(email);
+        for (int i = 0; i < hashes; i++) {
+            long bit = bit(hash, i);
+            if ((bits.get((int) (bit >>> WORD_SHIFT)) & (1L << bit)) == 0) {
+                negatives.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans the users table into the filter, on startup and then on
+     * every rebuild interval.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = INTERVAL)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        String after = "";
+        long scanned = 0;
+        List<String> page;
+        do {
+            page = userRepository.findEmailsAfter(
+                    after, PageRequest.of(0, PAGE_SIZE));
+            page.forEach(this::add);
+            scanned += page.size();
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == PAGE_SIZE);
+        if (!loaded) {
+            log.info("Loaded {} registered emails into the login filter",
+                    scanned);
+        }
+        if (scanned > capacity && scannedEmails <= capacity) {
+            log.warn("{} registered emails exceed the login filter "
+                    + "capacity of {}, raise expected-emails", scanned,
+                    capacity);
+        }
+        scannedEmails = scanned;
+        loaded = true;
+    }
+
+    /**
+     * Returns the current filter metrics.
+     * @return a stats snapshot.
+     */
+    public KnownEmailFilterStats stats() {
+        return new KnownEmailFilterStats(
+                enabled,
+                loaded,
+                bitCount,
+                hashes,
+                scannedEmails,
+                negatives.sum()
+        );
+    }
+
+    /**
+     * Derives the i-th bit of an email from its hash, by double hashing.
+     * @param hash the email hash.
+     * @param i the bit number, below the number of hashes.
+     * @return the bit index.
+     */
+    private long bit(final long hash, final int i) {
+        int first = (int) hash;
+        int second = (int) (hash >>> HALF_SHIFT);
+        return Integer.toUnsignedLong(first + i * second) % bitCount;
+    }
+
+    /**
+     * Hashes an email to 64 bits.
+     * @param email the email.
+     * @return the hash.
+     */
+    private static long hash(final String email) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < email.length(); i++) {
+            hash = (hash ^ email.charAt(i)) * FNV_PRIME;
+        }
+        hash = (hash ^ (hash >>> MIX_SHIFT)) * MIX_1;
+        hash = (hash ^ (hash >>> MIX_SHIFT)) * MIX_2;
+        return hash ^ (hash >>> MIX_SHIFT);
+    }
+}
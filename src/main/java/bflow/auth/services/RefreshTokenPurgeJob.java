@@ -0,0 +1,98 @@
+package bflow.auth.services;
+
+import bflow.auth.DTO.Record.RefreshTokenPurgeStats;
+import bflow.auth.repository.RepositoryRefreshToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Scheduled job deleting expired refresh tokens. Every token, revoked
+ * or not, is kept for the retention period after its expiry, so a late
+ * refresh is still answered as expired and a replay is still detected
+ * as reuse. Rows are removed in bounded batches, each in its own short
+ * transaction, so the purge never holds locks for long.
+ */
+@Component
+public final class RefreshTokenPurgeJob {
+
+    /** Delay between runs. */
+    private static final String INTERVAL =
+            "${bflow.refresh-token.purge-interval-ms:3600000}";
+
+    /** Repository for token persistence. */
+    private final RepositoryRefreshToken repository;
+
+    /** Maximum rows deleted per statement. */
+    private final int batchSize;
+
+    /** Maximum rows deleted per run. */
+    private final int maxPerRun;
+
+    /** How long tokens are kept after they expire. */
+    private final Duration retention;
+
+    /** Metrics of the last run. */
+    private volatile RefreshTokenPurgeStats stats =
+            new RefreshTokenPurgeStats(0, 0, 0, 0, null);
+
+    /**
+     * Creates the purge job.
+     * @param repositoryRefreshToken repository for token persistence.
+     * @param batch maximum rows deleted per statement.
+     * @param maxRows maximum rows deleted per run.
+     * @param retentionDays days tokens are kept after they expire.
+     */
+    public RefreshTokenPurgeJob(
+            final RepositoryRefreshToken repositoryRefreshToken,
+            @Value("${bflow.refresh-token.purge-batch-size:1000}")
+            final int batch,
+            @Value("${bflow.refresh-token.purge-max-rows:100000}")
+            final int maxRows,
+            @Value("${bflow.refresh-token.retention-days:14}")
+            final long retentionDays
+    ) {
+        this.repository = repositoryRefreshToken;
+        this.batchSize = batch;
+        this.maxPerRun = maxRows;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    /**
+     * Deletes tokens past their retention, batch by batch until none are
+     * left or the per-run limit is reached.
+     * @return the number of deleted rows.
+     */
+    @Scheduled(initialDelayString = INTERVAL, fixedDelayString = INTERVAL)
+    public int purge() {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        Instant expiredBefore = startedAt.minus(retention);
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = repository.purgeExpiredBatch(expiredBefore, batchSize);
+            purged += deleted;
+        } while (deleted == batchSize && purged < maxPerRun);
+
+        RefreshTokenPurgeStats previous = stats;
+        stats = new RefreshTokenPurgeStats(
+                previous.runs() + 1,
+                previous.totalPurged() + purged,
+                purged,
+                Duration.ofNanos(System.nanoTime() - start).toMillis(),
+                startedAt
+        );
+        return purged;
+    }
+
+    /**
+     * Returns the purge metrics.
+     * @return a stats snapshot.
+     */
+    public RefreshTokenPurgeStats stats() {
+        return stats;
+    }
+}
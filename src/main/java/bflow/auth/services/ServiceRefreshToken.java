@@ -3,17 +3,20 @@ package bflow.auth.services;
 import bflow.auth.DTO.Record.RefreshRotationResult;
 import bflow.auth.DTO.Record.RefreshSession;
 import bflow.auth.entities.RefreshToken;
-import bflow.auth.repository.RepositoryRefreshToken;
+import bflow.auth.store.RefreshTokenStore;
+import bflow.auth.store.RotationOutcome;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Service for managing refresh token lifecycle and security rotation.
+ * Persistence goes through the configured {@link RefreshTokenStore}.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,8 +25,8 @@ public class ServiceRefreshToken {
     /** Time-to-live for refresh tokens (14 days). */
     private static final Duration TTL = Duration.ofDays(14);
 
-    /** Repository for token persistence. */
-    private final RepositoryRefreshToken repository;
+    /** Store for token persistence. */
+    private final RefreshTokenStore store;
 
     /**
      * Creates and persists a new refresh token.
@@ -31,15 +34,10 @@ public class ServiceRefreshToken {
      * @param rawToken the plain text token to be hashed.
      */
     public void create(final UUID userId, final String rawToken) {
-        RefreshToken rt = new RefreshToken();
-        rt.setId(UUID.randomUUID());
+        RefreshToken rt = newToken(rawToken);
         rt.setUserId(userId);
-        rt.setTokenHash(hash(rawToken));
-        rt.setCreatedAt(Instant.now());
-        rt.setExpiresAt(Instant.now().plus(TTL));
-        rt.setRevoked(false);
 
-        repository.save(rt);
+        store.save(rt);
     }
 
     /**
@@ -47,21 +45,17 @@ public class ServiceRefreshToken {
      * @param rawToken the plain text token.
      */
     public void validateAndRotate(final String rawToken) {
-        String hash = hash(rawToken);
-
-        RefreshToken existing = repository.findByTokenHash(hash)
-                .orElseThrow(() ->
-                        new SecurityException("Invalid refresh token"));
-
-        if (existing.isRevoked()
-                || existing.getExpiresAt().isBefore(Instant.now())) {
-            revokeAll(existing.getUserId());
-            throw new SecurityException("Refresh token reuse detected");
+        RotationOutcome outcome = store.revoke(hash(rawToken), Instant.now());
+
+        switch (outcome.status()) {
+            case SUCCESS -> { }
+            case NOT_FOUND ->
+                    throw new SecurityException("Invalid refresh token");
+            default -> {
+                revokeAll(outcome.userId());
+                throw new SecurityException("Refresh token reuse detected");
+            }
         }
-
-        existing.setRevoked(true);
-        repository.save(existing);
-
     }
 
     /**
@@ -71,16 +65,9 @@ public class ServiceRefreshToken {
      */
     public RefreshToken validate(final String rawToken) {
         String hash = hash(rawToken);
-
-        RefreshToken token = repository.findByTokenHash(hash)
+        return store.findActiveByHash(hash, Instant.now())
                 .orElseThrow(() ->
                         new SecurityException("Invalid refresh token"));
-
-        if (token.isRevoked() || token.getExpiresAt().isBefore(Instant.now())) {
-            throw new SecurityException("Invalid refresh token");
-        }
-
-        return token;
     }
 
     /**
@@ -89,38 +76,28 @@ public class ServiceRefreshToken {
      * @return the result containing user ID and the new raw token.
      */
     public RefreshRotationResult rotate(final String rawToken) {
-        String hash = hash(rawToken);
-
-        RefreshToken existing = repository.findByTokenHash(hash)
-                .orElseThrow(() ->
-                        new SecurityException("Invalid refresh token"));
-
-        if (existing.getExpiresAt().isBefore(Instant.now())) {
-            revokeAll(existing.getUserId());
-            throw new SecurityException("Expired refresh token");
-        }
-
-        if (existing.isRevoked()) {
-            revokeAll(existing.getUserId());
-            throw new SecurityException("Refresh token reuse detected");
-        }
-
-        existing.setRevoked(true);
-
         String newRawToken = UUID.randomUUID().toString();
-        RefreshToken replacement = new RefreshToken();
-        replacement.setId(UUID.randomUUID());
-        replacement.setUserId(existing.getUserId());
-        replacement.setTokenHash(hash(newRawToken));
-        replacement.setCreatedAt(Instant.now());
-        replacement.setExpiresAt(Instant.now().plus(TTL));
-
-        existing.setReplacedBy(replacement.getId());
-
-        repository.save(existing);
-        repository.save(replacement);
-
-        return new RefreshRotationResult(existing.getUserId(), newRawToken);
+        RefreshToken replacement = newToken(newRawToken);
+
+        RotationOutcome outcome =
+                store.rotate(hash(rawToken), replacement, Instant.now());
+
+        switch (outcome.status()) {
+            case SUCCESS -> {
+                return new RefreshRotationResult(
+                        outcome.userId(), newRawToken);
+            }
+            case NOT_FOUND ->
+                    throw new SecurityException("Invalid refresh token");
+            case EXPIRED -> {
+                revokeAll(outcome.userId());
+                throw new SecurityException("Expired refresh token");
+            }
+            default -> {
+                revokeAll(outcome.userId());
+                throw new SecurityException("Refresh token reuse detected");
+            }
+        }
     }
 
     /**
@@ -133,9 +110,7 @@ public class ServiceRefreshToken {
             final UUID userId,
             final UUID currentTokenId
     ) {
-        return repository
-                .findAllByUserIdAndRevokedFalseAndExpiresAtAfter(
-                        userId, Instant.now())
+        return store.findActiveByUser(userId, Instant.now())
                 .stream()
                 .map(rt -> new RefreshSession(
                         rt.getId(),
@@ -149,13 +124,35 @@ public class ServiceRefreshToken {
     /**
      * Revokes all active tokens for a specific user (Security Nuclear Option).
      * @param userId the user ID.
+     * @return the number of revoked tokens.
      */
-    public void revokeAll(final UUID userId) {
-        repository.findAllByUserIdAndRevokedFalse(userId)
-                .forEach(rt -> {
-                    rt.setRevoked(true);
-                    repository.save(rt);
-                });
+    public int revokeAll(final UUID userId) {
+        return store.revokeAll(userId);
+    }
+
+    /**
+     * Revokes all active tokens of several users, for mass logouts.
+     * @param userIds the user IDs.
+     * @return the number of revoked tokens.
+     */
+    public int revokeAll(final Collection<UUID> userIds) {
+        return store.revokeAll(userIds);
+    }
+
+    /**
+     * Builds an unsaved, unowned token for a raw value.
+     * @param rawToken the plain text token.
+     * @return the new token.
+     */
+    private RefreshToken newToken(final String rawToken) {
+        Instant now = Instant.now();
+        RefreshToken rt = new RefreshToken();
+        rt.setId(UUID.randomUUID());
+        rt.setTokenHash(hash(rawToken));
+        rt.setCreatedAt(now);
+        rt.setExpiresAt(now.plus(TTL));
+        rt.setRevoked(false);
+        return rt;
     }
 
     /**
@@ -0,0 +1,195 @@
+package bflow.auth.services;
+
+import bflow.auth.DTO.Record.UserClaims;
+import bflow.auth.DTO.Record.UserClaimsCacheStats;
+import bflow.auth.repository.RepositoryUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory cache of the claims put into access tokens, so a
+ * token refresh does not reload the user and its roles every time.
+ * Any update or delete of a user invalidates the entry through
+ * {@link UserClaimsInvalidator}; the time to live bounds how long other
+ * nodes keep serving a stale copy.
+ */
+@Component
+public final class UserClaimsCache {
+
+    /** Fraction of the capacity freed when the cache is full. */
+    private static final int EVICTION_DIVISOR = 10;
+
+    /** Repository loading users on a miss. */
+    private final RepositoryUser userRepository;
+
+    /** Time to live of an entry in nanoseconds. */
+    private final long ttlNanos;
+
+    /** Maximum number of entries kept. */
+    private final int maxEntries;
+
+    /** Source of monotonic time in nanoseconds. */
+    private final LongSupplier clock;
+
+    /** Cached claims by user ID. */
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped on every invalidation, so a load that started before it
+     * is not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** Lookups answered from the cache. */
+    private final LongAdder hits = new LongAdder();
+
+    /** Lookups that loaded the user. */
+    private final LongAdder misses = new LongAdder();
+
+    /** Entries dropped after a user change. */
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates the cache from configuration.
+     * @param repositoryUser repository loading users on a miss.
+     * @param ttlMs time to live of an entry in milliseconds.
+     * @param capacity maximum number of entries.
+     */
+    @Autowired
+    public UserClaimsCache(
+            final RepositoryUser repositoryUser,
+            @Value("${bflow.auth.claims-cache.ttl-ms:60000}")
+            final long ttlMs,
+            @Value("${bflow.auth.claims-cache.max-entries:10000}")
+            final int capacity
+    ) {
+        this(repositoryUser, ttlMs, capacity, System::nanoTime);
+    }
+
+    /**
+     * Creates the cache with an explicit clock.
+     * @param repositoryUser repository loading users on a miss.
+     * @param ttlMs time to live of an entry in milliseconds.
+     * @param capacity maximum number of entries.
+     * @param nanoClock source of monotonic time in nanoseconds.
+     */
+    public UserClaimsCache(
+            final RepositoryUser repositoryUser,
+            final long ttlMs,
+            final int capacity,
+            final LongSupplier nanoClock
+    ) {
+        if (ttlMs <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "Claims cache TTL and capacity must be positive");
+        }
+        this.userRepository = repositoryUser;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxEntries = capacity;
+        this.clock = nanoClock;
+    }
+
+    /**
+     * Returns the claims of a user, loading the user on a miss.
+     * @param userId the user ID.
+     * @return the claims.
+     * @throws IllegalStateException if the user does not exist.
+     */
+    public UserClaims get(final UUID userId) {
+        long now = clock.getAsLong();
+        Entry entry = entries.get(userId);
+        if (entry != null && now - entry.loadedAt() < ttlNanos) {
+            hits.increment();
+            return entry.claims();
+        }
+        misses.increment();
+        long loadGeneration = generation.get();
+        UserClaims claims = userRepository.findById(userId)
+                .map(UserClaims::of)
+                .orElseThrow(() -> new IllegalStateException(
+                        "User not found"));
+        if (entries.size() >= maxEntries) {
+            makeRoom(now);
+        }
+        entries.put(userId, new Entry(claims, now));
+        if (generation.get() != loadGeneration) {
+            entries.remove(userId);
+        }
+        return claims;
+    }
+
+    /**
+     * Drops the claims of a user now and, inside a transaction, again
+     * once it commits so a concurrent load cannot cache the old row.
+     * @param userId the user ID.
+     */
+    public void invalidate(final UUID userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            evict(userId);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Returns the current cache metrics.
+     * @return a stats snapshot.
+     */
+    public UserClaimsCacheStats stats() {
+        return new UserClaimsCacheStats(
+                hits.sum(),
+                misses.sum(),
+                invalidations.sum(),
+                entries.size()
+        );
+    }
+
+    /**
+     * Removes the entry of a user and fences loads in flight.
+     * @param userId the user ID.
+     */
+    private void evict(final UUID userId) {
+        generation.incrementAndGet();
+        if (entries.remove(userId) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Frees space by dropping expired entries first and then arbitrary
+     * ones until a tenth of the capacity is available.
+     * @param now the current time in nanoseconds.
+     */
+    private void makeRoom(final long now) {
+        entries.values().removeIf(entry -> now - entry.loadedAt() >= ttlNanos);
+        int target = maxEntries - Math.max(1, maxEntries / EVICTION_DIVISOR);
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Cached claims with their load time.
+     * @param claims the claims.
+     * @param loadedAt the load time in nanoseconds.
+     */
+    private record Entry(UserClaims claims, long loadedAt) { }
+}
@@ -0,0 +1,41 @@
+package bflow.auth.services;
+
+import bflow.auth.entities.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entity listener dropping the cached claims of a user whenever its row
+ * is updated or deleted, so every write path invalidates the cache
+ * without having to remember to.
+ */
+@Component
+public class UserClaimsInvalidator {
+
+    /** Cache of token claims, looked up on first use. */
+    private final ObjectProvider<UserClaimsCache> userClaimsCache;
+
+    /**
+     * Creates the listener. Hibernate builds it while the entity manager
+     * factory starts, before the cache and its user repository can
+     * exist, so the cache is resolved on first use.
+     * @param cache provider of the cache of token claims.
+     */
+    public UserClaimsInvalidator(
+            final ObjectProvider<UserClaimsCache> cache
+    ) {
+        this.userClaimsCache = cache;
+    }
+
+    /**
+     * Invalidates the claims of a changed user.
+     * @param user the updated or deleted user.
+     */
+    @PostUpdate
+    @PostRemove
+    public void userChanged(final User user) {
+        userClaimsCache.getObject().invalidate(user.getId());
+    }
+}
@@ -0,0 +1,84 @@
+package bflow.auth.services;
+
+import bflow.auth.repository.RepositoryUser;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+
+/**
+ * Moves roles from the user_roles table, used before roles became the
+ * role_mask column, into role_mask and drops the table. Hibernate adds
+ * role_mask with every existing user set to USER, so without this step
+ * administrators would lose their role.
+ *
+ * <p>Runs on startup, before the application serves requests, in one
+ * transaction under a cluster-wide lock, so nodes starting together
+ * migrate once and a failure leaves user_roles in place for the next
+ * start.
+ */
+@Slf4j
+@Component
+public class UserRoleMigration {
+
+    /** Repository running the migration statements. */
+    private final RepositoryUser userRepository;
+
+    /** Runs the migration in a single transaction. */
+    private final TransactionOperations transactions;
+
+    /**
+     * Creates the migration from configuration.
+     * @param repositoryUser repository running the statements.
+     * @param transactionManager manager of the migration transaction.
+     */
+    @Autowired
+    public UserRoleMigration(
+            final RepositoryUser repositoryUser,
+            final PlatformTransactionManager transactionManager
+    ) {
+        this(repositoryUser, new TransactionTemplate(transactionManager));
+    }
+
+    /**
+     * Creates the migration with explicit transactions.
+     * @param repositoryUser repository running the statements.
+     * @param transactionOperations runs the migration transaction.
+     */
+    public UserRoleMigration(
+            final RepositoryUser repositoryUser,
+            final TransactionOperations transactionOperations
+    ) {
+        this.userRepository = repositoryUser;
+        this.transactions = transactionOperations;
+    }
+
+    /**
+     * Folds user_roles into role_mask if the table still exists.
+     */
+    @PostConstruct
+    public void migrate() {
+        if (!userRepository.hasLegacyRoleTable()) {
+            return;
+        }
+        transactions.executeWithoutResult(status -> {
+            userRepository.lockRoleMigration();
+            if (!userRepository.hasLegacyRoleTable()) {
+                return;
+            }
+            List<String> unknown = userRepository.findUnknownLegacyRoles();
+            if (!unknown.isEmpty()) {
+                log.warn("Dropping unknown roles {} from user_roles",
+                        unknown);
+            }
+            int users = userRepository.foldLegacyRoles();
+            userRepository.dropLegacyRoleTable();
+            log.info("Moved the roles of {} users from user_roles to "
+                    + "role_mask", users);
+        });
+    }
+}
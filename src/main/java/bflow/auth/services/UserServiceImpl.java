@@ -23,6 +23,8 @@ public class UserServiceImpl implements UserService {
     private final RepositoryUser userRepository;
     /** Repository for authentication account mapping. */
     private final RepositoryAuthAccount authAccountRepository;
+    /** Filter of registered emails used by local login. */
+    private final KnownEmailFilter knownEmailFilter;
 
     /**
      * Resolves an OAuth2 user by email, provider ID, and provider type.
@@ -68,6 +70,8 @@ public class UserServiceImpl implements UserService {
             final String providerId,
             final AuthProvider provider
     ) {
+        knownEmailFilter.add(email);
+
         User user = User.builder()
                 .email(email)
                 .enabled(true)
@@ -102,14 +106,17 @@ public class UserServiceImpl implements UserService {
     ) {
 
         return userRepository.findByEmail(email)
-                .orElseGet(() -> userRepository.save(
-                        User.builder()
-                                .email(email)
-                                .provider(provider)
-                                .roles(Set.of("USER"))
-                                .enabled(true)
-                                .build()
-                ));
+                .orElseGet(() -> {
+                    knownEmailFilter.add(email);
+                    return userRepository.save(
+                            User.builder()
+                                    .email(email)
+                                    .provider(provider)
+                                    .roles(Set.of("USER"))
+                                    .enabled(true)
+                                    .build()
+                    );
+                });
     }
 
     /**
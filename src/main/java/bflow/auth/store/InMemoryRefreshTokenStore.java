@@ -0,0 +1,186 @@
+package bflow.auth.store;
+
+import bflow.auth.entities.RefreshToken;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process refresh token store with the same semantics as the Redis
+ * store: state changes are atomic per token and expired tokens are
+ * swept out periodically. It stands in for Redis in tests and in
+ * single-node setups.
+ */
+@Component
+@ConditionalOnProperty(
+        name = "bflow.refresh-token.store",
+        havingValue = "memory"
+)
+public final class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    /** Number of saves between two sweeps of expired tokens. */
+    private static final int SWEEP_INTERVAL = 1024;
+
+    /** Saves since startup, used to schedule sweeps. */
+    private final AtomicLong saves = new AtomicLong();
+
+    /** Stored tokens by hash. */
+    private final Map<String, RefreshToken> tokens =
+            new ConcurrentHashMap<>();
+
+    @Override
+    public void save(final RefreshToken token) {
+        if (saves.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            Instant now = Instant.now();
+            tokens.values().removeIf(t -> t.getExpiresAt().isBefore(now));
+        }
+        tokens.put(token.getTokenHash(), copy(token));
+    }
+
+    @Override
+    public Optional<RefreshToken> findByHash(final String tokenHash) {
+        return Optional.ofNullable(tokens.get(tokenHash))
+                .map(InMemoryRefreshTokenStore::copy);
+    }
+
+    @Override
+    public Optional<RefreshToken> findActiveByHash(
+            final String tokenHash,
+            final Instant now
+    ) {
+        return Optional.ofNullable(tokens.get(tokenHash))
+                .filter(token -> isActive(token, now))
+                .map(InMemoryRefreshTokenStore::copy);
+    }
+
+    @Override
+    public RotationOutcome rotate(
+            final String tokenHash,
+            final RefreshToken replacement,
+            final Instant now
+    ) {
+        RotationOutcome[] outcome = {RotationOutcome.notFound()};
+        tokens.computeIfPresent(tokenHash, (hash, existing) -> {
+            outcome[0] = check(existing, now);
+            if (outcome[0].status() != RotationOutcome.Status.SUCCESS) {
+                return existing;
+            }
+            RefreshToken revoked = copy(existing);
+            revoked.setRevoked(true);
+            revoked.setReplacedBy(replacement.getId());
+            return revoked;
+        });
+        if (outcome[0].status() == RotationOutcome.Status.SUCCESS) {
+            RefreshToken next = copy(replacement);
+            next.setUserId(outcome[0].userId());
+            tokens.put(next.getTokenHash(), next);
+        }
+        return outcome[0];
+    }
+
+    @Override
+    public RotationOutcome revoke(final String tokenHash, final Instant now) {
+        RotationOutcome[] outcome = {RotationOutcome.notFound()};
+        tokens.computeIfPresent(tokenHash, (hash, existing) -> {
+            outcome[0] = check(existing, now);
+            if (outcome[0].status() == RotationOutcome.Status.SUCCESS) {
+                RefreshToken revoked = copy(existing);
+                revoked.setRevoked(true);
+                return revoked;
+            }
+            return existing;
+        });
+        return outcome[0];
+    }
+
+    @Override
+    public List<RefreshToken> findActiveByUser(
+            final UUID userId,
+            final Instant now
+    ) {
+        return tokens.values().stream()
+                .filter(token -> token.getUserId().equals(userId))
+                .filter(token -> isActive(token, now))
+                .map(InMemoryRefreshTokenStore::copy)
+                .toList();
+    }
+
+    @Override
+    public int revokeAll(final UUID userId) {
+        return revokeAll(List.of(userId));
+    }
+
+    @Override
+    public int revokeAll(final Collection<UUID> userIds) {
+        int revoked = 0;
+        for (Map.Entry<String, RefreshToken> entry : tokens.entrySet()) {
+            RefreshToken token = entry.getValue();
+            if (!token.isRevoked() && userIds.contains(token.getUserId())) {
+                RefreshToken next = copy(token);
+                next.setRevoked(true);
+                if (tokens.replace(entry.getKey(), token, next)) {
+                    revoked++;
+                }
+            }
+        }
+        return revoked;
+    }
+
+    /**
+     * Classifies a stored token for a state change.
+     * @param token the stored token.
+     * @param now the current time.
+     * @return the outcome of the change.
+     */
+    private static RotationOutcome check(
+            final RefreshToken token,
+            final Instant now
+    ) {
+        RotationOutcome.Status status;
+        if (token.getExpiresAt().isBefore(now)) {
+            status = RotationOutcome.Status.EXPIRED;
+        } else if (token.isRevoked()) {
+            status = RotationOutcome.Status.REUSED;
+        } else {
+            status = RotationOutcome.Status.SUCCESS;
+        }
+        return new RotationOutcome(status, token.getUserId());
+    }
+
+    /**
+     * Tells whether a token can still be used.
+     * @param token the stored token.
+     * @param now the current time.
+     * @return true if neither revoked nor expired.
+     */
+    private static boolean isActive(
+            final RefreshToken token,
+            final Instant now
+    ) {
+        return !token.isRevoked() && token.getExpiresAt().isAfter(now);
+    }
+
+    /**
+     * Copies a token so callers never share mutable state with the store.
+     * @param source the token to copy.
+     * @return the copy.
+     */
+    private static RefreshToken copy(final RefreshToken source) {
+        RefreshToken copy = new RefreshToken();
+        copy.setId(source.getId());
+        copy.setUserId(source.getUserId());
+        copy.setTokenHash(source.getTokenHash());
+        copy.setExpiresAt(source.getExpiresAt());
+        copy.setRevoked(source.isRevoked());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setReplacedBy(source.getReplacedBy());
+        return copy;
+    }
+}
@@ -0,0 +1,167 @@
+package bflow.auth.store;
+
+import bflow.auth.entities.RefreshToken;
+import bflow.auth.repository.RepositoryRefreshToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Refresh token store backed by the {@code auth_refresh_tokens} table.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "bflow.refresh-token.store",
+        havingValue = "jpa",
+        matchIfMissing = true
+)
+public final class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    /** Maximum number of users per bulk revocation statement. */
+    private static final int REVOKE_BATCH_SIZE = 500;
+
+    /** Repository for token persistence. */
+    private final RepositoryRefreshToken repository;
+
+    /**
+     * Persists a new token.
+     * @param token the token to store.
+     */
+    @Override
+    public void save(final RefreshToken token) {
+        repository.save(token);
+    }
+
+    /**
+     * Finds a token by hash whatever its state.
+     * @param tokenHash the hashed token.
+     * @return optional containing the token.
+     */
+    @Override
+    public Optional<RefreshToken> findByHash(final String tokenHash) {
+        return repository.findByTokenHash(tokenHash);
+    }
+
+    /**
+     * Finds an active token with a read-only lookup on the hash index.
+     * @param tokenHash the hashed token.
+     * @param now the current time.
+     * @return optional containing the active token.
+     */
+    @Override
+    public Optional<RefreshToken> findActiveByHash(
+            final String tokenHash,
+            final Instant now
+    ) {
+        return repository.findByTokenHashAndRevokedFalseAndExpiresAtAfter(
+                tokenHash, now);
+    }
+
+    /**
+     * Claims the token and inserts its replacement in a single
+     * statement. The state of the old token is only read again when the
+     * claim fails, to tell unknown, expired and replayed tokens apart.
+     * @param tokenHash the hash of the token being exchanged.
+     * @param replacement the new token without a user.
+     * @param now the current time.
+     * @return the outcome of the rotation.
+     */
+    @Override
+    public RotationOutcome rotate(
+            final String tokenHash,
+            final RefreshToken replacement,
+            final Instant now
+    ) {
+        return repository.rotateByTokenHash(
+                        tokenHash,
+                        replacement.getId(),
+                        replacement.getTokenHash(),
+                        replacement.getCreatedAt(),
+                        replacement.getExpiresAt(),
+                        now)
+                .map(userId -> new RotationOutcome(
+                        RotationOutcome.Status.SUCCESS, userId))
+                .orElseGet(() -> rejection(tokenHash, now));
+    }
+
+    /**
+     * Revokes the token with a single conditional update.
+     * @param tokenHash the hashed token.
+     * @param now the current time.
+     * @return the outcome of the revocation.
+     */
+    @Override
+    public RotationOutcome revoke(final String tokenHash, final Instant now) {
+        return repository.revokeByTokenHash(tokenHash, now)
+                .map(userId -> new RotationOutcome(
+                        RotationOutcome.Status.SUCCESS, userId))
+                .orElseGet(() -> rejection(tokenHash, now));
+    }
+
+    /**
+     * Lists the active tokens of a user.
+     * @param userId the user ID.
+     * @param now the current time.
+     * @return the active tokens.
+     */
+    @Override
+    public List<RefreshToken> findActiveByUser(
+            final UUID userId,
+            final Instant now
+    ) {
+        return repository.findAllByUserIdAndRevokedFalseAndExpiresAtAfter(
+                userId, now);
+    }
+
+    /**
+     * Revokes every active token of a user with one bulk update.
+     * @param userId the user ID.
+     * @return the number of revoked tokens.
+     */
+    @Override
+    public int revokeAll(final UUID userId) {
+        return repository.revokeAllByUserId(userId);
+    }
+
+    /**
+     * Revokes every active token of several users with bulk updates
+     * of at most 500 users each.
+     * @param userIds the user IDs.
+     * @return the number of revoked tokens.
+     */
+    @Override
+    public int revokeAll(final Collection<UUID> userIds) {
+        List<UUID> ids = List.copyOf(userIds);
+        int revoked = 0;
+        for (int from = 0; from < ids.size(); from += REVOKE_BATCH_SIZE) {
+            int to = Math.min(from + REVOKE_BATCH_SIZE, ids.size());
+            revoked += repository.revokeAllByUserIdIn(ids.subList(from, to));
+        }
+        return revoked;
+    }
+
+    /**
+     * Explains why a token could not be claimed.
+     * @param tokenHash the hashed token.
+     * @param now the current time.
+     * @return NOT_FOUND, EXPIRED or REUSED.
+     */
+    private RotationOutcome rejection(
+            final String tokenHash,
+            final Instant now
+    ) {
+        return repository.findByTokenHash(tokenHash)
+                .map(token -> new RotationOutcome(
+                        token.getExpiresAt().isBefore(now)
+                                ? RotationOutcome.Status.EXPIRED
+                                : RotationOutcome.Status.REUSED,
+                        token.getUserId()))
+                .orElseGet(RotationOutcome::notFound);
+    }
+}
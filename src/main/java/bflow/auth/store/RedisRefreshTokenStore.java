@@ -0,0 +1,273 @@
+package bflow.auth.store;
+
+import bflow.auth.entities.RefreshToken;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Refresh token store backed by Redis, taking the refresh hot path off
+ * PostgreSQL. Each token is a hash under {@code bflow:rt:<hash>} that
+ * expires natively at the token expiry, and each user has a set of
+ * token hashes for session listing and mass revocation. Every state
+ * change runs as a Lua script, so a token is rotated at most once even
+ * under concurrent requests. Scripts touch keys derived from stored
+ * values, so a single Redis instance (or replica set) is assumed.
+ */
+@Component
+@ConditionalOnProperty(
+        name = "bflow.refresh-token.store",
+        havingValue = "redis"
+)
+public final class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    /** Prefix of token keys. */
+    static final String TOKEN_PREFIX = "bflow:rt:";
+
+    /** Prefix of per-user token sets. */
+    static final String USER_PREFIX = "bflow:rt:user:";
+
+    /**
+     * Stores a token and indexes it for its user. Tokens share one TTL,
+     * so the newest token always expires last and sets the set expiry.
+     */
+    private static final RedisScript<Long> SAVE = new DefaultRedisScript<>("""
+            redis.call('HSET', KEYS[1], 'id', ARGV[1], 'userId', ARGV[2],
+                'createdAt', ARGV[3], 'expiresAt', ARGV[4], 'revoked', '0')
+            redis.call('PEXPIREAT', KEYS[1], ARGV[4])
+            redis.call('SADD', KEYS[2], ARGV[5])
+            redis.call('PEXPIREAT', KEYS[2], ARGV[4])
+            return 1
+            """, Long.class);
+
+    /** Revokes a valid token and stores its replacement. */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return {'NOT_FOUND', ''}
+            end
+            local userId = redis.call('HGET', KEYS[1], 'userId')
+            local expiresAt = redis.call('HGET', KEYS[1], 'expiresAt')
+            if tonumber(expiresAt) < tonumber(ARGV[1]) then
+                return {'EXPIRED', userId}
+            end
+            if redis.call('HGET', KEYS[1], 'revoked') == '1' then
+                return {'REUSED', userId}
+            end
+            redis.call('HSET', KEYS[1], 'revoked', '1', 'replacedBy', ARGV[2])
+            redis.call('HSET', KEYS[2], 'id', ARGV[2], 'userId', userId,
+                'createdAt', ARGV[3], 'expiresAt', ARGV[4], 'revoked', '0')
+            redis.call('PEXPIREAT', KEYS[2], ARGV[4])
+            local userKey = ARGV[5] .. userId
+            redis.call('SADD', userKey, ARGV[6])
+            redis.call('PEXPIREAT', userKey, ARGV[4])
+            return {'SUCCESS', userId}
+            """, List.class);
+
+    /** Revokes a valid token. */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REVOKE = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return {'NOT_FOUND', ''}
+            end
+            local userId = redis.call('HGET', KEYS[1], 'userId')
+            local expiresAt = redis.call('HGET', KEYS[1], 'expiresAt')
+            if tonumber(expiresAt) < tonumber(ARGV[1]) then
+                return {'EXPIRED', userId}
+            end
+            if redis.call('HGET', KEYS[1], 'revoked') == '1' then
+                return {'REUSED', userId}
+            end
+            redis.call('HSET', KEYS[1], 'revoked', '1')
+            return {'SUCCESS', userId}
+            """, List.class);
+
+    /** Revokes every token of a user and drops expired set members. */
+    private static final RedisScript<Long> REVOKE_ALL =
+            new DefaultRedisScript<>("""
+            local count = 0
+            for _, hash in ipairs(redis.call('SMEMBERS', KEYS[1])) do
+                local key = ARGV[1] .. hash
+                local revoked = redis.call('HGET', key, 'revoked')
+                if not revoked then
+                    redis.call('SREM', KEYS[1], hash)
+                elseif revoked == '0' then
+                    redis.call('HSET', key, 'revoked', '1')
+                    count = count + 1
+                end
+            end
+            return count
+            """, Long.class);
+
+    /** Redis client. */
+    private final StringRedisTemplate redis;
+
+    /**
+     * Creates the store.
+     * @param redisTemplate the Redis client.
+     */
+    public RedisRefreshTokenStore(final StringRedisTemplate redisTemplate) {
+        this.redis = redisTemplate;
+    }
+
+    @Override
+    public void save(final RefreshToken token) {
+        redis.execute(
+                SAVE,
+                List.of(tokenKey(token.getTokenHash()),
+                        userKey(token.getUserId())),
+                token.getId().toString(),
+                token.getUserId().toString(),
+                millis(token.getCreatedAt()),
+                millis(token.getExpiresAt()),
+                token.getTokenHash()
+        );
+    }
+
+    @Override
+    public Optional<RefreshToken> findByHash(final String tokenHash) {
+        Map<Object, Object> fields =
+                redis.opsForHash().entries(tokenKey(tokenHash));
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(toToken(tokenHash, fields));
+    }
+
+    @Override
+    public Optional<RefreshToken> findActiveByHash(
+            final String tokenHash,
+            final Instant now
+    ) {
+        return findByHash(tokenHash)
+                .filter(token -> !token.isRevoked()
+                        && token.getExpiresAt().isAfter(now));
+    }
+
+    @Override
+    public RotationOutcome rotate(
+            final String tokenHash,
+            final RefreshToken replacement,
+            final Instant now
+    ) {
+        List<?> result = redis.execute(
+                ROTATE,
+                List.of(tokenKey(tokenHash),
+                        tokenKey(replacement.getTokenHash())),
+                millis(now),
+                replacement.getId().toString(),
+                millis(replacement.getCreatedAt()),
+                millis(replacement.getExpiresAt()),
+                USER_PREFIX,
+                replacement.getTokenHash()
+        );
+        return toOutcome(result);
+    }
+
+    @Override
+    public RotationOutcome revoke(final String tokenHash, final Instant now) {
+        return toOutcome(redis.execute(
+                REVOKE, List.of(tokenKey(tokenHash)), millis(now)));
+    }
+
+    @Override
+    public List<RefreshToken> findActiveByUser(
+            final UUID userId,
+            final Instant now
+    ) {
+        List<RefreshToken> active = new ArrayList<>();
+        for (String hash : redis.opsForSet().members(userKey(userId))) {
+            findActiveByHash(hash, now).ifPresent(active::add);
+        }
+        return active;
+    }
+
+    @Override
+    public int revokeAll(final UUID userId) {
+        Long revoked = redis.execute(
+                REVOKE_ALL, List.of(userKey(userId)), TOKEN_PREFIX);
+        return revoked == null ? 0 : revoked.intValue();
+    }
+
+    @Override
+    public int revokeAll(final Collection<UUID> userIds) {
+        return userIds.stream().mapToInt(this::revokeAll).sum();
+    }
+
+    /**
+     * Builds the key of a token.
+     * @param tokenHash the hashed token.
+     * @return the Redis key.
+     */
+    private static String tokenKey(final String tokenHash) {
+        return TOKEN_PREFIX + tokenHash;
+    }
+
+    /**
+     * Builds the key of a user's token set.
+     * @param userId the user ID.
+     * @return the Redis key.
+     */
+    private static String userKey(final UUID userId) {
+        return USER_PREFIX + userId;
+    }
+
+    /**
+     * Formats an instant as epoch milliseconds.
+     * @param instant the instant.
+     * @return the script argument.
+     */
+    private static String millis(final Instant instant) {
+        return Long.toString(instant.toEpochMilli());
+    }
+
+    /**
+     * Maps a script result to an outcome.
+     * @param result the status and user ID returned by the script.
+     * @return the outcome.
+     */
+    private static RotationOutcome toOutcome(final List<?> result) {
+        RotationOutcome.Status status =
+                RotationOutcome.Status.valueOf(result.get(0).toString());
+        if (status == RotationOutcome.Status.NOT_FOUND) {
+            return RotationOutcome.notFound();
+        }
+        return new RotationOutcome(
+                status, UUID.fromString(result.get(1).toString()));
+    }
+
+    /**
+     * Maps the fields of a token hash to an entity.
+     * @param tokenHash the hashed token.
+     * @param fields the stored fields.
+     * @return the token.
+     */
+    private static RefreshToken toToken(
+            final String tokenHash,
+            final Map<Object, Object> fields
+    ) {
+        RefreshToken token = new RefreshToken();
+        token.setId(UUID.fromString((String) fields.get("id")));
+        token.setUserId(UUID.fromString((String) fields.get("userId")));
+        token.setTokenHash(tokenHash);
+        token.setCreatedAt(Instant.ofEpochMilli(
+                Long.parseLong((String) fields.get("createdAt"))));
+        token.setExpiresAt(Instant.ofEpochMilli(
+                Long.parseLong((String) fields.get("expiresAt"))));
+        token.setRevoked("1".equals(fields.get("revoked")));
+        Object replacedBy = fields.get("replacedBy");
+        if (replacedBy != null) {
+            token.setReplacedBy(UUID.fromString((String) replacedBy));
+        }
+        return token;
+    }
+}
@@ -0,0 +1,83 @@
+package bflow.auth.store;
+
+import bflow.auth.entities.RefreshToken;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Storage for refresh tokens, selected with the
+ * {@code bflow.refresh-token.store} property: {@code jpa} (default),
+ * {@code redis} or {@code memory}. Tokens are addressed by the SHA-256
+ * hash of their raw value. Rotation and revocation are atomic in every
+ * implementation, so a token can be exchanged at most once.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Persists a new token.
+     * @param token the token to store.
+     */
+    void save(RefreshToken token);
+
+    /**
+     * Finds a token by hash whatever its state.
+     * @param tokenHash the hashed token.
+     * @return optional containing the token.
+     */
+    Optional<RefreshToken> findByHash(String tokenHash);
+
+    /**
+     * Finds a token by hash only if it is neither revoked nor expired.
+     * @param tokenHash the hashed token.
+     * @param now the current time.
+     * @return optional containing the active token.
+     */
+    Optional<RefreshToken> findActiveByHash(String tokenHash, Instant now);
+
+    /**
+     * Revokes a valid token and stores its replacement in one step. The
+     * replacement inherits the user of the revoked token.
+     * @param tokenHash the hash of the token being exchanged.
+     * @param replacement the new token without a user.
+     * @param now the current time.
+     * @return the outcome, SUCCESS only if the replacement was stored.
+     */
+    RotationOutcome rotate(
+            String tokenHash,
+            RefreshToken replacement,
+            Instant now
+    );
+
+    /**
+     * Revokes a valid token without replacing it.
+     * @param tokenHash the hashed token.
+     * @param now the current time.
+     * @return the outcome, SUCCESS only if the token was revoked.
+     */
+    RotationOutcome revoke(String tokenHash, Instant now);
+
+    /**
+     * Lists the tokens of a user that are neither revoked nor expired.
+     * @param userId the user ID.
+     * @param now the current time.
+     * @return the active tokens.
+     */
+    List<RefreshToken> findActiveByUser(UUID userId, Instant now);
+
+    /**
+     * Revokes every active token of a user.
+     * @param userId the user ID.
+     * @return the number of revoked tokens.
+     */
+    int revokeAll(UUID userId);
+
+    /**
+     * Revokes every active token of several users.
+     * @param userIds the user IDs.
+     * @return the number of revoked tokens.
+     */
+    int revokeAll(Collection<UUID> userIds);
+}
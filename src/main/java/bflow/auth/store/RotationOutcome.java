@@ -0,0 +1,33 @@
+package bflow.auth.store;
+
+import java.util.UUID;
+
+/**
+ * Result of an atomic state change on a refresh token.
+ * @param status what happened to the token.
+ * @param userId owner of the token, null if it was not found.
+ */
+public record RotationOutcome(Status status, UUID userId) {
+
+    /**
+     * Possible results of a rotation or revocation.
+     */
+    public enum Status {
+        /** The token was valid and has been revoked or replaced. */
+        SUCCESS,
+        /** No token matches the hash. */
+        NOT_FOUND,
+        /** The token has expired. */
+        EXPIRED,
+        /** The token was already revoked, so it is being replayed. */
+        REUSED
+    }
+
+    /**
+     * Creates the outcome for an unknown token.
+     * @return the NOT_FOUND outcome.
+     */
+    public static RotationOutcome notFound() {
+        return new RotationOutcome(Status.NOT_FOUND, null);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Pluggable persistence backends for refresh tokens.
+ */
+package bflow.auth.store;
@@ -3,6 +3,8 @@ package bflow.common.exception;
 import bflow.common.response.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -34,6 +36,25 @@ public final class GlobalExceptionHandler {
             .body(ApiResponse.error(ex.getMessage(), request.getRequestURI()));
     }
 
+    /**
+     * Handles optimistic locking conflicts left after every retry.
+     * @param ex the exception.
+     * @param request the current request.
+     * @return error response with CONFLICT status.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Void>> handleOptimisticLocking(
+            final OptimisticLockingFailureException ex,
+            final HttpServletRequest request
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(
+                        "The resource was modified concurrently, retry",
+                        request.getRequestURI()
+                ));
+    }
+
     /**
      * Handles authentication credential failures.
      * @param ex the exception.
@@ -53,6 +74,47 @@ public final class GlobalExceptionHandler {
                 ));
     }
 
+    /**
+     * Handles saturated resources with a fast rejection.
+     * @param ex the exception.
+     * @param request the current request.
+     * @return error response with SERVICE_UNAVAILABLE status.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceOverloaded(
+            final ServiceOverloadedException ex,
+            final HttpServletRequest request
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error(
+                        ex.getMessage(),
+                        request.getRequestURI()
+                ));
+    }
+
+    /**
+     * Handles clients exceeding a rate limit.
+     * @param ex the exception.
+     * @param request the current request.
+     * @return error response with TOO_MANY_REQUESTS status.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse<Void>> handleTooManyRequests(
+            final TooManyRequestsException ex,
+            final HttpServletRequest request
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER,
+                        Long.toString(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(
+                        ex.getMessage(),
+                        request.getRequestURI()
+                ));
+    }
+
     /**
      * Handles resource not found exceptions.
      * @param ex the exception.
@@ -0,0 +1,15 @@
+package bflow.common.exception;
+
+/**
+ * Exception thrown when a bounded resource is saturated and the request
+ * is rejected instead of queued. Maps to HTTP 503 Service Unavailable.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    /**
+     * Constructs the exception with a detail message.
+     * @param message the detail message.
+     */
+    public ServiceOverloadedException(final String message) {
+        super(message);
+    }
+}
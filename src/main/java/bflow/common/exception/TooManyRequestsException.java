@@ -0,0 +1,32 @@
+package bflow.common.exception;
+
+/**
+ * Exception thrown when a client exceeds a rate limit. Maps to HTTP 429
+ * Too Many Requests with a {@code Retry-After} header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    /** Seconds the client should wait before retrying. */
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs the exception with a detail message.
+     * @param message the detail message.
+     * @param retryAfter seconds the client should wait before retrying.
+     */
+    public TooManyRequestsException(
+            final String message,
+            final long retryAfter
+    ) {
+        super(message);
+        this.retryAfterSeconds = retryAfter;
+    }
+
+    /**
+     * Returns the delay advertised in the {@code Retry-After} header.
+     * @return the delay in seconds.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
@@ -81,6 +82,15 @@ public abstract class FinancialEntry {
     @JoinColumn(name = "user_id", nullable = false)
     private User contributor;
 
+    /**
+     * Optimistic locking version, so two writers updating or deleting
+     * the same entry from stale copies cannot both apply their change
+     * to the wallet balance.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     /**
      * Timestamp when this entry was created.
      */
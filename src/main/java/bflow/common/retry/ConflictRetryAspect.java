@@ -0,0 +1,226 @@
+package bflow.common.retry;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs {@link RetryOnConflict} methods again when they lose an optimistic
+ * locking race. The aspect is ordered before the transaction interceptor,
+ * so every attempt gets a fresh transaction and persistence context.
+ * Attempts are spaced by exponential backoff with full jitter, so
+ * writers colliding on the same income or expense do not collide again
+ * in lockstep.
+ * <p>
+ * Wallets are not versioned: their balance only moves through atomic
+ * statements, and a wallet version would make every concurrent posting
+ * to a busy shared wallet conflict. Conflicts are therefore counted per
+ * income or expense, keyed like {@code Expense:<id>}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public final class ConflictRetryAspect {
+
+    /** Maximum number of entities tracked individually. */
+    private static final int MAX_TRACKED = 1024;
+
+    /** Number of entities reported in the stats. */
+    private static final int HOTTEST = 10;
+
+    /** Key counting conflicts past the tracking limit. */
+    private static final String OTHER = "other";
+
+    /** Maximum number of attempts per call, the first one included. */
+    private final int maxAttempts;
+
+    /** Upper bound of the first backoff in milliseconds. */
+    private final long baseDelayMs;
+
+    /** Upper bound of any backoff in milliseconds. */
+    private final long maxDelayMs;
+
+    /** Waits between attempts. */
+    private final Pause pause;
+
+    /** Conflicts caught. */
+    private final LongAdder conflicts = new LongAdder();
+
+    /** Calls run again after a conflict. */
+    private final LongAdder retries = new LongAdder();
+
+    /** Calls that failed after the last attempt. */
+    private final LongAdder exhausted = new LongAdder();
+
+    /** Conflicts by entity. */
+    private final Map<String, LongAdder> byEntity = new ConcurrentHashMap<>();
+
+    /**
+     * Waits between attempts.
+     */
+    @FunctionalInterface
+    public interface Pause {
+        /**
+         * Blocks the calling thread.
+         * @param millis the delay in milliseconds.
+         * @throws InterruptedException if interrupted while waiting.
+         */
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    /**
+     * Creates the aspect from configuration.
+     * @param attempts maximum number of attempts per call.
+     * @param baseDelay upper bound of the first backoff in milliseconds.
+     * @param maxDelay upper bound of any backoff in milliseconds.
+     */
+    @Autowired
+    public ConflictRetryAspect(
+            @Value("${bflow.conflict-retry.max-attempts:4}")
+            final int attempts,
+            @Value("${bflow.conflict-retry.base-delay-ms:10}")
+            final long baseDelay,
+            @Value("${bflow.conflict-retry.max-delay-ms:200}")
+            final long maxDelay
+    ) {
+        this(attempts, baseDelay, maxDelay, Thread::sleep);
+    }
+
+    /**
+     * Creates the aspect with an explicit pause.
+     * @param attempts maximum number of attempts per call.
+     * @param baseDelay upper bound of the first backoff in milliseconds.
+     * @param maxDelay upper bound of any backoff in milliseconds.
+     * @param sleeper waits between attempts.
+     */
+    public ConflictRetryAspect(
+            final int attempts,
+            final long baseDelay,
+            final long maxDelay,
+            final Pause sleeper
+    ) {
+        if (attempts < 1 || baseDelay < 0 || maxDelay < baseDelay) {
+            throw new IllegalArgumentException(
+                    "Invalid conflict retry settings");
+        }
+        this.maxAttempts = attempts;
+        this.baseDelayMs = baseDelay;
+        this.maxDelayMs = maxDelay;
+        this.pause = sleeper;
+    }
+
+    /**
+     * Runs the call, again after each conflict, up to the attempt limit.
+     * @param call the intercepted call.
+     * @return the call result.
+     * @throws Throwable whatever the call throws, or the last conflict.
+     */
+    @Around("@annotation(bflow.common.retry.RetryOnConflict)")
+    public Object retry(final ProceedingJoinPoint call) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The outer transaction holds the stale state, retrying here
+            // would only repeat the conflict
+            return call.proceed();
+        }
+        for (int attempt = 1;; attempt++) {
+            try {
+                return call.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                record(entityKey(e));
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the current conflict metrics.
+     * @return a stats snapshot.
+     */
+    public ConflictRetryStats stats() {
+        Map<String, Long> hottest = new LinkedHashMap<>();
+        byEntity.entrySet().stream()
+                .sorted((a, b) -> Long.compare(
+                        b.getValue().sum(), a.getValue().sum()))
+                .limit(HOTTEST)
+                .forEach(e -> hottest.put(e.getKey(), e.getValue().sum()));
+        return new ConflictRetryStats(
+                conflicts.sum(),
+                retries.sum(),
+                exhausted.sum(),
+                hottest
+        );
+    }
+
+    /**
+     * Waits a random delay up to an exponentially growing bound.
+     * @param attempt the attempt that just failed, from 1.
+     * @param conflict the conflict, rethrown if the wait is interrupted.
+     */
+    private void backoff(
+            final int attempt,
+            final OptimisticLockingFailureException conflict
+    ) {
+        long bound = Math.min(maxDelayMs,
+                baseDelayMs << Math.min(attempt - 1, Long.SIZE - 2));
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            pause.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    /**
+     * Counts a conflict for an entity, lumping entities past the tracking
+     * limit together.
+     * @param key the entity key.
+     */
+    private void record(final String key) {
+        LongAdder counter = byEntity.get(key);
+        if (counter == null) {
+            counter = byEntity.size() < MAX_TRACKED
+                    ? byEntity.computeIfAbsent(key, k -> new LongAdder())
+                    : byEntity.computeIfAbsent(OTHER, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Names the entity a conflict happened on.
+     * @param conflict the conflict.
+     * @return the entity name and identifier, or "unknown".
+     */
+    private static String entityKey(
+            final OptimisticLockingFailureException conflict
+    ) {
+        if (conflict instanceof ObjectOptimisticLockingFailureException o
+                && o.getPersistentClassName() != null) {
+            String name = o.getPersistentClassName();
+            return name.substring(name.lastIndexOf('.') + 1)
+                    + ":" + o.getIdentifier();
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,19 @@
+package bflow.common.retry;
+
+import java.util.Map;
+
+/**
+ * Snapshot of optimistic locking conflicts and retries.
+ * @param conflicts conflicts caught since startup.
+ * @param retries calls run again after a conflict.
+ * @param exhausted calls that failed after the last attempt.
+ * @param hottest conflicts by income or expense, keyed like
+ *                {@code Expense:<id>}, most contended first.
+ */
+public record ConflictRetryStats(
+        long conflicts,
+        long retries,
+        long exhausted,
+        Map<String, Long> hottest
+) {
+}
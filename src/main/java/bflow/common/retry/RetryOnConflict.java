@@ -0,0 +1,19 @@
+package bflow.common.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a transactional service method to be run again, in a new
+ * transaction, when it fails on an optimistic locking conflict. Only
+ * outermost calls are retried; inside an existing transaction the
+ * conflict is left to the caller.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,4 @@
+/**
+ * Retry of service calls that lose an optimistic locking race.
+ */
+package bflow.common.retry;
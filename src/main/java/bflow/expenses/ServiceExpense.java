@@ -4,6 +4,7 @@ import bflow.auth.entities.User;
 import bflow.auth.repository.RepositoryUser;
 import bflow.common.exception.ResourceNotFoundException;
 import bflow.common.exception.WalletAccessDeniedException;
+import bflow.common.retry.RetryOnConflict;
 import bflow.expenses.DTO.ExpenseRequest;
 import bflow.expenses.DTO.ExpenseResponse;
 import bflow.expenses.entity.Expense;
@@ -73,13 +74,8 @@ public class ServiceExpense {
 
         Wallet wallet = walletUser.getWallet();
 
-        // Get contributor
-        User contributor = repositoryUser.findById(userId)
-                .orElseThrow(() ->
-                        new WalletAccessDeniedException(
-                                "Authenticated user not found"
-                        )
-                );
+        // Get contributor, known to exist through the wallet membership
+        User contributor = repositoryUser.getReferenceById(userId);
 
         // Map DTO → Entity
         Expense expense = mapToEntity(request, wallet, contributor);
@@ -103,6 +99,7 @@ public class ServiceExpense {
      * @throws WalletAccessDeniedException if the user lacks access to
      *         the wallets
      */
+    @RetryOnConflict
     public ExpenseResponse updateExpense(
             final UUID expenseId,
             final ExpenseRequest request,
@@ -148,11 +145,10 @@ public class ServiceExpense {
 
         if (oldWallet.getId().equals(newWallet.getId())) {
 
-            // Same wallet → apply difference using service method
-            serviceWallet.adjustBalanceForUpdate(
+            // Same wallet → a larger expense lowers the balance
+            serviceWallet.applyDelta(
                     oldWallet,
-                    oldAmount,
-                    newAmount
+                    oldAmount.subtract(newAmount)
             );
 
         } else {
@@ -192,6 +188,7 @@ public class ServiceExpense {
      * @throws WalletAccessDeniedException if the user does not have access
      *         to the wallet
      */
+    @RetryOnConflict
     public void deleteExpense(
             final UUID expenseId,
             final UUID userId
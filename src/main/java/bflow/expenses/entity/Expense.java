@@ -6,6 +6,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -14,7 +15,13 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
-@Table(name = "Expenses")
+@Table(
+        name = "Expenses",
+        indexes = @Index(
+                name = "idx_expenses_wallet_amount",
+                columnList = "wallet_id, amount"
+        )
+)
 @Getter
 @Setter
 @ToString
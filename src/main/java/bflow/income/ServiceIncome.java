@@ -4,6 +4,7 @@ import bflow.auth.entities.User;
 import bflow.auth.repository.RepositoryUser;
 import bflow.common.exception.ResourceNotFoundException;
 import bflow.common.exception.WalletAccessDeniedException;
+import bflow.common.retry.RetryOnConflict;
 import bflow.income.DTO.IncomeRequest;
 import bflow.income.DTO.IncomeResponse;
 import bflow.income.entity.Income;
@@ -79,13 +80,8 @@ public class ServiceIncome {
 
         Wallet wallet = walletUser.getWallet();
 
-        // Get contributor
-        User contributor = repositoryUser.findById(userId)
-                .orElseThrow(() ->
-                        new WalletAccessDeniedException(
-                                "Authenticated user not found"
-                        )
-                );
+        // Get contributor, known to exist through the wallet membership
+        User contributor = repositoryUser.getReferenceById(userId);
 
         // Map dto to entity
         Income income = mapToEntity(request, wallet, contributor);
@@ -110,6 +106,7 @@ public class ServiceIncome {
      * @throws WalletAccessDeniedException if the user lacks access to
      *         the wallets
      */
+    @RetryOnConflict
     public IncomeResponse updateIncome(
             final UUID incomeId,
             final IncomeRequest request,
@@ -167,7 +164,7 @@ public class ServiceIncome {
             // Different wallet → full transfer logic using service methods
 
             // Remove old impact
-            serviceWallet.reverseTransactionImpact(oldWallet, oldAmount);
+            serviceWallet.subtractBalance(oldWallet, oldAmount);
 
             // Apply new impact
             serviceWallet.addBalance(newWallet, newAmount);
@@ -198,6 +195,7 @@ public class ServiceIncome {
      * @throws WalletAccessDeniedException if the user does not have access
      *         to the wallet
      */
+    @RetryOnConflict
     public void deleteIncome(
             final UUID incomeId,
             final UUID userId
@@ -6,6 +6,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.Column;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -14,10 +15,17 @@ import lombok.Getter;
 import lombok.Setter;
 
 /**
- * Entity representing incomes in wallets.
+ * Entity representing incomes in wallets. The wallet index covers the
+ * amount, so per-wallet totals are read from the index alone.
  */
 @Entity
-@Table(name = "incomes")
+@Table(
+        name = "incomes",
+        indexes = @Index(
+                name = "idx_incomes_wallet_amount",
+                columnList = "wallet_id, amount"
+        )
+)
 @Getter
 @Setter
 @ToString
@@ -0,0 +1,68 @@
+package bflow.wallet;
+
+import bflow.common.retry.ConflictRetryAspect;
+import bflow.common.retry.ConflictRetryStats;
+import bflow.wallet.balance.BalanceReconciler;
+import bflow.wallet.balance.LedgerCompactionStats;
+import bflow.wallet.balance.LedgerCompactor;
+import bflow.wallet.balance.ReconciliationStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Internal controller exposing income and expense contention, ledger
+ * and reconciliation metrics.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/wallets")
+public final class ControllerWalletMaintenance {
+
+    /** Aspect retrying entry writes that lost an optimistic race. */
+    private final ConflictRetryAspect conflictRetry;
+
+    /** Job folding ledger entries into balance snapshots. */
+    private final LedgerCompactor ledgerCompactor;
+
+    /** Job checking balances against incomes and expenses. */
+    private final BalanceReconciler balanceReconciler;
+
+    /**
+     * Exposes conflict and retry counts, and the most contended entries.
+     * @return the current conflict stats.
+     */
+    @GetMapping("/contention/stats")
+    public ConflictRetryStats contentionStats() {
+        return conflictRetry.stats();
+    }
+
+    /**
+     * Exposes the ledger compaction metrics.
+     * @return the current compaction stats.
+     */
+    @GetMapping("/ledger/stats")
+    public LedgerCompactionStats ledgerStats() {
+        return ledgerCompactor.stats();
+    }
+
+    /**
+     * Runs a balance reconciliation immediately.
+     * @return the stats of the run.
+     */
+    @PostMapping("/reconciliation/run")
+    public ReconciliationStats reconcile() {
+        return balanceReconciler.reconcile();
+    }
+
+    /**
+     * Exposes the stats of the last balance reconciliation.
+     * @return the reconciliation stats.
+     */
+    @GetMapping("/reconciliation/stats")
+    public ReconciliationStats reconciliationStats() {
+        return balanceReconciler.stats();
+    }
+}
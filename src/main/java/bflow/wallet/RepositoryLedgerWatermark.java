@@ -0,0 +1,44 @@
+package bflow.wallet;
+
+import bflow.wallet.entities.LedgerWatermark;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Repository for the {@link LedgerWatermark}. The watermark only moves
+ * forward, so compactors on several nodes can raise it in any order.
+ */
+@Repository
+public interface RepositoryLedgerWatermark
+        extends JpaRepository<LedgerWatermark, Integer> {
+
+    /**
+     * Reads the watermark.
+     * @return the last entry ID folded for every wallet, 0 if none.
+     */
+    @Query("SELECT COALESCE(MAX(w.lastEntryId), 0) FROM LedgerWatermark w")
+    long current();
+
+    /**
+     * Raises the watermark, unless it is already at or past the entry.
+     * @param upTo the last entry ID folded for every wallet.
+     * @param now the current time.
+     * @return the number of written rows, 0 if it was not raised.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO wallet_ledger_watermark "
+            + "(id, last_entry_id, updated_at) VALUES (1, :upTo, :now) "
+            + "ON CONFLICT (id) DO UPDATE SET "
+            + "last_entry_id = EXCLUDED.last_entry_id, "
+            + "updated_at = EXCLUDED.updated_at "
+            + "WHERE wallet_ledger_watermark.last_entry_id "
+            + "< EXCLUDED.last_entry_id", nativeQuery = true)
+    int raise(@Param("upTo") long upTo, @Param("now") Instant now);
+}
@@ -1,12 +1,145 @@
 package bflow.wallet;
 
+import bflow.wallet.balance.BalanceAudit;
 import bflow.wallet.entities.Wallet;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Repository for managing {@link Wallet} entities.
+ */
 @Repository
 public interface RepositoryWallet extends JpaRepository<Wallet, UUID> {
 
+    /**
+     * Recomputed balance and entry count of the wallets in a range,
+     * joining per-wallet totals of incomes and expenses.
+     */
+    String AUDIT_TOTALS = "w.initial_value + COALESCE(i.total, 0) "
+            + "- COALESCE(e.total, 0) AS expected, "
+            + "COALESCE(i.entries, 0) + COALESCE(e.entries, 0) AS entries "
+            + "FROM wallets w "
+            + "LEFT JOIN (SELECT wallet_id, SUM(amount) AS total, "
+            + "COUNT(*) AS entries FROM incomes "
+            + "WHERE wallet_id BETWEEN :lo AND :hi GROUP BY wallet_id) i "
+            + "ON i.wallet_id = w.id "
+            + "LEFT JOIN (SELECT wallet_id, SUM(amount) AS total, "
+            + "COUNT(*) AS entries FROM expenses "
+            + "WHERE wallet_id BETWEEN :lo AND :hi GROUP BY wallet_id) e "
+            + "ON e.wallet_id = w.id ";
+
+    /**
+     * Adds an amount to a wallet balance in a single statement, so
+     * concurrent postings never overwrite each other.
+     * @param id the wallet ID.
+     * @param amount the non-negative amount to add.
+     * @return the number of updated rows, 0 if the wallet does not exist.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount "
+            + "WHERE w.id = :id")
+    int increaseBalance(
+            @Param("id") UUID id,
+            @Param("amount") BigDecimal amount
+    );
+
+    /**
+     * Subtracts an amount from a wallet balance in a single statement,
+     * only if the balance covers it.
+     * @param id the wallet ID.
+     * @param amount the non-negative amount to subtract.
+     * @return the number of updated rows, 0 if the wallet does not exist
+     *         or the balance is insufficient.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance - :amount "
+            + "WHERE w.id = :id AND w.balance >= :amount")
+    int decreaseBalance(
+            @Param("id") UUID id,
+            @Param("amount") BigDecimal amount
+    );
+
+    /**
+     * Adds a signed amount to a wallet balance without any overdraft
+     * check, to correct a balance found drifting.
+     * @param id the wallet ID.
+     * @param delta the signed amount to add.
+     * @return the number of updated rows, 0 if the wallet does not exist.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :delta "
+            + "WHERE w.id = :id")
+    int shiftBalance(
+            @Param("id") UUID id,
+            @Param("delta") BigDecimal delta
+    );
+
+    /**
+     * Locks a wallet row until the end of the caller's transaction,
+     * waiting for the postings holding it.
+     * @param id the wallet ID.
+     * @return the number of locked rows, 0 if the wallet does not exist.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT id FROM wallets "
+            + "WHERE id = :id FOR UPDATE) AS locked", nativeQuery = true)
+    long lockForUpdate(@Param("id") UUID id);
+
+    /**
+     * Takes the cluster-wide reconciliation lock until the end of the
+     * caller's transaction, without waiting for another node holding it.
+     * @return whether the lock was taken.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock("
+            + "hashtextextended('bflow.wallet.reconciliation', 0))",
+            nativeQuery = true)
+    boolean tryLockReconciliation();
+
+    /**
+     * Reads the balance column of the wallets in an ID range next to the
+     * balance recomputed from their incomes and expenses, in a single
+     * statement so both sides come from the same snapshot.
+     * @param lo the lowest wallet ID, inclusive.
+     * @param hi the highest wallet ID, inclusive.
+     * @return one audit per wallet.
+     */
+    @Query(value = "SELECT w.id AS wallet, w.balance AS actual, "
+            + AUDIT_TOTALS
+            + "WHERE w.id BETWEEN :lo AND :hi", nativeQuery = true)
+    List<BalanceAudit> auditBalances(
+            @Param("lo") UUID lo,
+            @Param("hi") UUID hi
+    );
+
+    /**
+     * Reads the ledger balance of the wallets in an ID range, the latest
+     * snapshot plus the entries after it, next to the balance recomputed
+     * from their incomes and expenses.
+     * @param lo the lowest wallet ID, inclusive.
+     * @param hi the highest wallet ID, inclusive.
+     * @return one audit per wallet.
+     */
+    @Query(value = "SELECT w.id AS wallet, "
+            + "COALESCE(s.balance, w.balance) + COALESCE(l.total, 0) "
+            + "AS actual, "
+            + AUDIT_TOTALS
+            + "LEFT JOIN wallet_balance_snapshots s ON s.wallet_id = w.id "
+            + "LEFT JOIN LATERAL (SELECT SUM(d.delta) AS total "
+            + "FROM wallet_ledger d WHERE d.wallet_id = w.id "
+            + "AND d.id > COALESCE(s.last_entry_id, 0)) l ON true "
+            + "WHERE w.id BETWEEN :lo AND :hi", nativeQuery = true)
+    List<BalanceAudit> auditLedgerBalances(
+            @Param("lo") UUID lo,
+            @Param("hi") UUID hi
+    );
 }
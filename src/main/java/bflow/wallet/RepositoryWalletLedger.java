@@ -0,0 +1,84 @@
+package bflow.wallet;
+
+import bflow.wallet.balance.LedgerRollup;
+import bflow.wallet.entities.WalletLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the append-only {@link WalletLedgerEntry} table.
+ */
+@Repository
+public interface RepositoryWalletLedger
+        extends JpaRepository<WalletLedgerEntry, Long> {
+
+    /**
+     * Sums the entries of a wallet recorded after a given entry.
+     * @param walletId the wallet ID.
+     * @param after the last entry ID already accounted for.
+     * @return the sum, zero if there are none.
+     */
+    @Query("SELECT COALESCE(SUM(e.delta), 0) FROM WalletLedgerEntry e "
+            + "WHERE e.walletId = :walletId AND e.id > :after")
+    BigDecimal sumAfter(
+            @Param("walletId") UUID walletId,
+            @Param("after") long after
+    );
+
+    /**
+     * Takes a transaction-scoped advisory lock on a wallet, waiting for
+     * other transactions holding it. The lock is released on commit or
+     * rollback, and no row is locked, so credits are never blocked.
+     * @param walletId the wallet ID.
+     * @return always 1.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock("
+            + "hashtextextended(CAST(:walletId AS text), 0))) AS locked",
+            nativeQuery = true)
+    int lockWallet(@Param("walletId") UUID walletId);
+
+    /**
+     * Finds the last entry recorded before an instant, among the entries
+     * after a given one.
+     * @param after the compaction watermark.
+     * @param before the instant.
+     * @return the entry ID, null if there is none.
+     */
+    @Query("SELECT MAX(e.id) FROM WalletLedgerEntry e "
+            + "WHERE e.id > :after AND e.createdAt < :before")
+    Long findLastIdBefore(
+            @Param("after") long after,
+            @Param("before") Instant before
+    );
+
+    /**
+     * Sums, wallet by wallet, the entries in {@code (after, upTo]} that
+     * are not yet part of the wallet snapshot. Bounding the range by the
+     * compaction watermark keeps the scan to the recent entries.
+     * @param after the compaction watermark.
+     * @param upTo the last entry ID to include.
+     * @param page the maximum number of wallets.
+     * @return the pending entries of each wallet.
+     */
+    @Query("SELECT new bflow.wallet.balance.LedgerRollup(e.walletId, "
+            + "SUM(e.delta), COUNT(e), MAX(e.id), MAX(s.lastEntryId)) "
+            + "FROM WalletLedgerEntry e "
+            + "LEFT JOIN WalletBalanceSnapshot s "
+            + "ON s.walletId = e.walletId "
+            + "WHERE e.id > :after AND e.id <= :upTo "
+            + "AND e.id > COALESCE(s.lastEntryId, 0) "
+            + "GROUP BY e.walletId ORDER BY e.walletId")
+    List<LedgerRollup> findPendingRollups(
+            @Param("after") long after,
+            @Param("upTo") long upTo,
+            Pageable page
+    );
+}
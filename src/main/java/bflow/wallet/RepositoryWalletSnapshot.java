@@ -0,0 +1,70 @@
+package bflow.wallet;
+
+import bflow.wallet.entities.WalletBalanceSnapshot;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Repository for {@link WalletBalanceSnapshot} entities. Snapshots only
+ * move forward through conditional statements, so compactors running on
+ * several nodes never fold the same entries twice.
+ */
+@Repository
+public interface RepositoryWalletSnapshot
+        extends JpaRepository<WalletBalanceSnapshot, UUID> {
+
+    /**
+     * Folds entries into a snapshot, only if no other compactor advanced
+     * it since it was read.
+     * @param walletId the wallet ID.
+     * @param delta the sum of the folded entries.
+     * @param expected the last entry ID the snapshot was read with.
+     * @param last the last folded entry ID.
+     * @param now the current time.
+     * @return the number of updated rows, 0 if the snapshot moved.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WalletBalanceSnapshot s "
+            + "SET s.balance = s.balance + :delta, s.lastEntryId = :last, "
+            + "s.takenAt = :now "
+            + "WHERE s.walletId = :walletId AND s.lastEntryId = :expected")
+    int advance(
+            @Param("walletId") UUID walletId,
+            @Param("delta") BigDecimal delta,
+            @Param("expected") long expected,
+            @Param("last") long last,
+            @Param("now") Instant now
+    );
+
+    /**
+     * Creates the first snapshot of a wallet from its balance column,
+     * unless another compactor created it first.
+     * @param walletId the wallet ID.
+     * @param delta the sum of the folded entries.
+     * @param last the last folded entry ID.
+     * @param now the current time.
+     * @return the number of inserted rows, 0 if the snapshot exists.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO wallet_balance_snapshots "
+            + "(wallet_id, balance, last_entry_id, taken_at) "
+            + "SELECT w.id, w.balance + :delta, :last, :now "
+            + "FROM wallets w WHERE w.id = :walletId "
+            + "ON CONFLICT (wallet_id) DO NOTHING", nativeQuery = true)
+    int create(
+            @Param("walletId") UUID walletId,
+            @Param("delta") BigDecimal delta,
+            @Param("last") long last,
+            @Param("now") Instant now
+    );
+}
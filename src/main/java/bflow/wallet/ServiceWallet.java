@@ -2,6 +2,7 @@ package bflow.wallet;
 
 import bflow.wallet.DTO.WalletRequest;
 import bflow.wallet.DTO.WalletResponse;
+import bflow.wallet.balance.BalanceStore;
 import bflow.wallet.entities.Wallet;
 import bflow.wallet.entities.WalletUser;
 import bflow.wallet.enums.WalletRole;
@@ -33,6 +34,9 @@ public class ServiceWallet {
     /** The repository for user database operations. */
     private final RepositoryUser objRepoUser;
 
+    /** The storage of wallet balances. */
+    private final BalanceStore balanceStore;
+
     /**
      * Retrieves a wallet by its UUID for an authenticated user.
      * Validates that the user has access to the wallet through WalletUser.
@@ -61,7 +65,7 @@ public class ServiceWallet {
                 .name(wallet.getName())
                 .description(wallet.getDescription())
                 .currency(wallet.getCurrency())
-                .balance(wallet.getBalance())
+                .balance(balanceStore.balance(wallet))
                 .initialValue(wallet.getInitialValue())
                 .createdAt(wallet.getCreatedAt())
                 .build();
@@ -115,31 +119,30 @@ public class ServiceWallet {
                 .name(savedWallet.getName())
                 .description(savedWallet.getDescription())
                 .currency(savedWallet.getCurrency())
-                .balance(savedWallet.getBalance())
+                .balance(balanceStore.balance(savedWallet))
                 .initialValue(savedWallet.getInitialValue())
                 .createdAt(savedWallet.getCreatedAt())
                 .build();
     }
 
     /**
-     * Adds the specified amount to the wallet's balance.
+     * Adds the specified amount to the wallet's balance through the
+     * balance store, so concurrent postings on a shared wallet never lose
+     * each other's changes. The balance of the given entity is left
+     * untouched.
      *
      * @param wallet the wallet to update (not null).
      * @param amount the amount to add (must be non-negative).
      * @throws IllegalArgumentException if amount is negative.
      */
     public void addBalance(final Wallet wallet, final BigDecimal amount) {
-        if (amount.signum() < 0) {
-            throw new IllegalArgumentException(
-                    "Amount cannot be negative: " + amount
-            );
-        }
-        BigDecimal newBalance = wallet.getBalance().add(amount);
-        wallet.setBalance(newBalance);
+        requireNonNegative(amount);
+        credit(wallet, amount);
     }
 
     /**
-     * Subtracts the specified amount from the wallet's balance.
+     * Subtracts the specified amount from the wallet's balance, only if
+     * the balance covers it.
      *
      * @param wallet the wallet to update (not null).
      * @param amount the amount to subtract (must be non-negative).
@@ -147,23 +150,13 @@ public class ServiceWallet {
      *         if balance would become negative.
      */
     public void subtractBalance(final Wallet wallet, final BigDecimal amount) {
-        if (amount.signum() < 0) {
-            throw new IllegalArgumentException(
-                    "Amount cannot be negative: " + amount
-            );
-        }
-        BigDecimal newBalance = wallet.getBalance().subtract(amount);
-        if (newBalance.signum() < 0) {
-            throw new IllegalArgumentException(
-                    "Insufficient balance: " + wallet.getBalance()
-            );
-        }
-        wallet.setBalance(newBalance);
+        requireNonNegative(amount);
+        debit(wallet, amount, "Insufficient balance");
     }
 
     /**
-     * Adjusts the wallet balance for an update transaction.
-     * Reverses the old amount and applies the new amount.
+     * Adjusts the wallet balance for an updated income: the old amount
+     * is reversed and the new amount applied, as a single change.
      *
      * @param wallet the wallet to update (not null).
      * @param oldAmount the previous transaction amount (not null).
@@ -181,23 +174,30 @@ public class ServiceWallet {
                     "Amounts must be non-negative"
             );
         }
+        applyDelta(wallet, newAmount.subtract(oldAmount));
+    }
 
-        // Reverse the impact of old amount
-        BigDecimal difference = newAmount.subtract(oldAmount);
-        BigDecimal adjustedBalance = wallet.getBalance().add(difference);
-
-        if (adjustedBalance.signum() < 0) {
-            throw new IllegalArgumentException(
-                    "Insufficient balance for adjustment"
-            );
+    /**
+     * Applies a signed change to the wallet balance. A negative change
+     * only applies if the balance covers it.
+     *
+     * @param wallet the wallet to update (not null).
+     * @param delta the amount to add, negative to subtract.
+     * @throws IllegalArgumentException if the balance would become
+     *         negative.
+     */
+    public void applyDelta(final Wallet wallet, final BigDecimal delta) {
+        if (delta.signum() >= 0) {
+            credit(wallet, delta);
+        } else {
+            debit(wallet, delta.negate(),
+                    "Insufficient balance for adjustment");
         }
-
-        wallet.setBalance(adjustedBalance);
     }
 
     /**
-     * Reverses the impact of a transaction on the wallet balance.
-     * Used when a transaction is deleted.
+     * Reverses the impact of an expense on the wallet balance.
+     * Used when an expense is deleted or moved to another wallet.
      *
      * @param wallet the wallet to update (not null).
      * @param amount the transaction amount to reverse (not null).
@@ -207,13 +207,54 @@ public class ServiceWallet {
             final Wallet wallet,
             final BigDecimal amount
     ) {
+        requireNonNegative(amount);
+        // Add back the amount since we're reversing an expense
+        credit(wallet, amount);
+    }
+
+    /**
+     * Rejects negative amounts.
+     * @param amount the amount to check.
+     */
+    private static void requireNonNegative(final BigDecimal amount) {
         if (amount.signum() < 0) {
             throw new IllegalArgumentException(
                     "Amount cannot be negative: " + amount
             );
         }
-        // Add back the amount since we're reversing an expense
-        BigDecimal newBalance = wallet.getBalance().add(amount);
-        wallet.setBalance(newBalance);
+    }
+
+    /**
+     * Adds a non-negative amount to the stored balance.
+     * @param wallet the wallet to update.
+     * @param amount the amount to add.
+     */
+    private void credit(final Wallet wallet, final BigDecimal amount) {
+        if (amount.signum() == 0) {
+            return;
+        }
+        if (!balanceStore.credit(wallet, amount)) {
+            throw new IllegalArgumentException("Wallet not found");
+        }
+    }
+
+    /**
+     * Subtracts a non-negative amount from the stored balance if the
+     * balance covers it.
+     * @param wallet the wallet to update.
+     * @param amount the amount to subtract.
+     * @param message the error message when the balance is insufficient.
+     */
+    private void debit(
+            final Wallet wallet,
+            final BigDecimal amount,
+            final String message
+    ) {
+        if (amount.signum() == 0) {
+            return;
+        }
+        if (!balanceStore.debit(wallet, amount)) {
+            throw new IllegalArgumentException(message);
+        }
     }
 }
@@ -0,0 +1,34 @@
+package bflow.wallet.balance;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Stored and recomputed balance of one wallet, read by the reconciler.
+ */
+public interface BalanceAudit {
+
+    /**
+     * Returns the wallet ID.
+     * @return the wallet ID.
+     */
+    UUID getWallet();
+
+    /**
+     * Returns the balance as currently stored.
+     * @return the stored balance.
+     */
+    BigDecimal getActual();
+
+    /**
+     * Returns the initial value plus the incomes minus the expenses.
+     * @return the recomputed balance.
+     */
+    BigDecimal getExpected();
+
+    /**
+     * Returns the number of incomes and expenses summed.
+     * @return the number of entries.
+     */
+    Long getEntries();
+}
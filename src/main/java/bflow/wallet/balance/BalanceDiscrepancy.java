@@ -0,0 +1,18 @@
+package bflow.wallet.balance;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Wallet whose stored balance differs from the recomputed one.
+ * @param walletId the wallet ID.
+ * @param actual the stored balance.
+ * @param expected the initial value plus the incomes minus the expenses.
+ * @param repaired whether the stored balance was corrected.
+ */
+public record BalanceDiscrepancy(
+        UUID walletId,
+        BigDecimal actual,
+        BigDecimal expected,
+        boolean repaired
+) { }
@@ -0,0 +1,423 @@
+package bflow.wallet.balance;
+
+import bflow.wallet.RepositoryWallet;
+import bflow.wallet.RepositoryWalletLedger;
+import bflow.wallet.entities.WalletLedgerEntry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scheduled job checking every wallet balance against its initial value
+ * plus its incomes minus its expenses, to catch balances drifting after
+ * a bug or a lost update.
+ *
+ * <p>The wallet ID space is split into ranges audited in parallel on a
+ * fork-join pool, each with one aggregate statement that reads the
+ * stored balance and the income and expense totals from the same
+ * snapshot. A mismatch is read again on its own before it is reported,
+ * so a posting committing in between is not mistaken for drift. When
+ * repair is enabled the wallet is read again and corrected in one
+ * transaction holding its row lock, so no posting or other correction
+ * lands between the two. With the ledger balance store the derived
+ * ledger balance is checked and corrected with a ledger entry.
+ *
+ * <p>A run holds a cluster-wide advisory lock, so nodes sharing the
+ * database never reconcile at the same time.
+ */
+@Slf4j
+@Component
+public final class BalanceReconciler {
+
+    /** Delay between runs. */
+    private static final String INTERVAL =
+            "${bflow.wallet.reconciliation.interval-ms:86400000}";
+
+    /** Maximum number of bits used to split the wallet ID space. */
+    private static final int MAX_PARTITION_BITS = 16;
+
+    /** Maximum number of discrepancies kept in the stats. */
+    private static final int MAX_REPORTED = 100;
+
+    /** Milliseconds in one second. */
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    /** Repository for wallet persistence. */
+    private final RepositoryWallet repository;
+
+    /** Repository for ledger entries. */
+    private final RepositoryWalletLedger ledger;
+
+    /** Runs the lock and each correction in their own transactions. */
+    private final TransactionOperations transactions;
+
+    /** Whether balances are kept in the ledger. */
+    private final boolean ledgerStore;
+
+    /** Whether discrepancies are corrected. */
+    private final boolean repair;
+
+    /** Number of bits used to split the wallet ID space. */
+    private final int partitionBits;
+
+    /** Pool auditing the partitions. */
+    private final ForkJoinPool pool;
+
+    /** Whether a run is in progress. */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** Metrics of the last run. */
+    private volatile ReconciliationStats stats;
+
+    /**
+     * Creates the reconciler from configuration.
+     * @param repositoryWallet repository for wallet persistence.
+     * @param repositoryLedger repository for ledger entries.
+     * @param transactionManager manager of the run and correction
+     *                           transactions.
+     * @param store the configured balance store name.
+     * @param repairDrift whether discrepancies are corrected.
+     * @param partitions number of wallet ID ranges, a power of two.
+     * @param parallelism number of ranges audited at once.
+     */
+    @Autowired
+    public BalanceReconciler(
+            final RepositoryWallet repositoryWallet,
+            final RepositoryWalletLedger repositoryLedger,
+            final PlatformTransactionManager transactionManager,
+            @Value("${bflow.wallet.balance-store:column}")
+            final String store,
+            @Value("${bflow.wallet.reconciliation.repair:false}")
+            final boolean repairDrift,
+            @Value("${bflow.wallet.reconciliation.partitions:64}")
+            final int partitions,
+            @Value("${bflow.wallet.reconciliation.parallelism:4}")
+            final int parallelism
+    ) {
+        this(repositoryWallet, repositoryLedger,
+                requiresNew(transactionManager), store, repairDrift,
+                partitions, parallelism);
+    }
+
+    /**
+     * Creates the reconciler with explicit transactions.
+     * @param repositoryWallet repository for wallet persistence.
+     * @param repositoryLedger repository for ledger entries.
+     * @param ownTransactions runs the lock and each correction in their
+     *                        own transactions.
+     * @param store the configured balance store name.
+     * @param repairDrift whether discrepancies are corrected.
+     * @param partitions number of wallet ID ranges, a power of two.
+     * @param parallelism number of ranges audited at once.
+     */
+    public BalanceReconciler(
+            final RepositoryWallet repositoryWallet,
+            final RepositoryWalletLedger repositoryLedger,
+            final TransactionOperations ownTransactions,
+            final String store,
+            final boolean repairDrift,
+            final int partitions,
+            final int parallelism
+    ) {
+        if (partitions < 1 || Integer.bitCount(partitions) != 1
+                || Integer.numberOfTrailingZeros(partitions)
+                        > MAX_PARTITION_BITS
+                || parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid balance reconciliation settings");
+        }
+        this.repository = repositoryWallet;
+        this.ledger = repositoryLedger;
+        this.transactions = ownTransactions;
+        this.ledgerStore = "ledger".equals(store);
+        this.repair = repairDrift;
+        this.partitionBits = Integer.numberOfTrailingZeros(partitions);
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool
+                    .defaultForkJoinWorkerThreadFactory
+                    .newThread(forkJoinPool);
+            thread.setName("balance-reconciler-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.stats = new ReconciliationStats(
+                repairDrift, 0, 0, 0, 0, 0, 0, 0, null, List.of());
+    }
+
+    /**
+     * Runs a reconciliation unless one is already running on this node
+     * or another.
+     */
+    @Scheduled(initialDelayString = INTERVAL, fixedDelayString = INTERVAL)
+    public void reconcileOnSchedule() {
+        try {
+            reconcile();
+        } catch (IllegalStateException e) {
+            log.info("Skipping balance reconciliation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Audits every wallet, reporting and optionally correcting the
+     * balances that differ from their incomes and expenses.
+     * @return the metrics of the run.
+     * @throws IllegalStateException if a run is already in progress on
+     *                               this node or another.
+     */
+    public ReconciliationStats reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException(
+                    "Balance reconciliation already running");
+        }
+        try {
+            ReconciliationStats result = transactions.execute(status ->
+                    repository.tryLockReconciliation() ? run() : null);
+            if (result == null) {
+                throw new IllegalStateException(
+                        "Balance reconciliation running on another node");
+            }
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Returns the reconciliation metrics.
+     * @return a stats snapshot.
+     */
+    public ReconciliationStats stats() {
+        return stats;
+    }
+
+    /**
+     * Stops the audit threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Audits every partition and records the metrics of the run.
+     * @return the metrics of the run.
+     */
+    private ReconciliationStats run() {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        Tally tally = pool.invoke(
+                new PartitionTask(0, 1 << partitionBits));
+        long millis = Duration.ofNanos(System.nanoTime() - start)
+                .toMillis();
+        long repaired = tally.discrepancies.stream()
+                .filter(BalanceDiscrepancy::repaired)
+                .count();
+        if (!tally.discrepancies.isEmpty()) {
+            log.warn("{} wallet balances differ from their incomes and "
+                    + "expenses, {} corrected",
+                    tally.discrepancies.size(), repaired);
+        }
+        ReconciliationStats previous = stats;
+        stats = new ReconciliationStats(
+                repair,
+                previous.runs() + 1,
+                tally.wallets,
+                tally.entries,
+                tally.discrepancies.size(),
+                repaired,
+                millis,
+                tally.entries * MILLIS_PER_SECOND / Math.max(1, millis),
+                startedAt,
+                List.copyOf(tally.discrepancies.subList(0,
+                        Math.min(MAX_REPORTED,
+                                tally.discrepancies.size())))
+        );
+        return stats;
+    }
+
+    /**
+     * Audits the wallets of one ID range.
+     * @param partition the range number.
+     * @return the wallets, entries and discrepancies of the range.
+     */
+    private Tally audit(final int partition) {
+        int shift = Long.SIZE - partitionBits;
+        long first = partitionBits == 0 ? 0L : (long) partition << shift;
+        long last = partitionBits == 0 ? -1L : first + (1L << shift) - 1;
+        Tally tally = new Tally();
+        for (BalanceAudit audit : read(new UUID(first, 0L),
+                new UUID(last, -1L))) {
+            tally.wallets++;
+            tally.entries += audit.getEntries();
+            if (audit.getActual().compareTo(audit.getExpected()) != 0) {
+                BalanceDiscrepancy discrepancy = confirm(audit);
+                if (discrepancy != null) {
+                    tally.discrepancies.add(discrepancy);
+                }
+            }
+        }
+        return tally;
+    }
+
+    /**
+     * Reads a mismatching wallet again and corrects it if enabled.
+     * @param suspect the mismatching audit.
+     * @return the discrepancy, null if the mismatch was transient.
+     */
+    private BalanceDiscrepancy confirm(final BalanceAudit suspect) {
+        UUID walletId = suspect.getWallet();
+        BigDecimal drift = suspect.getExpected()
+                .subtract(suspect.getActual());
+        List<BalanceAudit> again = read(walletId, walletId);
+        if (again.isEmpty() || again.get(0).getExpected()
+                .subtract(again.get(0).getActual()).compareTo(drift) != 0) {
+            return null;
+        }
+        if (!repair) {
+            return new BalanceDiscrepancy(walletId, suspect.getActual(),
+                    suspect.getExpected(), false);
+        }
+        return transactions.execute(status -> correct(walletId));
+    }
+
+    /**
+     * Recomputes a wallet balance under its row lock and applies the
+     * difference, in the caller's transaction.
+     * @param walletId the wallet ID.
+     * @return the corrected discrepancy, null if the wallet no longer
+     *         differs.
+     */
+    private BalanceDiscrepancy correct(final UUID walletId) {
+        if (repository.lockForUpdate(walletId) == 0) {
+            return null;
+        }
+        List<BalanceAudit> locked = read(walletId, walletId);
+        if (locked.isEmpty()) {
+            return null;
+        }
+        BalanceAudit audit = locked.get(0);
+        BigDecimal drift = audit.getExpected().subtract(audit.getActual());
+        if (drift.signum() == 0) {
+            return null;
+        }
+        if (ledgerStore) {
+            ledger.save(new WalletLedgerEntry(
+                    walletId, drift, Instant.now()));
+        } else {
+            repository.shiftBalance(walletId, drift);
+        }
+        return new BalanceDiscrepancy(walletId, audit.getActual(),
+                audit.getExpected(), true);
+    }
+
+    /**
+     * Creates transactions independent of the caller's, as the run may
+     * be started inside one.
+     * @param transactionManager the transaction manager.
+     * @return the transaction template.
+     */
+    private static TransactionOperations requiresNew(
+            final PlatformTransactionManager transactionManager
+    ) {
+        TransactionTemplate template =
+                new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    /**
+     * Audits the wallets of an ID range against the configured store.
+     * @param lo the lowest wallet ID, inclusive.
+     * @param hi the highest wallet ID, inclusive.
+     * @return one audit per wallet.
+     */
+    private List<BalanceAudit> read(final UUID lo, final UUID hi) {
+        return ledgerStore
+                ? repository.auditLedgerBalances(lo, hi)
+                : repository.auditBalances(lo, hi);
+    }
+
+    /**
+     * Audit of a run of consecutive ID ranges, split in halves down to
+     * single ranges.
+     */
+    private final class PartitionTask extends RecursiveTask<Tally> {
+
+        /** First range, inclusive. */
+        private final int from;
+
+        /** Last range, exclusive. */
+        private final int to;
+
+        /**
+         * Creates the task.
+         * @param first first range, inclusive.
+         * @param end last range, exclusive.
+         */
+        PartitionTask(final int first, final int end) {
+            this.from = first;
+            this.to = end;
+        }
+
+        /**
+         * Audits the ranges.
+         * @return the merged tally.
+         */
+        @Override
+        protected Tally compute() {
+            if (to - from == 1) {
+                return audit(from);
+            }
+            int middle = (from + to) >>> 1;
+            PartitionTask left = new PartitionTask(from, middle);
+            left.fork();
+            Tally right = new PartitionTask(middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Running totals of an audit.
+     */
+    private static final class Tally {
+
+        /** Wallets checked. */
+        private long wallets;
+
+        /** Incomes and expenses summed. */
+        private long entries;
+
+        /** Confirmed discrepancies. */
+        private final List<BalanceDiscrepancy> discrepancies =
+                new ArrayList<>();
+
+        /**
+         * Adds another tally to this one.
+         * @param other the tally to add.
+         * @return this tally.
+         */
+        Tally merge(final Tally other) {
+            wallets += other.wallets;
+            entries += other.entries;
+            discrepancies.addAll(other.discrepancies);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package bflow.wallet.balance;
+
+import bflow.wallet.entities.Wallet;
+import java.math.BigDecimal;
+
+/**
+ * Storage for wallet balances, selected with the
+ * {@code bflow.wallet.balance-store} property: {@code column} (default)
+ * keeps the balance in the {@code wallets} row, updated by atomic
+ * statements; {@code ledger} appends every change to the
+ * {@code wallet_ledger} table and derives the balance from the latest
+ * snapshot. Changes join the caller's transaction.
+ */
+public interface BalanceStore {
+
+    /**
+     * Adds a positive amount to a wallet balance.
+     * @param wallet the wallet.
+     * @param amount the positive amount.
+     * @return false if the wallet does not exist.
+     */
+    boolean credit(Wallet wallet, BigDecimal amount);
+
+    /**
+     * Subtracts a positive amount from a wallet balance if the balance
+     * covers it.
+     * @param wallet the wallet.
+     * @param amount the positive amount.
+     * @return false if the wallet does not exist or the balance is
+     *         insufficient.
+     */
+    boolean debit(Wallet wallet, BigDecimal amount);
+
+    /**
+     * Returns the current balance of a wallet.
+     * @param wallet the wallet, as loaded by the caller.
+     * @return the balance.
+     */
+    BigDecimal balance(Wallet wallet);
+}
@@ -0,0 +1,60 @@
+package bflow.wallet.balance;
+
+import bflow.wallet.RepositoryWallet;
+import bflow.wallet.entities.Wallet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+
+/**
+ * Balance store updating the {@code balance} column of the wallet row.
+ * The overdraft check is part of the update statement, so it holds
+ * under any concurrency, at the cost of serializing postings on the row.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "bflow.wallet.balance-store",
+        havingValue = "column",
+        matchIfMissing = true
+)
+public final class ColumnBalanceStore implements BalanceStore {
+
+    /** Repository for wallet persistence. */
+    private final RepositoryWallet repository;
+
+    /**
+     * Adds an amount to the balance column in one statement.
+     * @param wallet the wallet.
+     * @param amount the positive amount.
+     * @return false if the wallet does not exist.
+     */
+    @Override
+    public boolean credit(final Wallet wallet, final BigDecimal amount) {
+        return repository.increaseBalance(wallet.getId(), amount) > 0;
+    }
+
+    /**
+     * Subtracts an amount from the balance column in one statement that
+     * only applies if the balance covers it.
+     * @param wallet the wallet.
+     * @param amount the positive amount.
+     * @return false if the wallet does not exist or the balance is
+     *         insufficient.
+     */
+    @Override
+    public boolean debit(final Wallet wallet, final BigDecimal amount) {
+        return repository.decreaseBalance(wallet.getId(), amount) > 0;
+    }
+
+    /**
+     * Returns the balance column as loaded.
+     * @param wallet the wallet.
+     * @return the balance.
+     */
+    @Override
+    public BigDecimal balance(final Wallet wallet) {
+        return wallet.getBalance();
+    }
+}
@@ -0,0 +1,99 @@
+package bflow.wallet.balance;
+
+import bflow.wallet.RepositoryWalletLedger;
+import bflow.wallet.RepositoryWalletSnapshot;
+import bflow.wallet.entities.Wallet;
+import bflow.wallet.entities.WalletBalanceSnapshot;
+import bflow.wallet.entities.WalletLedgerEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Balance store appending every change to the {@code wallet_ledger}
+ * table. Postings are plain inserts, so writers on a shared wallet never
+ * wait on each other or on its row. The balance is the latest snapshot
+ * plus the entries recorded after it; {@link LedgerCompactor} keeps that
+ * tail short, so a read sums a bounded number of indexed rows.
+ *
+ * <p>Debits of a wallet are serialised by a transaction-scoped advisory
+ * lock taken before the overdraft check, so two debits cannot both pass
+ * it; the lock is held until the caller's transaction ends. Credits
+ * never take it. The {@code wallets.balance} column is left untouched
+ * and only serves as the starting point of wallets without a snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "bflow.wallet.balance-store",
+        havingValue = "ledger"
+)
+public final class LedgerBalanceStore implements BalanceStore {
+
+    /** Repository for ledger entries. */
+    private final RepositoryWalletLedger ledger;
+
+    /** Repository for balance snapshots. */
+    private final RepositoryWalletSnapshot snapshots;
+
+    /**
+     * Appends a credit entry.
+     * @param wallet the wallet.
+     * @param amount the positive amount.
+     * @return always true, the wallet was loaded by the caller.
+     */
+    @Override
+    public boolean credit(final Wallet wallet, final BigDecimal amount) {
+        append(wallet, amount);
+        return true;
+    }
+
+    /**
+     * Appends a debit entry if the derived balance covers it, holding
+     * the wallet's advisory lock until the transaction ends.
+     * @param wallet the wallet.
+     * @param amount the positive amount.
+     * @return false if the balance is insufficient.
+     */
+    @Override
+    public boolean debit(final Wallet wallet, final BigDecimal amount) {
+        ledger.lockWallet(wallet.getId());
+        if (balance(wallet).compareTo(amount) < 0) {
+            return false;
+        }
+        append(wallet, amount.negate());
+        return true;
+    }
+
+    /**
+     * Derives the balance from the latest snapshot and the entries
+     * recorded after it.
+     * @param wallet the wallet.
+     * @return the balance.
+     */
+    @Override
+    public BigDecimal balance(final Wallet wallet) {
+        Optional<WalletBalanceSnapshot> snapshot =
+                snapshots.findById(wallet.getId());
+        BigDecimal base = snapshot
+                .map(WalletBalanceSnapshot::getBalance)
+                .orElse(wallet.getBalance());
+        long after = snapshot
+                .map(WalletBalanceSnapshot::getLastEntryId)
+                .orElse(0L);
+        return base.add(ledger.sumAfter(wallet.getId(), after));
+    }
+
+    /**
+     * Inserts a ledger entry.
+     * @param wallet the wallet.
+     * @param delta the signed change.
+     */
+    private void append(final Wallet wallet, final BigDecimal delta) {
+        ledger.save(new WalletLedgerEntry(
+                wallet.getId(), delta, Instant.now()));
+    }
+}
@@ -0,0 +1,25 @@
+package bflow.wallet.balance;
+
+import java.time.Instant;
+
+/**
+ * Metrics of the wallet ledger compactor.
+ * @param enabled whether balances are kept in the ledger.
+ * @param runs number of completed runs.
+ * @param walletsRolledUp snapshots advanced since startup.
+ * @param entriesRolledUp ledger entries folded into snapshots since
+ *                        startup.
+ * @param watermark last entry folded for every wallet, as of the last
+ *                  run.
+ * @param lastRunMillis duration of the last run in milliseconds.
+ * @param lastRunAt start of the last run, null before the first one.
+ */
+public record LedgerCompactionStats(
+        boolean enabled,
+        long runs,
+        long walletsRolledUp,
+        long entriesRolledUp,
+        long watermark,
+        long lastRunMillis,
+        Instant lastRunAt
+) { }
@@ -0,0 +1,181 @@
+package bflow.wallet.balance;
+
+import bflow.wallet.RepositoryLedgerWatermark;
+import bflow.wallet.RepositoryWalletLedger;
+import bflow.wallet.RepositoryWalletSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Scheduled job folding ledger entries into the wallet snapshots, so a
+ * balance read only sums the entries of the last few intervals.
+ *
+ * <p>Entries are identified by an increasing sequence, but a posting
+ * transaction may commit after one with a higher ID. Only entries older
+ * than the settle delay are folded, which must exceed the longest
+ * posting transaction, so no entry commits behind a snapshot. Each
+ * snapshot moves forward with a single conditional statement: a
+ * compactor running concurrently on another node simply loses the race
+ * for that wallet.
+ *
+ * <p>Once a run has folded every settled entry without losing a race,
+ * it raises the shared watermark to the last entry it read. Later runs
+ * only scan the entries after the watermark, so their cost follows the
+ * entries written since, not the size of the ledger.
+ */
+@Component
+public final class LedgerCompactor {
+
+    /** Delay between runs. */
+    private static final String INTERVAL =
+            "${bflow.wallet.ledger.compact-interval-ms:30000}";
+
+    /** Repository for ledger entries. */
+    private final RepositoryWalletLedger ledger;
+
+    /** Repository for balance snapshots. */
+    private final RepositoryWalletSnapshot snapshots;
+
+    /** Repository for the compaction watermark. */
+    private final RepositoryLedgerWatermark watermarks;
+
+    /** Whether balances are kept in the ledger. */
+    private final boolean enabled;
+
+    /** Age an entry must reach before it is folded. */
+    private final Duration settleDelay;
+
+    /** Maximum wallets read per query. */
+    private final int batchSize;
+
+    /** Maximum snapshots advanced per run. */
+    private final int maxPerRun;
+
+    /** Metrics of the last run. */
+    private volatile LedgerCompactionStats stats;
+
+    /**
+     * Creates the compactor.
+     * @param repositoryLedger repository for ledger entries.
+     * @param repositorySnapshot repository for balance snapshots.
+     * @param repositoryWatermark repository for the compaction watermark.
+     * @param store the configured balance store name.
+     * @param settleMs age in milliseconds an entry must reach before it
+     *                 is folded.
+     * @param batch maximum wallets read per query.
+     * @param maxWallets maximum snapshots advanced per run.
+     */
+    public LedgerCompactor(
+            final RepositoryWalletLedger repositoryLedger,
+            final RepositoryWalletSnapshot repositorySnapshot,
+            final RepositoryLedgerWatermark repositoryWatermark,
+            @Value("${bflow.wallet.balance-store:column}")
+            final String store,
+            @Value("${bflow.wallet.ledger.settle-ms:60000}")
+            final long settleMs,
+            @Value("${bflow.wallet.ledger.compact-batch-size:500}")
+            final int batch,
+            @Value("${bflow.wallet.ledger.compact-max-wallets:50000}")
+            final int maxWallets
+    ) {
+        if (settleMs < 0 || batch < 1 || maxWallets < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid ledger compaction settings");
+        }
+        this.ledger = repositoryLedger;
+        this.snapshots = repositorySnapshot;
+        this.watermarks = repositoryWatermark;
+        this.enabled = "ledger".equals(store);
+        this.settleDelay = Duration.ofMillis(settleMs);
+        this.batchSize = batch;
+        this.maxPerRun = maxWallets;
+        this.stats = new LedgerCompactionStats(
+                enabled, 0, 0, 0, 0, 0, null);
+    }
+
+    /**
+     * Folds the settled entries of every wallet into its snapshot, batch
+     * by batch until none are left or the per-run limit is reached, then
+     * raises the watermark if nothing was left behind.
+     * @return the number of advanced snapshots.
+     */
+    @Scheduled(initialDelayString = INTERVAL, fixedDelayString = INTERVAL)
+    public int compact() {
+        if (!enabled) {
+            return 0;
+        }
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        int wallets = 0;
+        long entries = 0;
+        long watermark = watermarks.current();
+        Long upTo = ledger.findLastIdBefore(
+                watermark, startedAt.minus(settleDelay));
+        if (upTo != null) {
+            List<LedgerRollup> page;
+            int advanced;
+            boolean lost = false;
+            do {
+                page = ledger.findPendingRollups(
+                        watermark, upTo, PageRequest.of(0, batchSize));
+                advanced = 0;
+                for (LedgerRollup rollup : page) {
+                    if (fold(rollup, startedAt)) {
+                        advanced++;
+                        entries += rollup.entries();
+                    } else {
+                        lost = true;
+                    }
+                }
+                wallets += advanced;
+                // Wallets lost to another compactor stay pending until it
+                // commits, stop rather than read them again
+            } while (page.size() == batchSize && advanced > 0
+                    && wallets < maxPerRun);
+            if (page.size() < batchSize && !lost) {
+                watermarks.raise(upTo, startedAt);
+                watermark = upTo;
+            }
+        }
+
+        LedgerCompactionStats previous = stats;
+        stats = new LedgerCompactionStats(
+                enabled,
+                previous.runs() + 1,
+                previous.walletsRolledUp() + wallets,
+                previous.entriesRolledUp() + entries,
+                watermark,
+                Duration.ofNanos(System.nanoTime() - start).toMillis(),
+                startedAt
+        );
+        return wallets;
+    }
+
+    /**
+     * Returns the compaction metrics.
+     * @return a stats snapshot.
+     */
+    public LedgerCompactionStats stats() {
+        return stats;
+    }
+
+    /**
+     * Folds the pending entries of one wallet into its snapshot.
+     * @param rollup the pending entries.
+     * @param now the current time.
+     * @return false if another compactor advanced the snapshot first.
+     */
+    private boolean fold(final LedgerRollup rollup, final Instant now) {
+        if (rollup.snapshotEntryId() == null) {
+            return snapshots.create(rollup.walletId(), rollup.delta(),
+                    rollup.lastEntryId(), now) > 0;
+        }
+        return snapshots.advance(rollup.walletId(), rollup.delta(),
+                rollup.snapshotEntryId(), rollup.lastEntryId(), now) > 0;
+    }
+}
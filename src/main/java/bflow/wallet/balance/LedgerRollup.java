@@ -0,0 +1,21 @@
+package bflow.wallet.balance;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Ledger entries of one wallet not yet included in its snapshot.
+ * @param walletId the wallet ID.
+ * @param delta the sum of the entries.
+ * @param entries the number of entries.
+ * @param lastEntryId the ID of the last entry.
+ * @param snapshotEntryId the last entry ID of the current snapshot, null
+ *                        if the wallet has none.
+ */
+public record LedgerRollup(
+        UUID walletId,
+        BigDecimal delta,
+        Long entries,
+        Long lastEntryId,
+        Long snapshotEntryId
+) { }
@@ -0,0 +1,30 @@
+package bflow.wallet.balance;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Metrics of the balance reconciler.
+ * @param repair whether discrepancies are corrected.
+ * @param runs number of completed runs.
+ * @param walletsChecked wallets checked by the last run.
+ * @param entriesChecked incomes and expenses summed by the last run.
+ * @param discrepancies discrepancies confirmed by the last run.
+ * @param repaired balances corrected by the last run.
+ * @param lastRunMillis duration of the last run in milliseconds.
+ * @param entriesPerSecond entries summed per second by the last run.
+ * @param lastRunAt start of the last run, null before the first one.
+ * @param lastDiscrepancies the first discrepancies of the last run.
+ */
+public record ReconciliationStats(
+        boolean repair,
+        long runs,
+        long walletsChecked,
+        long entriesChecked,
+        long discrepancies,
+        long repaired,
+        long lastRunMillis,
+        long entriesPerSecond,
+        Instant lastRunAt,
+        List<BalanceDiscrepancy> lastDiscrepancies
+) { }
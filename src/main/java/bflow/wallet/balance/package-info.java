@@ -0,0 +1,4 @@
+/**
+ * Pluggable storage of wallet balances.
+ */
+package bflow.wallet.balance;
@@ -0,0 +1,33 @@
+package bflow.wallet.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.Instant;
+
+/**
+ * Entity holding the ledger compaction watermark: every ledger entry up
+ * to {@code lastEntryId} is folded into its wallet snapshot, so the
+ * compactor only scans the entries after it. The table has a single row.
+ */
+@Entity
+@Table(name = "wallet_ledger_watermark")
+@Getter
+@Setter
+public class LedgerWatermark {
+
+    /** The ID of the single row. */
+    @Id
+    private int id;
+
+    /** The ID of the last ledger entry folded for every wallet. */
+    @Column(nullable = false)
+    private long lastEntryId;
+
+    /** The timestamp when the watermark last moved. */
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
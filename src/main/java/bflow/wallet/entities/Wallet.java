@@ -18,11 +18,17 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
- * Entity representing a financial wallet.
+ * Entity representing a financial wallet. The balance is only changed by
+ * atomic statements in {@code RepositoryWallet}, and updates write just
+ * the changed columns so a stale balance is never written back. With the
+ * ledger balance store the column is frozen and the balance is derived
+ * from the wallet ledger.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "wallets")
 @Getter
 @Setter
@@ -0,0 +1,39 @@
+package bflow.wallet.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entity representing the latest rolled up balance of a wallet: the
+ * balance once every ledger entry up to {@code lastEntryId} is applied.
+ * A wallet without a snapshot starts from its {@code balance} column.
+ */
+@Entity
+@Table(name = "wallet_balance_snapshots")
+@Getter
+@Setter
+public class WalletBalanceSnapshot {
+
+    /** The ID of the wallet. */
+    @Id
+    private UUID walletId;
+
+    /** The balance including every entry up to the last one. */
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    /** The ID of the last ledger entry included in the balance. */
+    @Column(nullable = false)
+    private long lastEntryId;
+
+    /** The timestamp when the snapshot was last rolled up. */
+    @Column(nullable = false)
+    private Instant takenAt;
+}
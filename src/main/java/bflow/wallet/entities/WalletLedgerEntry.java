@@ -0,0 +1,74 @@
+package bflow.wallet.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entity representing one balance change of a wallet. Entries are only
+ * ever inserted; the balance is the latest snapshot plus the entries
+ * recorded after it. The composite index serves the balance reads, the
+ * creation index lets the compactor find settled entries.
+ */
+@Entity
+@Table(
+        name = "wallet_ledger",
+        indexes = {
+                @Index(
+                        name = "idx_wallet_ledger_wallet_entry",
+                        columnList = "walletId, id"
+                ),
+                @Index(
+                        name = "idx_wallet_ledger_created_at",
+                        columnList = "createdAt"
+                )
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class WalletLedgerEntry {
+
+    /** Increasing identifier, ordering entries for the snapshots. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** The ID of the wallet the change applies to. */
+    @Column(nullable = false, updatable = false)
+    private UUID walletId;
+
+    /** The signed change, negative for a debit. */
+    @Column(nullable = false, updatable = false)
+    private BigDecimal delta;
+
+    /** The timestamp when the change was recorded. */
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    /**
+     * Creates an entry.
+     * @param wallet the ID of the wallet the change applies to.
+     * @param change the signed change.
+     * @param recordedAt the timestamp when the change was recorded.
+     */
+    public WalletLedgerEntry(
+            final UUID wallet,
+            final BigDecimal change,
+            final Instant recordedAt
+    ) {
+        this.walletId = wallet;
+        this.delta = change;
+        this.createdAt = recordedAt;
+    }
+}
@@ -0,0 +1,57 @@
+package Diaz.Dev.BFlow;
+
+import bflow.auth.services.UserClaimsCache;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JPA slice against a real Postgres database, for tests and benchmarks
+ * whose behaviour depends on indexes, locks or native SQL. Skipped
+ * unless BFLOW_TEST_DATABASE_URL points at a disposable database, e.g.
+ *
+ * <pre>
+ * BFLOW_TEST_DATABASE_URL=jdbc:postgresql://localhost:5432/bflow_test \
+ *     ./mvnw test -Dtest='*Benchmark'
+ * </pre>
+ *
+ * BFLOW_TEST_DATABASE_USER and BFLOW_TEST_DATABASE_PASSWORD default to
+ * postgres. The schema is created with ddl-auto=update like the app.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@EnabledIfEnvironmentVariable(named = "BFLOW_TEST_DATABASE_URL", matches = ".+")
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=${BFLOW_TEST_DATABASE_URL}",
+        "spring.datasource.username=${BFLOW_TEST_DATABASE_USER:postgres}",
+        "spring.datasource.password=${BFLOW_TEST_DATABASE_PASSWORD:postgres}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = PostgresTest.Schema.class)
+public @interface PostgresTest {
+
+    /**
+     * Entities and repositories live outside the test package. The
+     * claims cache backs the User entity listener.
+     */
+    @Configuration
+    @EntityScan("bflow")
+    @EnableJpaRepositories("bflow")
+    @Import(UserClaimsCache.class)
+    class Schema {
+    }
+}
@@ -1,21 +1,31 @@
 package Diaz.Dev.BFlow.auth.controllers;
 
 import bflow.auth.DTO.AuthLoginRequest;
+import bflow.auth.DTO.Record.RefreshRotationResult;
+import bflow.auth.DTO.Record.UserClaims;
 import bflow.auth.entities.User;
+import bflow.auth.security.LoginThrottle;
 import bflow.auth.security.jwt.JwtService;
 import bflow.auth.services.AuthService;
 import bflow.auth.services.ServiceRefreshToken;
+import bflow.auth.services.UserClaimsCache;
+import bflow.common.exception.InvalidCredentialsException;
 import bflow.auth.controllers.AuthController;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 
 import java.util.List;
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +37,10 @@ class AuthControllerCookieSecurityTest {
     JwtService jwtService;
     @Mock
     ServiceRefreshToken serviceRefreshToken;
+    @Mock
+    LoginThrottle loginThrottle;
+    @Mock
+    UserClaimsCache userClaimsCache;
 
     @InjectMocks
     AuthController controller;
@@ -52,7 +66,7 @@ class AuthControllerCookieSecurityTest {
 
         MockHttpServletResponse res = new MockHttpServletResponse();
 
-        controller.login(req, res);
+        controller.login(req, new MockHttpServletRequest(), res);
 
         var headers = res.getHeaders("Set-Cookie");
         assertTrue(headers.stream().anyMatch(h -> h.contains("access_token")));
@@ -61,4 +75,37 @@ class AuthControllerCookieSecurityTest {
         // Current implementation: insecure flags
         assertTrue(headers.stream().anyMatch(h -> h.contains("SameSite=None")));
     }
+
+    @Test
+    void refreshUsesCachedClaims() {
+        UUID userId = UUID.randomUUID();
+        when(serviceRefreshToken.rotate("old"))
+                .thenReturn(new RefreshRotationResult(userId, "new"));
+        when(userClaimsCache.get(userId)).thenReturn(new UserClaims(
+                userId, "a@b.com", List.of("USER"), true));
+        when(jwtService.generateToken(userId, "a@b.com", List.of("USER")))
+                .thenReturn("token123");
+
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        controller.refresh("old", res);
+
+        assertTrue(res.getHeaders("Set-Cookie").stream()
+                .anyMatch(h -> h.contains("access_token=token123")));
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void refreshRejectsDisabledUser() {
+        UUID userId = UUID.randomUUID();
+        when(serviceRefreshToken.rotate("old"))
+                .thenReturn(new RefreshRotationResult(userId, "new"));
+        when(userClaimsCache.get(userId)).thenReturn(new UserClaims(
+                userId, "a@b.com", List.of("USER"), false));
+
+        assertThrows(InvalidCredentialsException.class,
+                () -> controller.refresh("old", new MockHttpServletResponse()));
+
+        verify(serviceRefreshToken).revokeAll(userId);
+        verify(jwtService, never()).generateToken(any(), any(), any());
+    }
 }
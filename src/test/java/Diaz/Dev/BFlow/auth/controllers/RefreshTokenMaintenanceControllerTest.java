@@ -0,0 +1,36 @@
+package Diaz.Dev.BFlow.auth.controllers;
+
+import bflow.auth.DTO.Record.RefreshTokenRevocation;
+import bflow.auth.controllers.RefreshTokenMaintenanceController;
+import bflow.auth.services.RefreshTokenPurgeJob;
+import bflow.auth.services.ServiceRefreshToken;
+import bflow.auth.services.UserClaimsCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenMaintenanceControllerTest {
+
+    private final ServiceRefreshToken service = mock(ServiceRefreshToken.class);
+
+    private final RefreshTokenMaintenanceController controller =
+            new RefreshTokenMaintenanceController(service,
+                    mock(RefreshTokenPurgeJob.class),
+                    mock(UserClaimsCache.class));
+
+    @Test
+    void massLogoutRevokesAllUsersInOneCall() {
+        Set<UUID> users = Set.of(UUID.randomUUID(), UUID.randomUUID());
+        when(service.revokeAll(users)).thenReturn(5);
+
+        RefreshTokenRevocation result = controller.revoke(users);
+
+        assertEquals(new RefreshTokenRevocation(2, 5), result);
+        verify(service).revokeAll(users);
+        verify(service, never()).revokeAll(any(UUID.class));
+    }
+}
@@ -0,0 +1,50 @@
+package Diaz.Dev.BFlow.auth.entities;
+
+import bflow.auth.entities.RoleMaskConverter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoleMaskConverterTest {
+
+    private final RoleMaskConverter converter = new RoleMaskConverter();
+
+    @Test
+    void encodesRolesAsBits() {
+        assertEquals(1, converter.convertToDatabaseColumn(Set.of("USER")));
+        assertEquals(3, converter.convertToDatabaseColumn(
+                Set.of("USER", "ADMIN")));
+        assertEquals(0, converter.convertToDatabaseColumn(Set.of()));
+    }
+
+    @Test
+    void acceptsAuthorityPrefixAndCase() {
+        assertEquals(1, converter.convertToDatabaseColumn(
+                Set.of("ROLE_USER")));
+        assertEquals(2, converter.convertToDatabaseColumn(Set.of("admin")));
+    }
+
+    @Test
+    void decodesBitsToRoleNames() {
+        assertEquals(Set.of("USER", "ADMIN"),
+                converter.convertToEntityAttribute(3));
+        assertEquals(Set.of(), converter.convertToEntityAttribute(0));
+        assertEquals(Set.of(), converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void roundTrips() {
+        Set<String> roles = Set.of("ADMIN");
+
+        assertEquals(roles, converter.convertToEntityAttribute(
+                converter.convertToDatabaseColumn(roles)));
+    }
+
+    @Test
+    void rejectsUnknownRoles() {
+        assertThrows(IllegalArgumentException.class,
+                () -> converter.convertToDatabaseColumn(Set.of("ROOT")));
+    }
+}
@@ -0,0 +1,103 @@
+package Diaz.Dev.BFlow.auth.repository;
+
+import Diaz.Dev.BFlow.PostgresTest;
+import bflow.auth.repository.RepositoryRefreshToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Refresh token lookup latency as auth_refresh_tokens grows to a few
+ * million rows. With the unique hash index the latency stays flat.
+ * Set -Dbflow.benchmark.tokens to change the final table size.
+ */
+@PostgresTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenLookupBenchmark {
+
+    private static final int LOOKUPS = 2_000;
+
+    private static final int USERS = 100_000;
+
+    @Autowired
+    private RepositoryRefreshToken repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    @AfterEach
+    void truncate() {
+        jdbc.execute("TRUNCATE auth_refresh_tokens");
+    }
+
+    private void seed(int from, int to) {
+        jdbc.update("INSERT INTO auth_refresh_tokens"
+                + " (id, user_id, token_hash, expires_at, revoked, created_at)"
+                + " SELECT gen_random_uuid(), md5((i % ?)::text)::uuid,"
+                + " encode(sha256(i::text::bytea), 'hex'),"
+                + " now() + interval '7 days', i % 10 = 0, now()"
+                + " FROM generate_series(?, ?) i", USERS, from, to);
+        jdbc.execute("ANALYZE auth_refresh_tokens");
+    }
+
+    private String hashOf(int i) {
+        return jdbc.queryForObject(
+                "SELECT encode(sha256(?::text::bytea), 'hex')",
+                String.class, String.valueOf(i));
+    }
+
+    @Test
+    void lookupLatencyStaysFlatAsTheTableGrows() {
+        int total = Integer.getInteger("bflow.benchmark.tokens", 3_000_000);
+        List<Integer> sizes = List.of(10_000, 100_000, 1_000_000, total);
+
+        String plan = String.join("\n", jdbc.queryForList(
+                "EXPLAIN SELECT * FROM auth_refresh_tokens"
+                        + " WHERE token_hash = 'x'", String.class));
+        assertTrue(plan.contains("uk_refresh_token_hash"), plan);
+
+        int seeded = 0;
+        for (int size : sizes) {
+            if (size <= seeded) {
+                continue;
+            }
+            seed(seeded + 1, size);
+            seeded = size;
+
+            String[] hashes = new String[LOOKUPS];
+            for (int i = 0; i < LOOKUPS; i++) {
+                hashes[i] = hashOf(
+                        ThreadLocalRandom.current().nextInt(1, size + 1));
+            }
+            long[] nanos = new long[LOOKUPS];
+            Instant now = Instant.now();
+            for (int i = 0; i < LOOKUPS; i++) {
+                long start = System.nanoTime();
+                assertTrue(repository.findByTokenHash(hashes[i]).isPresent());
+                repository.findByTokenHashAndRevokedFalseAndExpiresAtAfter(
+                        hashes[i], now);
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            System.out.printf(
+                    "%,d tokens: avg %d us, p50 %d us, p99 %d us"
+                            + " (findByTokenHash + validate lookup)%n",
+                    size,
+                    Arrays.stream(nanos).sum() / LOOKUPS / 1000,
+                    nanos[LOOKUPS / 2] / 1000,
+                    nanos[LOOKUPS * 99 / 100] / 1000);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package Diaz.Dev.BFlow.auth.repository;
+
+import Diaz.Dev.BFlow.PostgresTest;
+import bflow.auth.entities.RefreshToken;
+import bflow.auth.repository.RepositoryRefreshToken;
+import bflow.auth.services.RefreshTokenPurgeJob;
+import bflow.auth.store.JpaRefreshTokenStore;
+import bflow.auth.store.RotationOutcome;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@PostgresTest
+class RefreshTokenPurgePostgresTest {
+
+    @Autowired
+    private RepositoryRefreshToken repository;
+
+    private String token(Instant expiresAt, boolean revoked) {
+        RefreshToken token = new RefreshToken();
+        token.setId(UUID.randomUUID());
+        token.setUserId(UUID.randomUUID());
+        token.setTokenHash(UUID.randomUUID().toString().replace("-", ""));
+        token.setExpiresAt(expiresAt);
+        token.setRevoked(revoked);
+        token.setCreatedAt(expiresAt.minus(Duration.ofDays(7)));
+        repository.saveAndFlush(token);
+        return token.getTokenHash();
+    }
+
+    @Test
+    void expiredTokensOutliveTheirExpiryByTheRetention() {
+        Instant now = Instant.now();
+        String recentlyExpired = token(now.minus(Duration.ofDays(1)), false);
+        String recentlyRevoked = token(now.minus(Duration.ofDays(1)), true);
+        String stale = token(now.minus(Duration.ofDays(15)), false);
+        String staleRevoked = token(now.minus(Duration.ofDays(15)), true);
+
+        new RefreshTokenPurgeJob(repository, 100, 100_000, 14).purge();
+
+        assertTrue(repository.findByTokenHash(recentlyExpired).isPresent());
+        assertTrue(repository.findByTokenHash(recentlyRevoked).isPresent());
+        assertTrue(repository.findByTokenHash(stale).isEmpty());
+        assertTrue(repository.findByTokenHash(staleRevoked).isEmpty());
+    }
+
+    @Test
+    void aPurgedLateRefreshIsStillAnsweredAsExpired() {
+        Instant now = Instant.now();
+        String expired = token(now.minus(Duration.ofDays(1)), false);
+        RefreshToken replacement = new RefreshToken();
+        replacement.setId(UUID.randomUUID());
+        replacement.setTokenHash(UUID.randomUUID().toString()
+                .replace("-", ""));
+        replacement.setExpiresAt(now.plus(Duration.ofDays(7)));
+        replacement.setCreatedAt(now);
+
+        new RefreshTokenPurgeJob(repository, 100, 100_000, 14).purge();
+        RotationOutcome outcome = new JpaRefreshTokenStore(repository)
+                .rotate(expired, replacement, now);
+
+        assertEquals(RotationOutcome.Status.EXPIRED, outcome.status());
+    }
+}
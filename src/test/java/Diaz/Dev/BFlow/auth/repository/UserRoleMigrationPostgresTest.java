@@ -0,0 +1,62 @@
+package Diaz.Dev.BFlow.auth.repository;
+
+import Diaz.Dev.BFlow.PostgresTest;
+import bflow.auth.entities.User;
+import bflow.auth.enums.AuthProvider;
+import bflow.auth.repository.RepositoryUser;
+import bflow.auth.services.UserRoleMigration;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@PostgresTest
+class UserRoleMigrationPostgresTest {
+
+    @Autowired
+    private RepositoryUser repository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID user(String email) {
+        return repository.saveAndFlush(User.builder()
+                .email(email)
+                .provider(AuthProvider.LOCAL)
+                .build()).getId();
+    }
+
+    @Test
+    void legacyRolesAreFoldedIntoTheMask() {
+        UUID admin = user("admin-" + UUID.randomUUID() + "@bflow.com");
+        UUID member = user("member-" + UUID.randomUUID() + "@bflow.com");
+        UUID roleless = user("none-" + UUID.randomUUID() + "@bflow.com");
+        jdbc.execute("DROP TABLE IF EXISTS user_roles");
+        jdbc.execute("CREATE TABLE user_roles"
+                + " (user_id uuid NOT NULL, role varchar(255))");
+        jdbc.update("INSERT INTO user_roles VALUES (?, 'ROLE_USER'),"
+                + " (?, 'ROLE_ADMIN'), (?, 'USER'), (?, 'AUDITOR')",
+                admin, admin, member, member);
+
+        new UserRoleMigration(repository,
+                TransactionOperations.withoutTransaction()).migrate();
+        entityManager.clear();
+
+        assertEquals(Set.of("USER", "ADMIN"),
+                repository.findById(admin).orElseThrow().getRoles());
+        assertEquals(Set.of("USER"),
+                repository.findById(member).orElseThrow().getRoles());
+        assertEquals(Set.of(),
+                repository.findById(roleless).orElseThrow().getRoles());
+        assertFalse(repository.hasLegacyRoleTable());
+    }
+}
@@ -0,0 +1,78 @@
+package Diaz.Dev.BFlow.auth.security;
+
+import bflow.auth.security.Argon2Calibrator;
+import bflow.auth.security.Argon2Parameters;
+import bflow.auth.security.TunedArgon2PasswordEncoder;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Argon2CalibratorTest {
+
+    private static final Argon2Parameters BASE =
+            new Argon2Parameters(16, 32, 1, 65536, 10);
+
+    /** 1 ms per MiB per iteration. */
+    private static long linearCost(Argon2Parameters p) {
+        return (long) p.memoryKb() / 1024 * p.iterations() * 1_000_000L;
+    }
+
+    @Test
+    void scalesIterationsToTheTargetLatency() {
+        Argon2Calibrator calibrator =
+                new Argon2Calibrator(Argon2CalibratorTest::linearCost);
+
+        Argon2Parameters chosen = calibrator.calibrate(BASE, 320, 65536);
+
+        assertEquals(65536, chosen.memoryKb());
+        assertEquals(4, chosen.iterations());
+        assertEquals(BASE.parallelism(), chosen.parallelism());
+    }
+
+    @Test
+    void halvesMemoryWhenTheMinimumIsTooSlow() {
+        Argon2Calibrator calibrator =
+                new Argon2Calibrator(Argon2CalibratorTest::linearCost);
+
+        Argon2Parameters chosen = calibrator.calibrate(BASE, 80, 131072);
+
+        assertEquals(32768, chosen.memoryKb());
+        assertEquals(2, chosen.iterations());
+    }
+
+    @Test
+    void neverGoesBelowTheFloor() {
+        Argon2Calibrator calibrator = new Argon2Calibrator(p -> Long.MAX_VALUE);
+
+        Argon2Parameters chosen = calibrator.calibrate(BASE, 1, 1024);
+
+        assertTrue(chosen.memoryKb() >= 19 * 1024);
+        assertEquals(2, chosen.iterations());
+    }
+
+    @Test
+    void roundsIterationsSoSimilarTimingsAgree() {
+        Argon2Calibrator fast = new Argon2Calibrator(
+                p -> linearCost(p) * 95 / 100);
+        Argon2Calibrator slow = new Argon2Calibrator(
+                p -> linearCost(p) * 105 / 100);
+
+        assertEquals(fast.calibrate(BASE, 700, 65536),
+                slow.calibrate(BASE, 700, 65536));
+    }
+
+    @Test
+    void encoderRequestsUpgradeOnlyForWeakerHashes() {
+        Argon2Parameters small = new Argon2Parameters(16, 32, 1, 1024, 1);
+        TunedArgon2PasswordEncoder old = new TunedArgon2PasswordEncoder(small);
+        TunedArgon2PasswordEncoder stronger =
+                new TunedArgon2PasswordEncoder(small.withCost(2048, 2));
+        String hash = old.encode("secret");
+
+        assertFalse(old.upgradeEncoding(hash));
+        assertTrue(stronger.upgradeEncoding(hash));
+        assertTrue(stronger.matches("secret", hash));
+        assertFalse(stronger.upgradeEncoding(stronger.encode("secret")));
+        assertFalse(old.upgradeEncoding(stronger.encode("secret")));
+    }
+}
@@ -0,0 +1,89 @@
+package Diaz.Dev.BFlow.auth.security;
+
+import bflow.auth.security.BoundedPasswordEncoder;
+import bflow.common.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void delegatesOnThePool() {
+        when(delegate.encode("secret")).thenAnswer(
+                inv -> Thread.currentThread().getName());
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1);
+
+        assertTrue(encoder.encode("secret").startsWith("password-hash-"));
+        assertTrue(encoder.matches("secret", "hash"));
+        // the executor counts a task only after its result is handed over
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.stats().completed() < 2
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(2, encoder.stats().completed());
+    }
+
+    @Test
+    void rejectsFastWhenTheQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode(any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1);
+
+        CompletableFuture<String> running =
+                CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued =
+                CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (encoder.stats().queued() == 0) {
+            Thread.sleep(5);
+        }
+
+        long start = System.nanoTime();
+        assertThrows(ServiceOverloadedException.class,
+                () -> encoder.encode("c"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 500, "rejection took " + elapsedMillis);
+        assertEquals(1, encoder.stats().rejected());
+        assertEquals(1, encoder.stats().active());
+
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void delegateErrorsAreRethrown() {
+        when(delegate.matches(any(), any()))
+                .thenThrow(new IllegalArgumentException("bad hash"));
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> encoder.matches("a", "b"));
+    }
+}
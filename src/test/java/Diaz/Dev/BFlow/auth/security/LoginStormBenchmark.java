@@ -0,0 +1,150 @@
+package Diaz.Dev.BFlow.auth.security;
+
+import bflow.auth.security.Argon2Parameters;
+import bflow.auth.security.BoundedPasswordEncoder;
+import bflow.auth.security.TunedArgon2PasswordEncoder;
+import bflow.common.exception.ServiceOverloadedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read latency during a login storm. Request threads are modelled by a
+ * pool the size of Tomcat's default (200). Reads arrive at a steady rate
+ * and serialise a page of 50 entries, the CPU part of a wallet or expense
+ * list. Logins come from a closed loop of clients, each hashing with the
+ * production Argon2 costs. The storm runs once with hashing on the
+ * request threads, as before, and once on the bounded executor, where
+ * logins waiting past its timeout get a 503.
+ * Set -Dbflow.benchmark.storm-clients and -Dbflow.benchmark.reads to
+ * change the load; the unbounded run keeps one 64 MB Argon2 block per
+ * client alive, so give the test JVM enough heap (-DargLine=-Xmx3g).
+ */
+class LoginStormBenchmark {
+
+    private static final int REQUEST_THREADS = 200;
+
+    private static final long READ_INTERVAL_MICROS = 5_000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<Entry> page = new ArrayList<>();
+
+    private record Entry(UUID id, String title, BigDecimal amount,
+                         String type) { }
+
+    private static PasswordEncoder argon2() {
+        return new TunedArgon2PasswordEncoder(
+                new Argon2Parameters(16, 32, 8, 65_536, 10));
+    }
+
+    private void read() {
+        try {
+            mapper.writeValueAsBytes(page);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String run(String name, PasswordEncoder logins, int clients,
+                       int reads) throws Exception {
+        String hash = logins == null ? null : logins.encode("password");
+        ExecutorService requests =
+                Executors.newFixedThreadPool(REQUEST_THREADS);
+        ExecutorService stormClients =
+                Executors.newFixedThreadPool(Math.max(1, clients));
+        AtomicBoolean storming = new AtomicBoolean(logins != null);
+        AtomicInteger signedIn = new AtomicInteger();
+        AtomicInteger overloaded = new AtomicInteger();
+        try {
+            for (int i = 0; logins != null && i < clients; i++) {
+                stormClients.submit(() -> {
+                    while (storming.get()) {
+                        try {
+                            requests.submit(() ->
+                                    logins.matches("password", hash)).get();
+                            signedIn.incrementAndGet();
+                        } catch (Exception e) {
+                            if (e.getCause()
+                                    instanceof ServiceOverloadedException) {
+                                overloaded.incrementAndGet();
+                            }
+                        }
+                    }
+                    return null;
+                });
+            }
+            if (logins != null) {
+                // let the storm fill the request threads
+                Thread.sleep(1_000);
+            }
+
+            long[] nanos = new long[reads];
+            List<Future<?>> futures = new ArrayList<>();
+            long next = System.nanoTime();
+            for (int i = 0; i < reads; i++) {
+                while (System.nanoTime() < next) {
+                    Thread.onSpinWait();
+                }
+                int n = i;
+                long submitted = System.nanoTime();
+                futures.add(requests.submit(() -> {
+                    read();
+                    nanos[n] = System.nanoTime() - submitted;
+                }));
+                next += TimeUnit.MICROSECONDS.toNanos(READ_INTERVAL_MICROS);
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+            Arrays.sort(nanos);
+            return String.format(
+                    "%-26s read p50 %,8d us, p99 %,9d us,"
+                            + " logins %,5d ok, %,5d 503",
+                    name, nanos[reads / 2] / 1000,
+                    nanos[reads * 99 / 100] / 1000,
+                    signedIn.get(), overloaded.get());
+        } finally {
+            storming.set(false);
+            stormClients.shutdown();
+            stormClients.awaitTermination(5, TimeUnit.MINUTES);
+            requests.shutdownNow();
+        }
+    }
+
+    @Test
+    void readLatencyDuringALoginStorm() throws Exception {
+        int clients = Integer.getInteger("bflow.benchmark.storm-clients", 16);
+        int reads = Integer.getInteger("bflow.benchmark.reads", 2_000);
+        for (int i = 0; i < 50; i++) {
+            page.add(new Entry(UUID.randomUUID(), "Groceries " + i,
+                    new BigDecimal("12.34"), "FOOD"));
+        }
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(argon2(),
+                Runtime.getRuntime().availableProcessors(), 64);
+        try {
+            // warm up the serialiser
+            run("warm-up", null, 0, reads);
+            System.out.println(run("no storm", null, 0, reads));
+            System.out.println(run("storm, request threads", argon2(),
+                    clients, reads));
+            System.out.println(run("storm, bounded executor", bounded,
+                    clients, reads));
+            System.out.println("bounded executor: " + bounded.stats());
+        } finally {
+            bounded.shutdown();
+        }
+    }
+}
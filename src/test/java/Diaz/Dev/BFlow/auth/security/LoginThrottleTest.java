@@ -0,0 +1,118 @@
+package Diaz.Dev.BFlow.auth.security;
+
+import bflow.auth.security.LoginThrottle;
+import bflow.common.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private static final long WINDOW = 60_000;
+
+    private final AtomicLong now = new AtomicLong(10 * WINDOW);
+
+    private final LoginThrottle throttle =
+            new LoginThrottle(3, 5, WINDOW, 1_000, now::get);
+
+    @Test
+    void rejectsEmailOverItsLimit() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("a@b.com", "10.0.0." + i);
+        }
+
+        TooManyRequestsException error = assertThrows(
+                TooManyRequestsException.class,
+                () -> throttle.acquire("A@B.com ", "10.0.0.9"));
+
+        assertEquals(60, error.getRetryAfterSeconds());
+        assertEquals(3, throttle.stats().allowed());
+        assertEquals(1, throttle.stats().rejected());
+    }
+
+    @Test
+    void rejectsAddressOverItsLimit() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("user" + i + "@b.com", "10.0.0.1");
+        }
+
+        assertThrows(TooManyRequestsException.class,
+                () -> throttle.acquire("other@b.com", "10.0.0.1"));
+        assertDoesNotThrow(() -> throttle.acquire("other@b.com", "10.0.0.2"));
+    }
+
+    @Test
+    void previousWindowSlidesOut() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("a@b.com", "10.0.0.1");
+        }
+
+        now.addAndGet(WINDOW);
+        assertThrows(TooManyRequestsException.class,
+                () -> throttle.acquire("a@b.com", "10.0.0.1"));
+
+        now.addAndGet(WINDOW / 2);
+        assertDoesNotThrow(() -> throttle.acquire("a@b.com", "10.0.0.1"));
+
+        now.addAndGet(2 * WINDOW);
+        assertDoesNotThrow(() -> throttle.acquire("a@b.com", "10.0.0.1"));
+    }
+
+    @Test
+    void concurrentAttemptsNeverExceedTheLimitByMuch() throws Exception {
+        LoginThrottle shared =
+                new LoginThrottle(50, 10_000, WINDOW, 1_000, now::get);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    shared.acquire("a@b.com", "10.0.0.1");
+                    allowed.incrementAndGet();
+                } catch (TooManyRequestsException e) {
+                    // expected once the limit is reached
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(allowed.get() >= 50 && allowed.get() <= 58,
+                "allowed " + allowed.get());
+        assertEquals(200, shared.stats().allowed()
+                + shared.stats().rejected());
+    }
+
+    @Test
+    void emailBurstDoesNotLockOutAddresses() {
+        LoginThrottle sized =
+                new LoginThrottle(10, 100, WINDOW, 50_000, now::get);
+        for (int i = 0; i < 20_000; i++) {
+            sized.acquire("user" + i + "@b.com", "10.1." + (i % 250) + ".1");
+        }
+
+        for (int i = 0; i < 100; i++) {
+            String address = "192.168.0." + i;
+            assertDoesNotThrow(() -> sized.acquire("fresh@b.com" + address,
+                    address));
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LoginThrottle(0, 5, WINDOW, 1_000, now::get));
+    }
+}
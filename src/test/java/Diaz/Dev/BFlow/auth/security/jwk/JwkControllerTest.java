@@ -0,0 +1,62 @@
+package Diaz.Dev.BFlow.auth.security.jwk;
+
+import bflow.auth.security.jwk.JwkController;
+import bflow.auth.security.jwk.JwkService;
+import bflow.auth.security.jwk.JwksDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwkControllerTest {
+
+    private static final String ETAG = "\"abc123\"";
+
+    private JwkController controller;
+
+    @BeforeEach
+    void setup() {
+        JwkService service = mock(JwkService.class);
+        when(service.getJwksDocument()).thenReturn(new JwksDocument(
+                "{\"keys\":[]}".getBytes(StandardCharsets.UTF_8), ETAG, 1));
+        controller = new JwkController(service, 300_000);
+    }
+
+    @Test
+    void servesBodyWithEtagAndCacheControl() {
+        MockHttpServletRequest request =
+                new MockHttpServletRequest("GET", "/.well-known/jwks.json");
+
+        ResponseEntity<byte[]> response = controller.keys(
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getCacheControl()
+                .contains("max-age=300"));
+        assertEquals("{\"keys\":[]}",
+                new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void answersNotModifiedForMatchingEtag() {
+        MockHttpServletRequest request =
+                new MockHttpServletRequest("GET", "/.well-known/jwks.json");
+        request.addHeader("If-None-Match", ETAG);
+
+        ResponseEntity<byte[]> response = controller.keys(
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+}
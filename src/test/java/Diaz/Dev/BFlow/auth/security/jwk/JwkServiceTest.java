@@ -1,9 +1,12 @@
 package Diaz.Dev.BFlow.auth.security.jwk;
 
 import bflow.auth.security.jwk.JwkServiceImpl;
+import bflow.auth.security.jwk.JwksDocument;
 import bflow.auth.security.jwt.RsaKeyProvider;
+import bflow.auth.security.jwt.SigningKey;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,4 +29,37 @@ class JwkServiceTest {
         assertNotNull(first.get("n"));
         assertNotNull(first.get("e"));
     }
+
+    @Test
+    void jwksDocumentIsReusedUntilRotation() {
+        RsaKeyProvider provider = new RsaKeyProvider();
+        JwkServiceImpl service = new JwkServiceImpl(provider);
+
+        JwksDocument first = service.getJwksDocument();
+        assertSame(first, service.getJwksDocument());
+        assertTrue(first.etag().startsWith("\""));
+
+        provider.rotate();
+
+        JwksDocument second = service.getJwksDocument();
+        assertNotSame(first, second);
+        assertNotEquals(first.etag(), second.etag());
+        assertTrue(second.version() > first.version());
+    }
+
+    @Test
+    void jwksListsKeysInActivationOrder() {
+        RsaKeyProvider provider = new RsaKeyProvider();
+        provider.rotate();
+        provider.rotate();
+        JwkServiceImpl service = new JwkServiceImpl(provider);
+
+        var keys = (List<Map<String, Object>>) service.getJwks().get("keys");
+
+        List<String> expected = provider.getKeySet().ordered().stream()
+                .map(SigningKey::kid)
+                .toList();
+        assertEquals(expected, keys.stream().map(k -> k.get("kid")).toList());
+        assertEquals(3, keys.size());
+    }
 }
@@ -0,0 +1,133 @@
+package Diaz.Dev.BFlow.auth.security.jwt;
+
+import bflow.auth.entities.JwtSigningKey;
+import bflow.auth.repository.RepositorySigningKey;
+import bflow.auth.security.jwt.JpaSigningKeyStore;
+import bflow.auth.security.jwt.JwtServiceImpl;
+import bflow.auth.security.jwt.RsaKeyPool;
+import bflow.auth.security.jwt.RsaKeyProvider;
+import bflow.auth.security.jwt.SigningAlgorithm;
+import bflow.auth.security.jwt.SigningKey;
+import bflow.auth.security.jwt.VerifiedTokenCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JpaSigningKeyStoreTest {
+
+    private static final String SECRET = "test-key-encryption-secret";
+
+    private final List<JwtSigningKey> rows = new ArrayList<>();
+
+    private RepositorySigningKey repository() {
+        RepositorySigningKey repository = mock(RepositorySigningKey.class);
+        when(repository.findAll()).thenAnswer(inv -> List.copyOf(rows));
+        when(repository.insertIfAbsent(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(inv -> {
+                    String kid = inv.getArgument(0);
+                    if (rows.stream().anyMatch(r -> r.getKid().equals(kid))) {
+                        return 0;
+                    }
+                    JwtSigningKey row = new JwtSigningKey();
+                    row.setKid(kid);
+                    row.setAlgorithm(inv.getArgument(1));
+                    row.setPublicKey(inv.getArgument(2));
+                    row.setEncryptedPrivateKey(inv.getArgument(3));
+                    row.setActivatedAt(inv.getArgument(4));
+                    row.setCreatedAt(inv.getArgument(5));
+                    rows.add(row);
+                    return 1;
+                });
+        return repository;
+    }
+
+    @ParameterizedTest
+    @EnumSource(SigningAlgorithm.class)
+    void tokensSignedOnOneNodeVerifyOnAnother(SigningAlgorithm algorithm) {
+        RsaKeyPool pool = new RsaKeyPool(algorithm, 1);
+        RsaKeyProvider first = new RsaKeyProvider(
+                pool, new JpaSigningKeyStore(repository(), SECRET), 30_000);
+        RsaKeyProvider second = new RsaKeyProvider(
+                pool, new JpaSigningKeyStore(repository(), SECRET), 30_000);
+
+        String token = new JwtServiceImpl(first, new VerifiedTokenCache())
+                .generateToken(UUID.randomUUID(), "node@bflow.com", List.of("USER"));
+
+        assertEquals(1, rows.size());
+        assertTrue(new JwtServiceImpl(second, new VerifiedTokenCache())
+                .verify(token).isPresent());
+        pool.shutdown();
+    }
+
+    @Test
+    void nodesCreatingTheFirstKeyTogetherSignWithTheStoredOne() {
+        RsaKeyPool pool = new RsaKeyPool(1);
+        RsaKeyProvider first = new RsaKeyProvider(
+                pool, new JpaSigningKeyStore(bootingTogether(), SECRET), 30_000);
+        RsaKeyProvider second = new RsaKeyProvider(
+                pool, new JpaSigningKeyStore(bootingTogether(), SECRET), 30_000);
+
+        assertEquals(1, rows.size());
+        assertArrayEquals(first.getActiveKey().privateKey().getEncoded(),
+                second.getActiveKey().privateKey().getEncoded());
+        String token = new JwtServiceImpl(second, new VerifiedTokenCache())
+                .generateToken(UUID.randomUUID(), "race@bflow.com", List.of("USER"));
+        assertTrue(new JwtServiceImpl(first, new VerifiedTokenCache())
+                .verify(token).isPresent());
+        pool.shutdown();
+    }
+
+    /** A repository whose first read misses keys inserted meanwhile. */
+    private RepositorySigningKey bootingTogether() {
+        RepositorySigningKey repository = repository();
+        when(repository.findAll())
+                .thenReturn(List.of())
+                .thenAnswer(inv -> List.copyOf(rows));
+        return repository;
+    }
+
+    @Test
+    void privateKeyIsNotStoredInPlainText() {
+        RsaKeyPool pool = new RsaKeyPool(1);
+        SigningKey key = new RsaKeyProvider(
+                pool, new JpaSigningKeyStore(repository(), SECRET), 30_000)
+                .getActiveKey();
+
+        String plain = Base64.getEncoder()
+                .encodeToString(key.privateKey().getEncoded());
+        assertNotEquals(plain, rows.get(0).getEncryptedPrivateKey());
+        pool.shutdown();
+    }
+
+    @Test
+    void wrongSecretOrMovedCiphertextFailsToDecrypt() {
+        RsaKeyPool pool = new RsaKeyPool(1);
+        new RsaKeyProvider(
+                pool, new JpaSigningKeyStore(repository(), SECRET), 30_000);
+
+        assertThrows(IllegalStateException.class,
+                () -> new JpaSigningKeyStore(repository(), "other").loadAll());
+
+        rows.get(0).setKid("key-copied");
+        assertThrows(IllegalStateException.class,
+                () -> new JpaSigningKeyStore(repository(), SECRET).loadAll());
+        pool.shutdown();
+    }
+
+    @Test
+    void missingSecretFailsFast() {
+        IllegalStateException error = assertThrows(
+                IllegalStateException.class,
+                () -> new JpaSigningKeyStore(repository(), " "));
+        assertTrue(error.getMessage().contains("JWT_KEY_SECRET"));
+    }
+}
@@ -1,6 +1,7 @@
 package Diaz.Dev.BFlow.auth.security.jwt;
 
 import bflow.auth.security.jwt.JwtAuthenticationFilter;
+import bflow.auth.security.jwt.JwtPrincipal;
 import bflow.auth.security.jwt.JwtService;
 import jakarta.servlet.FilterChain;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,7 +10,9 @@ import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -44,7 +47,7 @@ public class JwtAuthenticationFilterTest {
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.setCookies(new jakarta.servlet.http.Cookie("access_token", "bad-token"));
 
-        when(jwtService.validateToken("bad-token")).thenReturn(false);
+        when(jwtService.verify("bad-token")).thenReturn(Optional.empty());
 
         MockHttpServletResponse response = new MockHttpServletResponse();
         FilterChain chain = mock(FilterChain.class);
@@ -59,10 +62,14 @@ public class JwtAuthenticationFilterTest {
     void should_authenticate_when_token_is_valid() throws Exception {
         UUID userId = UUID.randomUUID();
 
-        when(jwtService.validateToken("good-token")).thenReturn(true);
-        when(jwtService.extractUserId("good-token")).thenReturn(userId);
-        when(jwtService.extractEmail("good-token")).thenReturn("test@bflow.dev");
-        when(jwtService.extractRoles("good-token")).thenReturn(List.of("USER", "ADMIN"));
+        when(jwtService.verify("good-token")).thenReturn(Optional.of(
+                new JwtPrincipal(
+                        userId,
+                        "test@bflow.dev",
+                        List.of("USER", "ADMIN"),
+                        Instant.now().plusSeconds(3600),
+                        "test-kid"
+                )));
 
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.setCookies(new jakarta.servlet.http.Cookie("access_token", "good-token"));
@@ -84,6 +91,8 @@ public class JwtAuthenticationFilterTest {
                 .isInstanceOfAny(java.util.Map.class);
 
         verify(chain).doFilter(request, response);
+        verify(jwtService, times(1)).verify("good-token");
+        verifyNoMoreInteractions(jwtService);
     }
 
 }
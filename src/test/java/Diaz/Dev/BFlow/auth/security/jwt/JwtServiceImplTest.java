@@ -1,13 +1,17 @@
 package Diaz.Dev.BFlow.auth.security.jwt;
 
+import bflow.auth.security.jwt.JwtPrincipal;
 import bflow.auth.security.jwt.JwtServiceImpl;
 import bflow.auth.security.jwt.RsaKeyPair;
 import bflow.auth.security.jwt.RsaKeyProvider;
+import bflow.auth.security.jwt.SigningKey;
+import bflow.auth.security.jwt.VerifiedTokenCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
@@ -15,6 +19,8 @@ import java.security.interfaces.RSAPublicKey;
 import java.util.List;
 import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,11 +29,16 @@ class JwtServiceImplTest {
     @Mock
     private RsaKeyProvider rsaKeyProvider;
 
+    @Spy
+    private VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+
     @InjectMocks
     private JwtServiceImpl jwtService;
 
     private RsaKeyPair rsaKeyPair;
 
+    private SigningKey signingKey;
+
     @BeforeEach
     void setUp() throws Exception {
         KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
@@ -39,13 +50,14 @@ class JwtServiceImplTest {
                 keyPair.getPrivate(),
                 (RSAPublicKey) keyPair.getPublic()
         );
+        signingKey = SigningKey.rs256(rsaKeyPair);
     }
 
     @Test
     void shouldGenerateAndValidateToken() {
-        when(rsaKeyProvider.getActive()).thenReturn(rsaKeyPair);
-        when(rsaKeyProvider.getPublicKey("test-kid"))
-                .thenReturn(rsaKeyPair.publicKey());
+        when(rsaKeyProvider.getActiveKey()).thenReturn(signingKey);
+        when(rsaKeyProvider.getKey("test-kid"))
+                .thenReturn(signingKey);
 
         UUID userId = UUID.randomUUID();
         String email = "test@bflow.com";
@@ -59,7 +71,7 @@ class JwtServiceImplTest {
 
     @Test
     void shouldExtractClaimsCorrectly() {
-        when(rsaKeyProvider.getActive()).thenReturn(rsaKeyPair);
+        when(rsaKeyProvider.getActiveKey()).thenReturn(signingKey);
 
         UUID userId = UUID.randomUUID();
         String email = "claims@bflow.com";
@@ -72,6 +84,69 @@ class JwtServiceImplTest {
         assertEquals(roles, jwtService.extractRoles(token));
     }
 
+    @Test
+    void shouldVerifyTokenIntoPrincipal() {
+        when(rsaKeyProvider.getActiveKey()).thenReturn(signingKey);
+        when(rsaKeyProvider.getKey("test-kid"))
+                .thenReturn(signingKey);
+
+        UUID userId = UUID.randomUUID();
+        String token = jwtService.generateToken(
+                userId,
+                "principal@bflow.com",
+                List.of("USER", "ADMIN")
+        );
+
+        JwtPrincipal principal = jwtService.verify(token).orElseThrow();
+
+        assertEquals(userId, principal.userId());
+        assertEquals("principal@bflow.com", principal.email());
+        assertEquals(List.of("USER", "ADMIN"), principal.roles());
+        assertEquals("test-kid", principal.kid());
+        assertTrue(principal.expiresAt().isAfter(java.time.Instant.now()));
+    }
+
+    @Test
+    void shouldSkipSignatureCheckOnCacheHit() {
+        when(rsaKeyProvider.getActiveKey()).thenReturn(signingKey);
+        when(rsaKeyProvider.getKey("test-kid"))
+                .thenReturn(signingKey);
+        when(rsaKeyProvider.hasKey("test-kid")).thenReturn(true);
+
+        String token = jwtService.generateToken(
+                UUID.randomUUID(),
+                "cached@bflow.com",
+                List.of("USER")
+        );
+
+        assertTrue(jwtService.verify(token).isPresent());
+        assertTrue(jwtService.verify(token).isPresent());
+        assertTrue(jwtService.verify(token).isPresent());
+
+        verify(rsaKeyProvider, times(1)).getKey("test-kid");
+        assertEquals(2, verifiedTokenCache.stats().hits());
+        assertEquals(1, verifiedTokenCache.stats().misses());
+    }
+
+    @Test
+    void shouldReverifyWhenKidIsRotatedOut() {
+        when(rsaKeyProvider.getActiveKey()).thenReturn(signingKey);
+        when(rsaKeyProvider.getKey("test-kid"))
+                .thenReturn(signingKey)
+                .thenThrow(new SecurityException("Unknown kid"));
+        when(rsaKeyProvider.hasKey("test-kid")).thenReturn(false);
+
+        String token = jwtService.generateToken(
+                UUID.randomUUID(),
+                "rotated@bflow.com",
+                List.of("USER")
+        );
+
+        assertTrue(jwtService.verify(token).isPresent());
+        assertTrue(jwtService.verify(token).isEmpty());
+        assertEquals(0, verifiedTokenCache.stats().size());
+    }
+
     @Test
     void shouldRejectInvalidToken() {
         assertFalse(jwtService.validateToken("this.is.not.a.jwt"));
@@ -79,9 +154,9 @@ class JwtServiceImplTest {
 
     @Test
     void shouldRejectTamperedToken() {
-        when(rsaKeyProvider.getActive()).thenReturn(rsaKeyPair);
-        when(rsaKeyProvider.getPublicKey("test-kid"))
-                .thenReturn(rsaKeyPair.publicKey());
+        when(rsaKeyProvider.getActiveKey()).thenReturn(signingKey);
+        when(rsaKeyProvider.getKey("test-kid"))
+                .thenReturn(signingKey);
 
         String token = jwtService.generateToken(
                 UUID.randomUUID(),
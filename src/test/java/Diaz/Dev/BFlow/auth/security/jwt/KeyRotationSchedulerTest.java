@@ -0,0 +1,61 @@
+package Diaz.Dev.BFlow.auth.security.jwt;
+
+import bflow.auth.security.jwt.JwtService;
+import bflow.auth.security.jwt.KeyRotationScheduler;
+import bflow.auth.security.jwt.KeyRotationStats;
+import bflow.auth.security.jwt.RsaKeyPool;
+import bflow.auth.security.jwt.RsaKeyProvider;
+import bflow.auth.security.jwt.VerifiedTokenCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class KeyRotationSchedulerTest {
+
+    private final RsaKeyPool pool = new RsaKeyPool(1);
+
+    private final RsaKeyProvider provider = new RsaKeyProvider(pool);
+
+    private final JwtService jwtService = mock(JwtService.class);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void rotatesOnlyOncePerInterval() {
+        when(jwtService.getAccessTokenTtlSeconds()).thenReturn(3600L);
+        KeyRotationScheduler scheduler = new KeyRotationScheduler(
+                provider, jwtService, new VerifiedTokenCache(), 1);
+        String initialKid = provider.getActiveKey().kid();
+
+        scheduler.run();
+
+        KeyRotationStats stats = scheduler.stats();
+        assertEquals(1, stats.rotations());
+        assertNotEquals(initialKid, stats.activeKid());
+        assertEquals(2, stats.keys());
+        assertEquals(0, stats.retired());
+
+        KeyRotationScheduler daily = new KeyRotationScheduler(
+                provider, jwtService, new VerifiedTokenCache(), 86_400_000);
+        daily.run();
+        assertEquals(0, daily.stats().rotations());
+    }
+
+    @Test
+    void disabledIntervalNeverRotates() {
+        when(jwtService.getAccessTokenTtlSeconds()).thenReturn(3600L);
+        KeyRotationScheduler scheduler = new KeyRotationScheduler(
+                provider, jwtService, new VerifiedTokenCache(), 0);
+        String initialKid = provider.getActiveKey().kid();
+
+        scheduler.run();
+
+        assertEquals(initialKid, provider.getActiveKey().kid());
+        assertEquals(0, scheduler.stats().rotations());
+    }
+}
@@ -0,0 +1,83 @@
+package Diaz.Dev.BFlow.auth.security.jwt;
+
+import bflow.auth.security.jwt.KeySet;
+import bflow.auth.security.jwt.SigningKey;
+import com.nimbusds.jose.JWSAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeySetTest {
+
+    private static final Instant NOW = Instant.parse("2026-06-01T12:00:00Z");
+
+    private static SigningKey key(String kid, Instant activatedAt) {
+        return new SigningKey(kid, JWSAlgorithm.RS256, null, null, null, null, activatedAt);
+    }
+
+    @Test
+    void activeKeyIsLatestActivatedAndPendingKeysOnlyVerify() {
+        KeySet keySet = KeySet.of(List.of(
+                key("old", NOW.minus(Duration.ofDays(2))),
+                key("current", NOW.minus(Duration.ofDays(1))),
+                key("pending", NOW.plusSeconds(60))
+        ), NOW, 1);
+
+        assertEquals("current", keySet.activeKid());
+        assertEquals(3, keySet.keys().size());
+        assertEquals("pending", KeySet.of(keySet.keys().values(),
+                NOW.plusSeconds(61), 2).activeKid());
+    }
+
+    @Test
+    void keysAreRetiredOnlyAfterTheirSuccessorPassedTheCutoff() {
+        KeySet keySet = KeySet.of(List.of(
+                key("first", NOW.minus(Duration.ofHours(30))),
+                key("second", NOW.minus(Duration.ofHours(6))),
+                key("third", NOW.minus(Duration.ofMinutes(30)))
+        ), NOW, 1);
+
+        Instant cutoff = NOW.minus(Duration.ofHours(1));
+        List<String> retirable = keySet.retirableBefore(cutoff);
+
+        assertEquals(List.of("first"), retirable);
+        assertEquals(List.of(), keySet.retirableBefore(
+                NOW.minus(Duration.ofDays(2))));
+        assertEquals(List.of("first", "second"),
+                keySet.retirableBefore(NOW));
+    }
+
+    @Test
+    void withoutNeverDropsTheActiveKey() {
+        KeySet keySet = KeySet.of(List.of(
+                key("first", NOW.minus(Duration.ofHours(2))),
+                key("second", NOW.minus(Duration.ofHours(1)))
+        ), NOW, 1);
+
+        KeySet next = keySet.without(List.of("first", "second"));
+
+        assertEquals(List.of("second"), List.copyOf(next.keys().keySet()));
+        assertEquals(2, next.version());
+        assertSame(next, next.without(List.of("second")));
+    }
+
+    @Test
+    void reconcileKeepsKnownInstancesAndSkipsUnchangedStores() {
+        SigningKey first = key("first", NOW.minusSeconds(10));
+        KeySet keySet = KeySet.of(first);
+
+        assertSame(keySet, keySet.reconcile(
+                List.of(key("first", NOW.minusSeconds(10))), NOW));
+
+        KeySet next = keySet.reconcile(List.of(
+                key("first", NOW.minusSeconds(10)),
+                key("second", NOW.minusSeconds(5))
+        ), NOW);
+        assertSame(first, next.keys().get("first"));
+        assertEquals("second", next.activeKid());
+    }
+}
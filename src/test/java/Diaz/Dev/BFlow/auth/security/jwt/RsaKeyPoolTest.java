@@ -0,0 +1,63 @@
+package Diaz.Dev.BFlow.auth.security.jwt;
+
+import bflow.auth.security.jwt.RsaKeyPool;
+import bflow.auth.security.jwt.RsaKeyPoolStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RsaKeyPoolTest {
+
+    private RsaKeyPool pool;
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private void awaitDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (pool.stats().depth() < depth
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void fillsInBackgroundAndRefillsAfterTake() throws Exception {
+        pool = new RsaKeyPool(2);
+        awaitDepth(2);
+
+        KeyPair first = pool.take();
+        assertInstanceOf(RSAPublicKey.class, first.getPublic());
+
+        awaitDepth(2);
+        RsaKeyPoolStats stats = pool.stats();
+        assertEquals(2, stats.depth());
+        assertEquals(2, stats.capacity());
+        assertEquals(0, stats.misses());
+        assertTrue(stats.generated() >= 3);
+    }
+
+    @Test
+    void generatesInlineWhenEmpty() {
+        pool = new RsaKeyPool(1);
+        pool.shutdown();
+
+        KeyPair a = pool.take();
+        KeyPair b = pool.take();
+
+        assertNotEquals(a.getPublic(), b.getPublic());
+        assertTrue(pool.stats().misses() >= 1);
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        pool = new RsaKeyPool(1);
+        assertThrows(IllegalArgumentException.class, () -> new RsaKeyPool(0));
+    }
+}
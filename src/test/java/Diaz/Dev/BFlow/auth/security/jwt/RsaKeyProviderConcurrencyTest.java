@@ -0,0 +1,76 @@
+package Diaz.Dev.BFlow.auth.security.jwt;
+
+import bflow.auth.security.jwt.JwtServiceImpl;
+import bflow.auth.security.jwt.RsaKeyProvider;
+import bflow.auth.security.jwt.VerifiedTokenCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RsaKeyProviderConcurrencyTest {
+
+    private static final int WORKERS = 8;
+    private static final int ROTATIONS = 5;
+
+    @Test
+    void rotationDuringSignAndVerifyNeverRejectsValidTokens()
+            throws Exception {
+        RsaKeyProvider provider = new RsaKeyProvider();
+        JwtServiceImpl jwtService =
+                new JwtServiceImpl(provider, new VerifiedTokenCache());
+
+        String issuedBeforeRotation = jwtService.generateToken(
+                UUID.randomUUID(), "before@bflow.com", List.of("USER"));
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong operations = new AtomicLong();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+
+        for (int i = 0; i < WORKERS; i++) {
+            pool.submit(() -> {
+                while (running.get()) {
+                    try {
+                        String token = jwtService.generateToken(
+                                UUID.randomUUID(),
+                                "stress@bflow.com",
+                                List.of("USER")
+                        );
+                        if (jwtService.verify(token).isEmpty()) {
+                            failures.add(new AssertionError(
+                                    "Valid token rejected"));
+                        }
+                        operations.incrementAndGet();
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                }
+            });
+        }
+
+        for (int i = 0; i < ROTATIONS; i++) {
+            provider.rotate();
+            Thread.sleep(50);
+        }
+
+        running.set(false);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertTrue(failures.isEmpty(), () -> "Failures: " + failures);
+        assertTrue(operations.get() > 0);
+        assertEquals(ROTATIONS + 1, provider.getKeySet().keys().size());
+        assertEquals(ROTATIONS + 1, provider.getKeySet().version());
+        assertTrue(jwtService.verify(issuedBeforeRotation).isPresent());
+    }
+}
@@ -1,8 +1,15 @@
 package Diaz.Dev.BFlow.auth.security.jwt;
 
+import bflow.auth.security.jwt.InMemorySigningKeyStore;
+import bflow.auth.security.jwt.RsaKeyPool;
 import bflow.auth.security.jwt.RsaKeyProvider;
+import bflow.auth.security.jwt.SigningKey;
+import bflow.auth.security.jwt.SigningKeyStore;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class RsaKeyProviderTest {
@@ -11,16 +18,134 @@ class RsaKeyProviderTest {
     void rotateAddsNewKeyAndChangesActive() {
         RsaKeyProvider provider = new RsaKeyProvider();
 
-        var before = provider.getAll();
-        var activeBefore = provider.getActive();
+        var before = provider.getKeySet().keys();
+        var activeBefore = provider.getActiveKey();
 
         provider.rotate();
 
-        var after = provider.getAll();
-        var activeAfter = provider.getActive();
+        var after = provider.getKeySet().keys();
+        var activeAfter = provider.getActiveKey();
 
         assertTrue(after.size() >= before.size());
         assertNotEquals(activeBefore.kid(), activeAfter.kid());
         assertTrue(after.containsKey(activeAfter.kid()));
     }
+
+    @Test
+    void signerAndVerifierAreReusedUntilRotation() {
+        RsaKeyProvider provider = new RsaKeyProvider();
+
+        SigningKey first = provider.getActiveKey();
+        assertSame(first.signer(), provider.getActiveKey().signer());
+        assertSame(first.verifier(), provider.getKey(first.kid()).verifier());
+
+        provider.rotate();
+
+        SigningKey second = provider.getActiveKey();
+        assertNotSame(first.signer(), second.signer());
+        assertSame(first.verifier(), provider.getKey(first.kid()).verifier());
+    }
+
+    private static SigningKeyStore sharedStore() {
+        InMemorySigningKeyStore delegate = new InMemorySigningKeyStore();
+        return new SigningKeyStore() {
+            @Override
+            public List<SigningKey> loadAll() {
+                return delegate.loadAll();
+            }
+
+            @Override
+            public void save(SigningKey key) {
+                delegate.save(key);
+            }
+
+            @Override
+            public void delete(String kid) {
+                delegate.delete(kid);
+            }
+
+            @Override
+            public boolean shared() {
+                return true;
+            }
+        };
+    }
+
+    @Test
+    void nodesSharingAStoreSignWithTheSameKey() {
+        SigningKeyStore store = sharedStore();
+        RsaKeyProvider first = new RsaKeyProvider(new RsaKeyPool(1), store, 30_000);
+        RsaKeyProvider second = new RsaKeyProvider(new RsaKeyPool(1), store, 30_000);
+
+        assertEquals(first.getActiveKey().kid(), second.getActiveKey().kid());
+        assertEquals(1, store.loadAll().size());
+    }
+
+    @Test
+    void rotationIsVisibleToOtherNodesBeforeItActivates() {
+        SigningKeyStore store = sharedStore();
+        RsaKeyProvider first = new RsaKeyProvider(new RsaKeyPool(1), store, 30_000);
+        RsaKeyProvider second = new RsaKeyProvider(new RsaKeyPool(1), store, 30_000);
+        String initialKid = first.getActiveKey().kid();
+
+        first.rotate();
+
+        String newKid = store.loadAll().stream()
+                .map(SigningKey::kid)
+                .filter(kid -> !kid.equals(initialKid))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(initialKid, first.getActiveKey().kid());
+        assertTrue(first.hasKey(newKid));
+        assertFalse(second.hasKey(newKid));
+
+        long version = second.getKeySet().version();
+        second.refresh();
+
+        assertTrue(second.hasKey(newKid));
+        assertEquals(initialKid, second.getActiveKey().kid());
+        assertEquals(version + 1, second.getKeySet().version());
+
+        second.refresh();
+        assertEquals(version + 1, second.getKeySet().version());
+    }
+
+    @Test
+    void rotatedKeyActivatesAfterTheJwksMaxAge() {
+        RsaKeyProvider provider = new RsaKeyProvider(new RsaKeyPool(1),
+                new InMemorySigningKeyStore(), 30_000, 300_000);
+        String initialKid = provider.getActiveKey().kid();
+        Instant rotatedAt = Instant.now();
+
+        provider.rotate();
+
+        SigningKey rotated = provider.getKeySet().ordered().get(1);
+        assertEquals(initialKid, provider.getActiveKey().kid());
+        assertFalse(rotated.activatedAt().isBefore(
+                rotatedAt.plusSeconds(300)));
+    }
+
+    @Test
+    void sharedStoreWaitsForTheLongerOfSyncAndMaxAge() {
+        RsaKeyProvider provider = new RsaKeyProvider(
+                new RsaKeyPool(1), sharedStore(), 600_000, 300_000);
+        Instant rotatedAt = Instant.now();
+
+        provider.rotate();
+
+        SigningKey rotated = provider.getKeySet().ordered().get(1);
+        assertFalse(rotated.activatedAt().isBefore(
+                rotatedAt.plusSeconds(1200)));
+    }
+
+    @Test
+    void restartReusesStoredKeys() {
+        SigningKeyStore store = sharedStore();
+        String kid = new RsaKeyProvider(new RsaKeyPool(1), store, 30_000)
+                .getActiveKey().kid();
+
+        RsaKeyProvider restarted = new RsaKeyProvider(new RsaKeyPool(1), store, 30_000);
+
+        assertEquals(kid, restarted.getActiveKey().kid());
+    }
 }
@@ -0,0 +1,96 @@
+package Diaz.Dev.BFlow.auth.security.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.util.Base64URL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RS256 sign and verify throughput with a signer and verifier built per
+ * call, as JwtServiceImpl did before, against the shared per-key
+ * instances. Run it at several thread counts:
+ *
+ * <p>{@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark="SignerReuseBenchmark -t 8"}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignerReuseBenchmark {
+
+    private static final JWSHeader HEADER =
+            new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("bench").build();
+
+    private PrivateKey privateKey;
+
+    private RSAPublicKey publicKey;
+
+    private JWSSigner signer;
+
+    private JWSVerifier verifier;
+
+    private byte[] signingInput;
+
+    private Base64URL signature;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keys = generator.generateKeyPair();
+        privateKey = keys.getPrivate();
+        publicKey = (RSAPublicKey) keys.getPublic();
+        signer = new RSASSASigner(privateKey);
+        verifier = new RSASSAVerifier(publicKey);
+
+        Payload payload = new Payload("{\"sub\":\"bench\",\"roles\":[\"USER\"]}");
+        signingInput = (HEADER.toBase64URL() + "." + payload.toBase64URL())
+                .getBytes(StandardCharsets.US_ASCII);
+        signature = signer.sign(HEADER, signingInput);
+    }
+
+    @Benchmark
+    public Base64URL signNewPerCall() throws Exception {
+        return new RSASSASigner(privateKey).sign(HEADER, signingInput);
+    }
+
+    @Benchmark
+    public Base64URL signReused() throws Exception {
+        return signer.sign(HEADER, signingInput);
+    }
+
+    @Benchmark
+    public boolean verifyNewPerCall() throws Exception {
+        return new RSASSAVerifier(publicKey)
+                .verify(HEADER, signingInput, signature);
+    }
+
+    @Benchmark
+    public boolean verifyReused() throws Exception {
+        return verifier.verify(HEADER, signingInput, signature);
+    }
+}
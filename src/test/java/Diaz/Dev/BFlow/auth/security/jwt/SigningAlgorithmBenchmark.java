@@ -0,0 +1,83 @@
+package Diaz.Dev.BFlow.auth.security.jwt;
+
+import bflow.auth.security.jwt.JwtServiceImpl;
+import bflow.auth.security.jwt.RsaKeyPool;
+import bflow.auth.security.jwt.RsaKeyProvider;
+import bflow.auth.security.jwt.SigningAlgorithm;
+import bflow.auth.security.jwt.SigningKey;
+import bflow.auth.security.jwt.VerifiedTokenCache;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token signing and verification throughput for each
+ * {@link SigningAlgorithm}. The serialized token size, which travels in
+ * the access_token cookie, is printed once per algorithm.
+ *
+ * <p>{@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark=SigningAlgorithmBenchmark}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SigningAlgorithmBenchmark {
+
+    private static final UUID USER_ID =
+            UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Param({"RS256", "ES256", "ED25519"})
+    private SigningAlgorithm algorithm;
+
+    private RsaKeyPool pool;
+
+    private JwtServiceImpl jwtService;
+
+    private SigningKey key;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        pool = new RsaKeyPool(algorithm, 1);
+        RsaKeyProvider provider = new RsaKeyProvider(pool);
+        jwtService = new JwtServiceImpl(provider, new VerifiedTokenCache());
+        key = provider.getActiveKey();
+        token = sign();
+        System.out.println(algorithm + " token size: "
+                + token.length() + " bytes");
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(USER_ID, "bench@bflow.com",
+                List.of("USER"));
+    }
+
+    @Benchmark
+    public boolean verify() throws Exception {
+        return SignedJWT.parse(token).verify(key.verifier());
+    }
+}
@@ -0,0 +1,84 @@
+package Diaz.Dev.BFlow.auth.security.jwt;
+
+import bflow.auth.security.jwk.JwkServiceImpl;
+import bflow.auth.security.jwt.JwtServiceImpl;
+import bflow.auth.security.jwt.RsaKeyPool;
+import bflow.auth.security.jwt.RsaKeyProvider;
+import bflow.auth.security.jwt.SigningAlgorithm;
+import bflow.auth.security.jwt.VerifiedTokenCache;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SigningAlgorithmTest {
+
+    private static JwtServiceImpl jwtService(RsaKeyProvider provider) {
+        return new JwtServiceImpl(provider, new VerifiedTokenCache());
+    }
+
+    private static String token(JwtServiceImpl service) {
+        return service.generateToken(
+                UUID.fromString("00000000-0000-0000-0000-000000000001"),
+                "size@bflow.com",
+                List.of("USER")
+        );
+    }
+
+    @ParameterizedTest
+    @EnumSource(SigningAlgorithm.class)
+    void signsAndVerifiesWithEveryAlgorithm(SigningAlgorithm algorithm) {
+        RsaKeyPool pool = new RsaKeyPool(algorithm, 1);
+        RsaKeyProvider provider = new RsaKeyProvider(pool);
+        JwtServiceImpl service = jwtService(provider);
+
+        String token = token(service);
+
+        assertTrue(service.verify(token).isPresent());
+        assertEquals(algorithm.jwsAlgorithm(),
+                provider.getActiveKey().algorithm());
+
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+        assertFalse(service.validateToken(tampered));
+        pool.shutdown();
+    }
+
+    @Test
+    void ellipticCurveTokensAreSmallerThanRsa() {
+        int rs = token(jwtService(new RsaKeyProvider(
+                new RsaKeyPool(SigningAlgorithm.RS256, 1)))).length();
+        int es = token(jwtService(new RsaKeyProvider(
+                new RsaKeyPool(SigningAlgorithm.ES256, 1)))).length();
+        int ed = token(jwtService(new RsaKeyProvider(
+                new RsaKeyPool(SigningAlgorithm.ED25519, 1)))).length();
+
+        assertTrue(es < rs, "ES256 " + es + " vs RS256 " + rs);
+        assertTrue(ed < rs, "Ed25519 " + ed + " vs RS256 " + rs);
+    }
+
+    @Test
+    void jwksPublishesMatchingKeyTypes() {
+        Map<SigningAlgorithm, String> expected = Map.of(
+                SigningAlgorithm.RS256, "RSA",
+                SigningAlgorithm.ES256, "EC",
+                SigningAlgorithm.ED25519, "OKP"
+        );
+
+        expected.forEach((algorithm, kty) -> {
+            RsaKeyProvider provider = new RsaKeyProvider(
+                    new RsaKeyPool(algorithm, 1));
+            var keys = (List<Map<String, Object>>)
+                    new JwkServiceImpl(provider).getJwks().get("keys");
+
+            assertEquals(kty, keys.get(0).get("kty"));
+            assertEquals(algorithm.jwsAlgorithm().getName(),
+                    keys.get(0).get("alg"));
+            assertFalse(keys.get(0).containsKey("d"));
+        });
+    }
+}
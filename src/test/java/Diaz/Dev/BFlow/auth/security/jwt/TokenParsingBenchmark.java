@@ -0,0 +1,92 @@
+package Diaz.Dev.BFlow.auth.security.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling per authenticated request: verifying the token and then
+ * parsing it again for each claim, as the filter did before, against
+ * verifying it and reading every claim from a single parse.
+ *
+ * <p>{@code mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark=TokenParsingBenchmark}, add {@code -prof gc} to the JMH
+ * arguments for the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenParsingBenchmark {
+
+    private String token;
+
+    private RSASSAVerifier verifier;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keys = generator.generateKeyPair();
+        verifier = new RSASSAVerifier((RSAPublicKey) keys.getPublic());
+
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("bench")
+                        .build(),
+                new JWTClaimsSet.Builder()
+                        .subject(UUID.randomUUID().toString())
+                        .claim("email", "bench@bflow.com")
+                        .claim("roles", List.of("USER"))
+                        .expirationTime(Date.from(
+                                Instant.now().plusSeconds(3600)))
+                        .build());
+        jwt.sign(new RSASSASigner(keys.getPrivate()));
+        token = jwt.serialize();
+    }
+
+    @Benchmark
+    public void parsePerClaim(final Blackhole blackhole) throws Exception {
+        blackhole.consume(SignedJWT.parse(token).verify(verifier));
+        blackhole.consume(SignedJWT.parse(token).getJWTClaimsSet()
+                .getSubject());
+        blackhole.consume(SignedJWT.parse(token).getJWTClaimsSet()
+                .getClaim("email"));
+        blackhole.consume(SignedJWT.parse(token).getJWTClaimsSet()
+                .getClaim("roles"));
+    }
+
+    @Benchmark
+    public void parseOnce(final Blackhole blackhole) throws Exception {
+        SignedJWT jwt = SignedJWT.parse(token);
+        blackhole.consume(jwt.verify(verifier));
+        JWTClaimsSet claims = jwt.getJWTClaimsSet();
+        blackhole.consume(claims.getSubject());
+        blackhole.consume(claims.getStringClaim("email"));
+        blackhole.consume(claims.getStringListClaim("roles"));
+    }
+}
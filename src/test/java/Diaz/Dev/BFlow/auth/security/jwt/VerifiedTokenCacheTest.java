@@ -0,0 +1,76 @@
+package Diaz.Dev.BFlow.auth.security.jwt;
+
+import bflow.auth.security.jwt.JwtPrincipal;
+import bflow.auth.security.jwt.VerifiedTokenCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static JwtPrincipal principal(String kid, Instant expiresAt) {
+        return new JwtPrincipal(
+                UUID.randomUUID(),
+                "cache@bflow.com",
+                List.of("USER"),
+                expiresAt,
+                kid
+        );
+    }
+
+    @Test
+    void returnsStoredPrincipalAndCountsHitsAndMisses() {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        JwtPrincipal p = principal("k1", Instant.now().plusSeconds(60));
+
+        assertTrue(cache.get("token").isEmpty());
+        cache.put("token", p);
+
+        assertEquals(p, cache.get("token").orElseThrow());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void expiredEntriesAreEvictedOnLookup() {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        cache.put("token", principal("k1", Instant.now().minusSeconds(1)));
+
+        assertTrue(cache.get("token").isEmpty());
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void evictKidRemovesOnlyTokensOfThatKey() {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        cache.put("a", principal("old", Instant.now().plusSeconds(60)));
+        cache.put("b", principal("old", Instant.now().plusSeconds(60)));
+        cache.put("c", principal("new", Instant.now().plusSeconds(60)));
+
+        cache.evictKid("old");
+
+        assertTrue(cache.get("a").isEmpty());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+        assertEquals(2, cache.stats().evictions());
+    }
+
+    @Test
+    void sizeNeverExceedsCapacity() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(50);
+
+        for (int i = 0; i < 500; i++) {
+            cache.put("token-" + i,
+                    principal("k1", Instant.now().plusSeconds(60)));
+        }
+
+        assertTrue(cache.stats().size() <= 50);
+        assertTrue(cache.stats().evictions() >= 450);
+        assertTrue(cache.get("token-499").isPresent());
+    }
+}
@@ -7,10 +7,11 @@ import bflow.auth.enums.AuthProvider;
 import bflow.auth.repository.RepositoryAuthAccount;
 import bflow.auth.repository.RepositoryUser;
 import bflow.auth.services.AuthService;
+import bflow.auth.services.KnownEmailFilter;
 import bflow.common.exception.InvalidCredentialsException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -34,9 +35,32 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
-    @InjectMocks
+    @Mock
+    private KnownEmailFilter knownEmailFilter;
+
     private AuthService authService;
 
+    @BeforeEach
+    void setup() {
+        lenient().when(knownEmailFilter.mightContain(anyString()))
+                .thenReturn(true);
+        lenient().when(passwordEncoder.encode(anyString()))
+                .thenReturn("dummy");
+        authService = new AuthService(authAccountRepository, userRepository,
+                passwordEncoder, knownEmailFilter);
+        clearInvocations(passwordEncoder);
+    }
+
+    @Test
+    void dummyHashIsComputedAtStartup() {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+
+        new AuthService(authAccountRepository, userRepository,
+                encoder, knownEmailFilter);
+
+        verify(encoder).encode(anyString());
+    }
+
     @Test
     void authenticate_ok() {
         User user = User.builder()
@@ -107,4 +131,90 @@ class AuthServiceTest {
         verify(userRepository).save(any(User.class));
         verify(authAccountRepository).save(any(AuthAccount.class));
     }
+
+    @Test
+    void authenticate_reencodesOutdatedHash() {
+        User user = User.builder().build();
+        AuthAccount account = AuthAccount.builder()
+                .user(user)
+                .provider(AuthProvider.LOCAL)
+                .passwordHash("old-hash")
+                .enabled(true)
+                .build();
+        when(authAccountRepository.findActiveByLoginAndProvider(
+                "test@test.com",
+                AuthProvider.LOCAL
+        )).thenReturn(Optional.of(account));
+        when(passwordEncoder.matches("password", "old-hash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("password")).thenReturn("new-hash");
+
+        authService.authenticate("test@test.com", "password");
+
+        assertEquals("new-hash", account.getPasswordHash());
+        verify(authAccountRepository).save(account);
+    }
+
+    @Test
+    void authenticate_keepsCurrentHash() {
+        AuthAccount account = AuthAccount.builder()
+                .user(User.builder().build())
+                .provider(AuthProvider.LOCAL)
+                .passwordHash("hashed")
+                .enabled(true)
+                .build();
+        when(authAccountRepository.findActiveByLoginAndProvider(
+                "test@test.com",
+                AuthProvider.LOCAL
+        )).thenReturn(Optional.of(account));
+        when(passwordEncoder.matches("password", "hashed")).thenReturn(true);
+
+        authService.authenticate("test@test.com", "password");
+
+        verify(passwordEncoder, never()).encode(any());
+        verify(authAccountRepository, never()).save(any());
+    }
+
+    @Test
+    void authenticate_unknownEmailSkipsLookupButHashes() {
+        when(knownEmailFilter.mightContain("ghost@test.com"))
+                .thenReturn(false);
+
+        assertThrows(
+                InvalidCredentialsException.class,
+                () -> authService.authenticate("ghost@test.com", "password")
+        );
+
+        verifyNoInteractions(authAccountRepository);
+        verify(passwordEncoder).matches("password", "dummy");
+    }
+
+    @Test
+    void authenticate_missingAccountHashesWithStartupDummy() {
+        when(authAccountRepository.findActiveByLoginAndProvider(
+                "test@test.com",
+                AuthProvider.LOCAL
+        )).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(
+                    InvalidCredentialsException.class,
+                    () -> authService.authenticate("test@test.com", "pw")
+            );
+        }
+
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(passwordEncoder, times(2)).matches("pw", "dummy");
+    }
+
+    @Test
+    void register_addsEmailToFilter() {
+        AuthRegisterRequest dto = new AuthRegisterRequest();
+        dto.setEmail("new@test.com");
+        dto.setPassword("123456");
+
+        authService.register(dto);
+
+        verify(knownEmailFilter).add("new@test.com");
+    }
 }
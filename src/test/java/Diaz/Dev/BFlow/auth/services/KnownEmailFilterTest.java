@@ -0,0 +1,95 @@
+package Diaz.Dev.BFlow.auth.services;
+
+import bflow.auth.repository.RepositoryUser;
+import bflow.auth.services.KnownEmailFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class KnownEmailFilterTest {
+
+    private final RepositoryUser repository = mock(RepositoryUser.class);
+
+    @Test
+    void reportsEverythingUntilLoaded() {
+        KnownEmailFilter filter =
+                new KnownEmailFilter(repository, true, 1000, 0.01);
+
+        assertTrue(filter.mightContain("ghost@test.com"));
+        assertFalse(filter.stats().loaded());
+    }
+
+    @Test
+    void rejectsUnknownEmailsOnceLoaded() {
+        when(repository.findEmailsAfter(eq(""), any(Pageable.class)))
+                .thenReturn(List.of("a@test.com", "b@test.com"));
+        KnownEmailFilter filter =
+                new KnownEmailFilter(repository, true, 1000, 0.01);
+
+        filter.rebuild();
+        filter.add("c@test.com");
+
+        assertTrue(filter.mightContain("a@test.com"));
+        assertTrue(filter.mightContain("b@test.com"));
+        assertTrue(filter.mightContain("c@test.com"));
+        assertFalse(filter.mightContain("ghost@test.com"));
+        assertEquals(2, filter.stats().scannedEmails());
+        assertEquals(1, filter.stats().negatives());
+    }
+
+    @Test
+    void scansTheTableByKeyset() {
+        List<String> first = IntStream.range(0, 5000)
+                .mapToObj(i -> String.format("u%05d@test.com", i))
+                .toList();
+        when(repository.findEmailsAfter(eq(""), any(Pageable.class)))
+                .thenReturn(first);
+        when(repository.findEmailsAfter(eq("u04999@test.com"),
+                any(Pageable.class)))
+                .thenReturn(List.of("z@test.com"));
+        KnownEmailFilter filter =
+                new KnownEmailFilter(repository, true, 10_000, 0.01);
+
+        filter.rebuild();
+
+        assertEquals(5001, filter.stats().scannedEmails());
+        assertTrue(first.stream().allMatch(filter::mightContain));
+        assertTrue(filter.mightContain("z@test.com"));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        List<String> emails = IntStream.range(0, 1000)
+                .mapToObj(i -> "user" + i + "@test.com")
+                .toList();
+        when(repository.findEmailsAfter(eq(""), any(Pageable.class)))
+                .thenReturn(emails);
+        KnownEmailFilter filter =
+                new KnownEmailFilter(repository, true, 1000, 0.01);
+        filter.rebuild();
+
+        long positives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain("other" + i + "@test.com"))
+                .count();
+
+        assertTrue(positives < 300, "false positives " + positives);
+    }
+
+    @Test
+    void disabledFilterNeverRejects() {
+        KnownEmailFilter filter =
+                new KnownEmailFilter(repository, false, 1000, 0.01);
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain("ghost@test.com"));
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,65 @@
+package Diaz.Dev.BFlow.auth.services;
+
+import bflow.auth.DTO.Record.RefreshTokenPurgeStats;
+import bflow.auth.repository.RepositoryRefreshToken;
+import bflow.auth.services.RefreshTokenPurgeJob;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenPurgeJobTest {
+
+    private final RepositoryRefreshToken repository =
+            mock(RepositoryRefreshToken.class);
+
+    @Test
+    void deletesInBatchesUntilAPartialBatch() {
+        when(repository.purgeExpiredBatch(any(), eq(100)))
+                .thenReturn(100, 100, 42);
+        RefreshTokenPurgeJob job =
+                new RefreshTokenPurgeJob(repository, 100, 10_000, 14);
+
+        assertEquals(242, job.purge());
+
+        verify(repository, times(3)).purgeExpiredBatch(any(), eq(100));
+        RefreshTokenPurgeStats stats = job.stats();
+        assertEquals(1, stats.runs());
+        assertEquals(242, stats.lastRunPurged());
+        assertEquals(242, stats.totalPurged());
+        assertNotNull(stats.lastRunAt());
+    }
+
+    @Test
+    void stopsAtThePerRunLimit() {
+        when(repository.purgeExpiredBatch(any(), eq(100))).thenReturn(100);
+        RefreshTokenPurgeJob job =
+                new RefreshTokenPurgeJob(repository, 100, 300, 14);
+
+        assertEquals(300, job.purge());
+        assertEquals(300, job.purge());
+
+        verify(repository, times(6)).purgeExpiredBatch(any(), eq(100));
+        assertEquals(2, job.stats().runs());
+        assertEquals(600, job.stats().totalPurged());
+    }
+
+    @Test
+    void tokensAreKeptForTheRetentionPeriodAfterExpiry() {
+        RefreshTokenPurgeJob job =
+                new RefreshTokenPurgeJob(repository, 100, 300, 7);
+        ArgumentCaptor<Instant> expired = ArgumentCaptor.forClass(Instant.class);
+
+        assertEquals(0, job.purge());
+
+        verify(repository).purgeExpiredBatch(expired.capture(), eq(100));
+        assertEquals(job.stats().lastRunAt().minus(Duration.ofDays(7)),
+                expired.getValue());
+    }
+}
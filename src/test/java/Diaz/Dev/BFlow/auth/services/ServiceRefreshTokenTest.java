@@ -5,9 +5,9 @@ import bflow.auth.entities.RefreshToken;
 import bflow.auth.entities.User;
 import bflow.auth.repository.RepositoryRefreshToken;
 import bflow.auth.services.ServiceRefreshToken;
+import bflow.auth.store.JpaRefreshTokenStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -15,6 +15,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,7 +25,6 @@ class ServiceRefreshTokenTest {
     @Mock
     private RepositoryRefreshToken repository;
 
-    @InjectMocks
     private ServiceRefreshToken service;
 
     private UUID userId;
@@ -34,6 +34,7 @@ class ServiceRefreshTokenTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        service = new ServiceRefreshToken(new JpaRefreshTokenStore(repository));
         userId = UUID.randomUUID();
         rawToken = UUID.randomUUID().toString();
         tokenHash = org.apache.commons.codec.digest.DigestUtils.sha256Hex(rawToken);
@@ -58,25 +59,42 @@ class ServiceRefreshTokenTest {
 
     @Test
     void testRotateToken() {
-        RefreshToken existing = new RefreshToken();
-        existing.setId(UUID.randomUUID());
-        existing.setUserId(userId);
-        existing.setTokenHash(tokenHash);
-        existing.setCreatedAt(Instant.now());
-        existing.setExpiresAt(Instant.now().plusSeconds(86400));
-        existing.setRevoked(false);
-
-        when(repository.findByTokenHash(tokenHash))
-                .thenReturn(Optional.of(existing));
-        when(repository.save(any(RefreshToken.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.rotateByTokenHash(eq(tokenHash), any(UUID.class),
+                anyString(), any(Instant.class), any(Instant.class),
+                any(Instant.class)))
+                .thenReturn(Optional.of(userId));
 
         RefreshRotationResult result = service.rotate(rawToken);
 
         assertNotNull(result);
         assertEquals(userId, result.userId());
         assertNotNull(result.newRefreshToken());
-        verify(repository, times(2)).save(any(RefreshToken.class));
+        verify(repository, never()).findByTokenHash(anyString());
+        verify(repository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void testRotateExpiredTokenRevokesFamily() {
+        RefreshToken expired = new RefreshToken();
+        expired.setUserId(userId);
+        expired.setExpiresAt(Instant.now().minusSeconds(1));
+        when(repository.findByTokenHash(tokenHash))
+                .thenReturn(Optional.of(expired));
+
+        SecurityException error = assertThrows(SecurityException.class,
+                () -> service.rotate(rawToken));
+
+        assertEquals("Expired refresh token", error.getMessage());
+        verify(repository).revokeAllByUserId(userId);
+    }
+
+    @Test
+    void testRotateUnknownTokenThrows() {
+        SecurityException error = assertThrows(SecurityException.class,
+                () -> service.rotate(rawToken));
+
+        assertEquals("Invalid refresh token", error.getMessage());
+        verify(repository, never()).revokeAllByUserId(any());
     }
 
     @Test
@@ -94,21 +112,56 @@ class ServiceRefreshTokenTest {
         assertThrows(SecurityException.class, () -> service.validate(rawToken));
     }
 
+    @Test
+    void testValidateUsesActiveHashLookup() {
+        RefreshToken active = new RefreshToken();
+        active.setId(UUID.randomUUID());
+        active.setUserId(userId);
+
+        when(repository.findByTokenHashAndRevokedFalseAndExpiresAtAfter(
+                eq(tokenHash), any(Instant.class)))
+                .thenReturn(Optional.of(active));
+
+        assertSame(active, service.validate(rawToken));
+        verify(repository, never()).findByTokenHash(anyString());
+    }
+
     @Test
     void testValidRevokeAllForUser() {
-        RefreshToken token1 = new RefreshToken();
-        token1.setId(UUID.randomUUID());
-        token1.setUserId(userId);
-        token1.setRevoked(false);
+        when(repository.revokeAllByUserId(userId)).thenReturn(3);
 
-        when(repository.findAllByUserIdAndRevokedFalse(userId))
-                .thenReturn(List.of(token1));
-        when(repository.save(any(RefreshToken.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        assertEquals(3, service.revokeAll(userId));
 
-        service.revokeAll(userId);
+        verify(repository).revokeAllByUserId(userId);
+        verify(repository, never()).findAllByUserIdAndRevokedFalse(any());
+        verify(repository, never()).save(any(RefreshToken.class));
+    }
 
-        verify(repository).findAllByUserIdAndRevokedFalse(userId);
-        verify(repository).save(any(RefreshToken.class));
+    @Test
+    void testRevokeAllForManyUsersRunsInBatches() {
+        List<UUID> users = IntStream.range(0, 1_200)
+                .mapToObj(i -> UUID.randomUUID())
+                .toList();
+        when(repository.revokeAllByUserIdIn(anyCollection()))
+                .thenAnswer(inv -> inv.<List<UUID>>getArgument(0).size());
+
+        assertEquals(1_200, service.revokeAll(users));
+
+        verify(repository, times(3)).revokeAllByUserIdIn(anyCollection());
+    }
+
+    @Test
+    void testReuseDetectionRevokesInBulk() {
+        RefreshToken revoked = new RefreshToken();
+        revoked.setId(UUID.randomUUID());
+        revoked.setUserId(userId);
+        revoked.setExpiresAt(Instant.now().plusSeconds(60));
+        revoked.setRevoked(true);
+        when(repository.findByTokenHash(tokenHash))
+                .thenReturn(Optional.of(revoked));
+
+        assertThrows(SecurityException.class, () -> service.rotate(rawToken));
+
+        verify(repository).revokeAllByUserId(userId);
     }
 }
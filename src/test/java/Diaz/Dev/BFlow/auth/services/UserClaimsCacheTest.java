@@ -0,0 +1,118 @@
+package Diaz.Dev.BFlow.auth.services;
+
+import bflow.auth.DTO.Record.UserClaims;
+import bflow.auth.entities.User;
+import bflow.auth.repository.RepositoryUser;
+import bflow.auth.services.UserClaimsCache;
+import bflow.auth.services.UserClaimsInvalidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserClaimsCacheTest {
+
+    private final RepositoryUser repository = mock(RepositoryUser.class);
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final UserClaimsCache cache =
+            new UserClaimsCache(repository, 60_000, 100, now::get);
+
+    private final UUID userId = UUID.randomUUID();
+
+    private User user(final boolean enabled, final String role) {
+        return User.builder()
+                .id(userId)
+                .email("a@b.com")
+                .roles(Set.of(role))
+                .enabled(enabled)
+                .build();
+    }
+
+    @Test
+    void servesRepeatedLookupsWithoutQueries() {
+        when(repository.findById(userId))
+                .thenReturn(Optional.of(user(true, "USER")));
+
+        UserClaims first = cache.get(userId);
+        UserClaims second = cache.get(userId);
+
+        assertSame(first, second);
+        assertEquals(List.of("USER"), second.roles());
+        verify(repository, times(1)).findById(userId);
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void userUpdatesInvalidateThroughTheEntityListener() {
+        when(repository.findById(userId))
+                .thenReturn(Optional.of(user(true, "USER")))
+                .thenReturn(Optional.of(user(false, "USER")));
+        cache.get(userId);
+
+        new UserClaimsInvalidator(
+                new StaticListableBeanFactory(Map.of("cache", cache))
+                        .getBeanProvider(UserClaimsCache.class))
+                .userChanged(user(false, "USER"));
+
+        assertFalse(cache.get(userId).enabled());
+        verify(repository, times(2)).findById(userId);
+    }
+
+    @Test
+    void reloadsAfterInvalidation() {
+        when(repository.findById(userId))
+                .thenReturn(Optional.of(user(true, "USER")))
+                .thenReturn(Optional.of(user(false, "ADMIN")));
+        cache.get(userId);
+
+        cache.invalidate(userId);
+        UserClaims reloaded = cache.get(userId);
+
+        assertFalse(reloaded.enabled());
+        assertEquals(List.of("ADMIN"), reloaded.roles());
+        assertEquals(1, cache.stats().invalidations());
+    }
+
+    @Test
+    void reloadsAfterTtl() {
+        when(repository.findById(userId))
+                .thenReturn(Optional.of(user(true, "USER")));
+        cache.get(userId);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        cache.get(userId);
+
+        verify(repository, times(2)).findById(userId);
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsNotCached() {
+        when(repository.findById(userId)).thenAnswer(inv -> {
+            cache.invalidate(userId);
+            return Optional.of(user(true, "USER"));
+        });
+
+        cache.get(userId);
+
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void unknownUserThrows() {
+        when(repository.findById(userId)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> cache.get(userId));
+    }
+}
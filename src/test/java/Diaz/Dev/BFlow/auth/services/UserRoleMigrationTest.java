@@ -0,0 +1,53 @@
+package Diaz.Dev.BFlow.auth.services;
+
+import bflow.auth.repository.RepositoryUser;
+import bflow.auth.services.UserRoleMigration;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class UserRoleMigrationTest {
+
+    private final RepositoryUser repository = mock(RepositoryUser.class);
+
+    private final UserRoleMigration migration = new UserRoleMigration(
+            repository, TransactionOperations.withoutTransaction());
+
+    @Test
+    void foldsRolesUnderTheLockAndDropsTheTable() {
+        when(repository.hasLegacyRoleTable()).thenReturn(true);
+        when(repository.findUnknownLegacyRoles()).thenReturn(List.of());
+
+        migration.migrate();
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).lockRoleMigration();
+        order.verify(repository).foldLegacyRoles();
+        order.verify(repository).dropLegacyRoleTable();
+    }
+
+    @Test
+    void doesNothingOnceTheTableIsGone() {
+        when(repository.hasLegacyRoleTable()).thenReturn(false);
+
+        migration.migrate();
+
+        verify(repository, never()).lockRoleMigration();
+        verify(repository, never()).foldLegacyRoles();
+    }
+
+    @Test
+    void skipsATableAnotherNodeMigratedWhileWaiting() {
+        when(repository.hasLegacyRoleTable()).thenReturn(true, false);
+
+        migration.migrate();
+
+        verify(repository).lockRoleMigration();
+        verify(repository, never()).foldLegacyRoles();
+        verify(repository, never()).dropLegacyRoleTable();
+    }
+}
@@ -0,0 +1,12 @@
+package Diaz.Dev.BFlow.auth.store;
+
+import bflow.auth.store.InMemoryRefreshTokenStore;
+import bflow.auth.store.RefreshTokenStore;
+
+class InMemoryRefreshTokenStoreTest extends RefreshTokenStoreContractTest {
+
+    @Override
+    protected RefreshTokenStore createStore() {
+        return new InMemoryRefreshTokenStore();
+    }
+}
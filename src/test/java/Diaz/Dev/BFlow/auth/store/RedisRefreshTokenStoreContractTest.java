@@ -0,0 +1,54 @@
+package Diaz.Dev.BFlow.auth.store;
+
+import bflow.auth.store.RedisRefreshTokenStore;
+import bflow.auth.store.RefreshTokenStore;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * Runs the store contract against a real Redis server, so every Lua
+ * script of the store is executed.
+ */
+class RedisRefreshTokenStoreContractTest extends RefreshTokenStoreContractTest {
+
+    private static RedisServer server;
+    private static LettuceConnectionFactory connections;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = new RedisServer(port);
+        server.start();
+        connections = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", port));
+        connections.afterPropertiesSet();
+        connections.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connections.destroy();
+        server.stop();
+    }
+
+    @Override
+    protected RefreshTokenStore createStore() {
+        StringRedisTemplate redis = new StringRedisTemplate(connections);
+        redis.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        return new RedisRefreshTokenStore(redis);
+    }
+}
@@ -0,0 +1,94 @@
+package Diaz.Dev.BFlow.auth.store;
+
+import bflow.auth.entities.RefreshToken;
+import bflow.auth.store.RedisRefreshTokenStore;
+import bflow.auth.store.RotationOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RedisRefreshTokenStoreTest {
+
+    private StringRedisTemplate redis;
+    private RedisRefreshTokenStore store;
+
+    @BeforeEach
+    void setup() {
+        redis = mock(StringRedisTemplate.class);
+        store = new RedisRefreshTokenStore(redis);
+    }
+
+    private static RefreshToken token(String hash) {
+        RefreshToken token = new RefreshToken();
+        token.setId(UUID.randomUUID());
+        token.setTokenHash(hash);
+        token.setCreatedAt(Instant.ofEpochMilli(1_000));
+        token.setExpiresAt(Instant.ofEpochMilli(2_000));
+        return token;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rotateRunsOneScriptOverBothTokenKeys() {
+        UUID userId = UUID.randomUUID();
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of("SUCCESS", userId.toString()));
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+
+        RotationOutcome outcome =
+                store.rotate("old", token("new"), Instant.ofEpochMilli(1_500));
+
+        assertEquals(new RotationOutcome(RotationOutcome.Status.SUCCESS, userId), outcome);
+        verify(redis).execute(any(RedisScript.class), keys.capture(), any(Object[].class));
+        assertEquals(List.of("bflow:rt:old", "bflow:rt:new"), keys.getValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scriptStatusesMapToOutcomes() {
+        UUID userId = UUID.randomUUID();
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of("NOT_FOUND", ""))
+                .thenReturn(List.of("REUSED", userId.toString()));
+
+        assertEquals(RotationOutcome.notFound(), store.revoke("x", Instant.now()));
+        assertEquals(RotationOutcome.Status.REUSED,
+                store.revoke("x", Instant.now()).status());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findByHashMapsStoredFields() {
+        HashOperations<String, Object, Object> hashes = mock(HashOperations.class);
+        when(redis.opsForHash()).thenReturn(hashes);
+        UUID id = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        when(hashes.entries("bflow:rt:h")).thenReturn(Map.of(
+                "id", id.toString(),
+                "userId", userId.toString(),
+                "createdAt", "1000",
+                "expiresAt", "2000",
+                "revoked", "1"
+        ));
+
+        RefreshToken token = store.findByHash("h").orElseThrow();
+
+        assertEquals(id, token.getId());
+        assertEquals(userId, token.getUserId());
+        assertTrue(token.isRevoked());
+        assertEquals(Instant.ofEpochMilli(2_000), token.getExpiresAt());
+        assertTrue(store.findActiveByHash("h", Instant.ofEpochMilli(1_500)).isEmpty());
+    }
+}
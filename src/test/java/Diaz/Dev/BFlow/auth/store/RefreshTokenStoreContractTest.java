@@ -0,0 +1,140 @@
+package Diaz.Dev.BFlow.auth.store;
+
+import bflow.auth.DTO.Record.RefreshRotationResult;
+import bflow.auth.DTO.Record.RefreshSession;
+import bflow.auth.services.ServiceRefreshToken;
+import bflow.auth.store.RefreshTokenStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every refresh token store must share, run against each
+ * implementation through the service.
+ */
+abstract class RefreshTokenStoreContractTest {
+
+    private ServiceRefreshToken service;
+    private UUID userId;
+
+    protected abstract RefreshTokenStore createStore();
+
+    @BeforeEach
+    void setup() {
+        service = new ServiceRefreshToken(createStore());
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void rotateIssuesANewTokenAndRevokesTheOldOne() {
+        String raw = UUID.randomUUID().toString();
+        service.create(userId, raw);
+
+        RefreshRotationResult result = service.rotate(raw);
+
+        assertEquals(userId, result.userId());
+        assertThrows(SecurityException.class, () -> service.validate(raw));
+        assertEquals(userId,
+                service.validate(result.newRefreshToken()).getUserId());
+    }
+
+    @Test
+    void replayingARotatedTokenRevokesTheWholeFamily() {
+        String raw = UUID.randomUUID().toString();
+        service.create(userId, raw);
+        String next = service.rotate(raw).newRefreshToken();
+
+        assertThrows(SecurityException.class, () -> service.rotate(raw));
+
+        assertThrows(SecurityException.class, () -> service.validate(next));
+        assertEquals(List.of(),
+                service.listActiveSessions(userId, UUID.randomUUID()));
+    }
+
+    @Test
+    void unknownTokenIsRejectedWithoutSideEffects() {
+        service.create(userId, "kept");
+
+        assertThrows(SecurityException.class, () -> service.rotate("unknown"));
+        assertThrows(SecurityException.class,
+                () -> service.validateAndRotate("unknown"));
+
+        assertEquals(1,
+                service.listActiveSessions(userId, UUID.randomUUID()).size());
+    }
+
+    @Test
+    void logoutRevokesOnlyThePresentedToken() {
+        service.create(userId, "first");
+        service.create(userId, "second");
+
+        service.validateAndRotate("first");
+
+        List<RefreshSession> sessions =
+                service.listActiveSessions(userId, UUID.randomUUID());
+        assertEquals(1, sessions.size());
+        assertThrows(SecurityException.class,
+                () -> service.validateAndRotate("first"));
+        assertEquals(0,
+                service.listActiveSessions(userId, UUID.randomUUID()).size());
+    }
+
+    @Test
+    void revokeAllReportsAffectedTokensPerUser() {
+        UUID other = UUID.randomUUID();
+        service.create(userId, "a");
+        service.create(userId, "b");
+        service.create(other, "c");
+
+        assertEquals(2, service.revokeAll(userId));
+        assertEquals(0, service.revokeAll(userId));
+        assertEquals(1, service.revokeAll(List.of(userId, other)));
+    }
+
+    @Test
+    void parallelRefreshesWithTheSameTokenHaveExactlyOneWinner()
+            throws Exception {
+        int threads = 16;
+        String raw = UUID.randomUUID().toString();
+        service.create(userId, raw);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                Callable<Boolean> refresh = () -> {
+                    start.await();
+                    try {
+                        service.rotate(raw);
+                        return true;
+                    } catch (SecurityException e) {
+                        return false;
+                    }
+                };
+                results.add(executor.submit(refresh));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    winners++;
+                }
+            }
+            assertEquals(1, winners);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package Diaz.Dev.BFlow.common.retry;
+
+import bflow.common.retry.ConflictRetryAspect;
+import bflow.common.retry.ConflictRetryStats;
+import bflow.expenses.entity.Expense;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConflictRetryAspectTest {
+
+    private final List<Long> pauses = new ArrayList<>();
+
+    private final ConflictRetryAspect aspect =
+            new ConflictRetryAspect(3, 10, 15, pauses::add);
+
+    private final ProceedingJoinPoint call = mock(ProceedingJoinPoint.class);
+
+    private final UUID expenseId = UUID.randomUUID();
+
+    private ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(
+                Expense.class, expenseId);
+    }
+
+    @Test
+    void retriesUntilTheCallSucceeds() throws Throwable {
+        when(call.proceed())
+                .thenThrow(conflict())
+                .thenThrow(conflict())
+                .thenReturn("done");
+
+        assertEquals("done", aspect.retry(call));
+
+        verify(call, times(3)).proceed();
+        assertEquals(2, pauses.size());
+        assertTrue(pauses.get(0) >= 0 && pauses.get(0) <= 10);
+        assertTrue(pauses.get(1) >= 0 && pauses.get(1) <= 15);
+        ConflictRetryStats stats = aspect.stats();
+        assertEquals(2, stats.conflicts());
+        assertEquals(2, stats.retries());
+        assertEquals(0, stats.exhausted());
+        assertEquals(2L, stats.hottest().get("Expense:" + expenseId));
+    }
+
+    @Test
+    void rethrowsAfterTheLastAttempt() throws Throwable {
+        when(call.proceed()).thenThrow(conflict());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> aspect.retry(call));
+
+        verify(call, times(3)).proceed();
+        assertEquals(1, aspect.stats().exhausted());
+        assertEquals(3, aspect.stats().conflicts());
+    }
+
+    @Test
+    void otherFailuresAreNotRetried() throws Throwable {
+        when(call.proceed()).thenThrow(new IllegalArgumentException("no"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> aspect.retry(call));
+
+        verify(call, times(1)).proceed();
+        assertEquals(0, aspect.stats().conflicts());
+    }
+}
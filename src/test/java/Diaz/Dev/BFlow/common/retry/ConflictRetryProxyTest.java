@@ -0,0 +1,200 @@
+package Diaz.Dev.BFlow.common.retry;
+
+import bflow.auth.entities.User;
+import bflow.auth.repository.RepositoryUser;
+import bflow.common.retry.ConflictRetryAspect;
+import bflow.common.retry.ConflictRetryStats;
+import bflow.expenses.DTO.ExpenseRequest;
+import bflow.expenses.RepositoryExpense;
+import bflow.expenses.ServiceExpense;
+import bflow.expenses.entity.Expense;
+import bflow.expenses.enums.ExpenseType;
+import bflow.wallet.RepositoryWallet;
+import bflow.wallet.RepositoryWalletUser;
+import bflow.wallet.ServiceWallet;
+import bflow.wallet.entities.Wallet;
+import bflow.wallet.entities.WalletUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two concurrent updates of the same expense through the aspect and the
+ * transaction interceptor, in the order the application context chains
+ * them. The transaction manager checks versions on commit like a
+ * Hibernate flush, so the losing update really conflicts and is retried
+ * against the committed row.
+ */
+class ConflictRetryProxyTest {
+
+    private final UUID expenseId = UUID.randomUUID();
+
+    private final Wallet wallet = new Wallet();
+
+    private final User user = new User();
+
+    /** Committed version and amount of the expense row. */
+    private long storedVersion;
+
+    private BigDecimal storedAmount = new BigDecimal("100.00");
+
+    /** Committed change of the wallet balance. */
+    private BigDecimal balanceChange = BigDecimal.ZERO;
+
+    private final ThreadLocal<List<Expense>> loaded =
+            ThreadLocal.withInitial(ArrayList::new);
+
+    private final ThreadLocal<List<BigDecimal>> deltas =
+            ThreadLocal.withInitial(ArrayList::new);
+
+    /** Holds both first attempts until each has read the row. */
+    private final CyclicBarrier bothRead = new CyclicBarrier(2);
+
+    private final AtomicInteger postings = new AtomicInteger();
+
+    @Test
+    void concurrentUpdateOfTheSameExpenseIsRetried() throws Exception {
+        wallet.setId(UUID.randomUUID());
+        wallet.setName("Shared");
+        user.setId(UUID.randomUUID());
+        user.setEmail("member@bflow.com");
+        ConflictRetryAspect aspect =
+                new ConflictRetryAspect(3, 0, 0, millis -> { });
+        ServiceExpense expenses = proxy(aspect);
+
+        CompletableFuture<?> first = CompletableFuture.runAsync(
+                () -> expenses.updateExpense(
+                        expenseId, request("150.00"), user.getId()));
+        CompletableFuture<?> second = CompletableFuture.runAsync(
+                () -> expenses.updateExpense(
+                        expenseId, request("130.00"), user.getId()));
+        CompletableFuture.allOf(first, second).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, storedVersion);
+        assertEquals(0, new BigDecimal("100.00").subtract(storedAmount)
+                .compareTo(balanceChange));
+        ConflictRetryStats stats = aspect.stats();
+        assertEquals(1, stats.conflicts());
+        assertEquals(1, stats.retries());
+        assertEquals(1L, stats.hottest().get("Expense:" + expenseId));
+    }
+
+    private ServiceExpense proxy(final ConflictRetryAspect aspect) {
+        RepositoryExpense repositoryExpense = mock(RepositoryExpense.class);
+        when(repositoryExpense.findById(expenseId))
+                .thenAnswer(inv -> Optional.of(read()));
+        RepositoryWalletUser repositoryWalletUser =
+                mock(RepositoryWalletUser.class);
+        when(repositoryWalletUser.findByWalletIdAndUserId(any(), any()))
+                .thenReturn(Optional.of(new WalletUser()));
+        RepositoryWallet repositoryWallet = mock(RepositoryWallet.class);
+        when(repositoryWallet.findById(wallet.getId()))
+                .thenReturn(Optional.of(wallet));
+        ServiceWallet serviceWallet = mock(ServiceWallet.class);
+        doAnswer(inv -> {
+            deltas.get().add(inv.getArgument(1));
+            if (postings.incrementAndGet() <= 2) {
+                bothRead.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(serviceWallet).applyDelta(any(), any());
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(
+                new ServiceExpense(repositoryExpense, repositoryWalletUser,
+                        mock(RepositoryUser.class), repositoryWallet,
+                        serviceWallet));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        factory.addAdvice(new TransactionInterceptor(
+                new VersionCheckingTransactionManager(),
+                new AnnotationTransactionAttributeSource()));
+        return factory.getProxy();
+    }
+
+    /** Loads a fresh copy of the committed row into this transaction. */
+    private synchronized Expense read() {
+        Expense expense = new Expense();
+        expense.setId(expenseId);
+        expense.setVersion(storedVersion);
+        expense.setAmount(storedAmount);
+        expense.setWallet(wallet);
+        expense.setContributor(user);
+        expense.setType(ExpenseType.FOOD);
+        loaded.get().add(expense);
+        return expense;
+    }
+
+    private ExpenseRequest request(final String amount) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setWalletId(wallet.getId());
+        request.setTitle("Groceries");
+        request.setAmount(new BigDecimal(amount));
+        request.setDate(LocalDate.of(2026, 1, 15));
+        request.setType(ExpenseType.FOOD);
+        return request;
+    }
+
+    /** Writes loaded rows back on commit, failing on a stale version. */
+    private final class VersionCheckingTransactionManager
+            extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(
+                final Object transaction,
+                final TransactionDefinition definition
+        ) {
+            loaded.remove();
+            deltas.remove();
+        }
+
+        @Override
+        protected void doCommit(final DefaultTransactionStatus status) {
+            synchronized (ConflictRetryProxyTest.this) {
+                for (Expense expense : loaded.get()) {
+                    if (expense.getVersion() != storedVersion) {
+                        throw new ObjectOptimisticLockingFailureException(
+                                Expense.class, expense.getId());
+                    }
+                }
+                for (Expense expense : loaded.get()) {
+                    storedVersion++;
+                    storedAmount = expense.getAmount();
+                }
+                for (BigDecimal delta : deltas.get()) {
+                    balanceChange = balanceChange.add(delta);
+                }
+            }
+        }
+
+        @Override
+        protected void doRollback(final DefaultTransactionStatus status) {
+            loaded.remove();
+            deltas.remove();
+        }
+    }
+}
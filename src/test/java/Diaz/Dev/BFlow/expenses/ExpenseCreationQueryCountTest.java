@@ -0,0 +1,115 @@
+package Diaz.Dev.BFlow.expenses;
+
+import Diaz.Dev.BFlow.PostgresTest;
+import bflow.auth.entities.User;
+import bflow.auth.enums.AuthProvider;
+import bflow.auth.repository.RepositoryUser;
+import bflow.expenses.DTO.ExpenseRequest;
+import bflow.expenses.RepositoryExpense;
+import bflow.expenses.ServiceExpense;
+import bflow.expenses.enums.ExpenseType;
+import bflow.wallet.RepositoryWallet;
+import bflow.wallet.RepositoryWalletUser;
+import bflow.wallet.ServiceWallet;
+import bflow.wallet.balance.ColumnBalanceStore;
+import bflow.wallet.entities.Wallet;
+import bflow.wallet.entities.WalletUser;
+import bflow.wallet.enums.Currency;
+import bflow.wallet.enums.WalletRole;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements of one expense creation: the membership,
+ * the user (for the contributor name), the wallet, the balance update
+ * and the insert. Roles live in the role_mask column, so the user is
+ * read from its own row without joining user_roles.
+ */
+@PostgresTest
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "Diaz.Dev.BFlow.expenses.ExpenseCreationQueryCountTest"
+                + "$Recorder")
+class ExpenseCreationQueryCountTest {
+
+    /** Records every statement Hibernate prepares. */
+    public static class Recorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private RepositoryUser repositoryUser;
+
+    @Autowired
+    private RepositoryWallet repositoryWallet;
+
+    @Autowired
+    private RepositoryWalletUser repositoryWalletUser;
+
+    @Autowired
+    private RepositoryExpense repositoryExpense;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void creatingAnExpenseNeverReadsRoles() {
+        User user = repositoryUser.save(User.builder()
+                .email("count-" + UUID.randomUUID() + "@bflow.com")
+                .provider(AuthProvider.LOCAL)
+                .build());
+        Wallet wallet = new Wallet();
+        wallet.setName("Main");
+        wallet.setDescription("Main wallet");
+        wallet.setCurrency(Currency.USD);
+        wallet.setBalance(new BigDecimal("100.00"));
+        wallet.setInitialValue(new BigDecimal("100.00"));
+        wallet = repositoryWallet.save(wallet);
+        WalletUser member = new WalletUser();
+        member.setWallet(wallet);
+        member.setUser(user);
+        member.setRole(WalletRole.OWNER);
+        repositoryWalletUser.save(member);
+        entityManager.flush();
+        entityManager.clear();
+
+        ServiceExpense service = new ServiceExpense(repositoryExpense,
+                repositoryWalletUser, repositoryUser, repositoryWallet,
+                new ServiceWallet(repositoryWallet, repositoryWalletUser,
+                        repositoryUser,
+                        new ColumnBalanceStore(repositoryWallet)));
+        ExpenseRequest request = new ExpenseRequest();
+        request.setTitle("Groceries");
+        request.setAmount(new BigDecimal("12.50"));
+        request.setDate(LocalDate.now());
+        request.setWalletId(wallet.getId());
+        request.setType(ExpenseType.FOOD);
+
+        Recorder.STATEMENTS.clear();
+        service.newExpense(request, user.getId());
+        entityManager.flush();
+
+        List<String> statements = List.copyOf(Recorder.STATEMENTS);
+        assertTrue(statements.stream()
+                .noneMatch(sql -> sql.contains("user_roles")));
+        assertEquals(5, statements.size(), String.join("\n", statements));
+    }
+}
@@ -0,0 +1,95 @@
+package Diaz.Dev.BFlow.wallet;
+
+import bflow.auth.repository.RepositoryUser;
+import bflow.wallet.RepositoryWallet;
+import bflow.wallet.RepositoryWalletUser;
+import bflow.wallet.ServiceWallet;
+import bflow.wallet.balance.BalanceStore;
+import bflow.wallet.entities.Wallet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceWalletTest {
+
+    @Mock
+    private RepositoryWallet repositoryWallet;
+
+    @Mock
+    private RepositoryWalletUser repositoryWalletUser;
+
+    @Mock
+    private RepositoryUser repositoryUser;
+
+    @Mock
+    private BalanceStore balanceStore;
+
+    @InjectMocks
+    private ServiceWallet serviceWallet;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void setup() {
+        wallet = new Wallet();
+        wallet.setId(UUID.randomUUID());
+        wallet.setBalance(new BigDecimal("100.00"));
+    }
+
+    @Test
+    void addBalanceIncrementsInTheStore() {
+        when(balanceStore.credit(wallet, new BigDecimal("25.00")))
+                .thenReturn(true);
+
+        serviceWallet.addBalance(wallet, new BigDecimal("25.00"));
+
+        assertEquals(new BigDecimal("100.00"), wallet.getBalance());
+    }
+
+    @Test
+    void subtractBalanceRejectsWhenTheStoreRefuses() {
+        when(balanceStore.debit(wallet, new BigDecimal("150.00")))
+                .thenReturn(false);
+
+        IllegalArgumentException error = assertThrows(
+                IllegalArgumentException.class,
+                () -> serviceWallet.subtractBalance(
+                        wallet, new BigDecimal("150.00")));
+
+        assertEquals("Insufficient balance", error.getMessage());
+    }
+
+    @Test
+    void applyDeltaRoutesBySign() {
+        when(balanceStore.credit(any(), any())).thenReturn(true);
+        when(balanceStore.debit(any(), any())).thenReturn(true);
+
+        serviceWallet.applyDelta(wallet, new BigDecimal("5.00"));
+        serviceWallet.applyDelta(wallet, new BigDecimal("-7.50"));
+        serviceWallet.applyDelta(wallet, BigDecimal.ZERO);
+
+        verify(balanceStore).credit(wallet, new BigDecimal("5.00"));
+        verify(balanceStore).debit(wallet, new BigDecimal("7.50"));
+        verifyNoMoreInteractions(balanceStore);
+    }
+
+    @Test
+    void negativeAmountsAreRejectedBeforeAnyUpdate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> serviceWallet.addBalance(
+                        wallet, new BigDecimal("-1")));
+
+        verifyNoInteractions(balanceStore);
+    }
+}
@@ -0,0 +1,139 @@
+package Diaz.Dev.BFlow.wallet;
+
+import Diaz.Dev.BFlow.PostgresTest;
+import bflow.wallet.RepositoryWallet;
+import bflow.wallet.RepositoryWalletUser;
+import bflow.wallet.ServiceWallet;
+import bflow.wallet.balance.ColumnBalanceStore;
+import bflow.wallet.entities.Wallet;
+import bflow.wallet.enums.Currency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 1,000 postings on one wallet from 32 threads, each in its own
+ * transaction, against Postgres.
+ */
+@PostgresTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletBalanceConcurrencyTest {
+
+    private static final int POSTINGS = 1_000;
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private RepositoryWallet repositoryWallet;
+
+    @Autowired
+    private RepositoryWalletUser repositoryWalletUser;
+
+    private ServiceWallet serviceWallet;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void setup() {
+        serviceWallet = new ServiceWallet(repositoryWallet,
+                repositoryWalletUser, null,
+                new ColumnBalanceStore(repositoryWallet));
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (wallet != null) {
+            repositoryWallet.deleteById(wallet.getId());
+        }
+    }
+
+    private Wallet wallet(String balance) {
+        Wallet created = new Wallet();
+        created.setName("Shared");
+        created.setDescription("Concurrency test");
+        created.setCurrency(Currency.USD);
+        created.setBalance(new BigDecimal(balance));
+        created.setInitialValue(new BigDecimal(balance));
+        wallet = repositoryWallet.save(created);
+        return wallet;
+    }
+
+    private BigDecimal balance() {
+        return repositoryWallet.findById(wallet.getId()).orElseThrow()
+                .getBalance();
+    }
+
+    private int runInParallel(List<Runnable> postings) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Runnable posting : postings) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        posting.run();
+                    } catch (IllegalArgumentException insufficient) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return rejected.get();
+    }
+
+    @Test
+    void noPostingIsLost() throws Exception {
+        Wallet shared = wallet("10000.00");
+        List<Runnable> postings = new ArrayList<>();
+        for (int i = 0; i < POSTINGS; i++) {
+            postings.add(i % 2 == 0
+                    ? () -> serviceWallet.addBalance(shared,
+                            new BigDecimal("3.00"))
+                    : () -> serviceWallet.subtractBalance(shared,
+                            new BigDecimal("7.00")));
+        }
+
+        assertEquals(0, runInParallel(postings));
+
+        // 10,000 + 500 * 3 - 500 * 7
+        assertEquals(new BigDecimal("8000.00"), balance());
+    }
+
+    @Test
+    void concurrentDebitsNeverOverdraw() throws Exception {
+        Wallet shared = wallet("100.00");
+        List<Runnable> postings = new ArrayList<>();
+        for (int i = 0; i < POSTINGS; i++) {
+            postings.add(() -> serviceWallet.subtractBalance(shared,
+                    BigDecimal.ONE));
+        }
+
+        assertEquals(POSTINGS - 100, runInParallel(postings));
+
+        assertEquals(new BigDecimal("0.00"), balance());
+    }
+}
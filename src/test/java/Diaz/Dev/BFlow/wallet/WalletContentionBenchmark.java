@@ -0,0 +1,171 @@
+package Diaz.Dev.BFlow.wallet;
+
+import Diaz.Dev.BFlow.PostgresTest;
+import bflow.wallet.RepositoryWallet;
+import bflow.wallet.RepositoryWalletLedger;
+import bflow.wallet.RepositoryWalletSnapshot;
+import bflow.wallet.RepositoryWalletUser;
+import bflow.wallet.ServiceWallet;
+import bflow.wallet.balance.BalanceStore;
+import bflow.wallet.balance.ColumnBalanceStore;
+import bflow.wallet.balance.LedgerBalanceStore;
+import bflow.wallet.entities.Wallet;
+import bflow.wallet.enums.Currency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Postings on one hot shared wallet, column store against ledger store,
+ * at growing thread counts. Each posting runs in its own transaction that
+ * stays open a little after the balance change, like an expense insert
+ * would, so the column store's row lock is held for that long. Four in
+ * five postings are credits. Set -Dbflow.benchmark.postings and
+ * -Dbflow.benchmark.hold-ms to change the load.
+ */
+@PostgresTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletContentionBenchmark {
+
+    private static final int[] THREADS = {1, 8, 32};
+
+    @Autowired
+    private RepositoryWallet repositoryWallet;
+
+    @Autowired
+    private RepositoryWalletUser repositoryWalletUser;
+
+    @Autowired
+    private RepositoryWalletLedger repositoryLedger;
+
+    @Autowired
+    private RepositoryWalletSnapshot repositorySnapshot;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final List<Wallet> wallets = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        for (Wallet wallet : wallets) {
+            jdbc.update("DELETE FROM wallet_ledger WHERE wallet_id = ?",
+                    wallet.getId());
+            jdbc.update("DELETE FROM wallet_balance_snapshots"
+                    + " WHERE wallet_id = ?", wallet.getId());
+            repositoryWallet.deleteById(wallet.getId());
+        }
+    }
+
+    private Wallet wallet() {
+        Wallet created = new Wallet();
+        created.setName("Hot");
+        created.setDescription("Contention benchmark");
+        created.setCurrency(Currency.USD);
+        created.setBalance(new BigDecimal("1000000.00"));
+        created.setInitialValue(new BigDecimal("1000000.00"));
+        Wallet saved = repositoryWallet.save(created);
+        wallets.add(saved);
+        return saved;
+    }
+
+    private long[] run(BalanceStore store, Wallet wallet, int threads,
+                       int postings, long holdMs) throws Exception {
+        ServiceWallet service = new ServiceWallet(repositoryWallet,
+                repositoryWalletUser, null, store);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] nanos = new long[postings];
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < postings; i++) {
+                int n = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    tx.executeWithoutResult(status -> {
+                        if (n % 5 == 4) {
+                            service.subtractBalance(wallet, BigDecimal.ONE);
+                        } else {
+                            service.addBalance(wallet, BigDecimal.ONE);
+                        }
+                        pause(holdMs);
+                    });
+                    nanos[n] = System.nanoTime() - begin;
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.MINUTES);
+            }
+            long elapsed = System.nanoTime() - begin;
+            Arrays.sort(nanos);
+            return new long[] {
+                    postings * 1_000_000_000L / elapsed,
+                    nanos[postings / 2] / 1000,
+                    nanos[postings * 99 / 100] / 1000
+            };
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void hotWalletThroughputByStore() throws Exception {
+        int postings = Integer.getInteger("bflow.benchmark.postings", 2_000);
+        long holdMs = Long.getLong("bflow.benchmark.hold-ms", 2);
+        List<BalanceStore> stores = List.of(
+                new ColumnBalanceStore(repositoryWallet),
+                new LedgerBalanceStore(repositoryLedger, repositorySnapshot));
+
+        for (int threads : THREADS) {
+            for (BalanceStore store : stores) {
+                Wallet wallet = wallet();
+                long[] result = run(store, wallet, threads, postings, holdMs);
+
+                // 4 in 5 postings add one, the others take one away
+                BigDecimal expected = new BigDecimal("1000000.00")
+                        .add(BigDecimal.valueOf(postings * 3L / 5));
+                assertEquals(0, expected.compareTo(store.balance(
+                        repositoryWallet.findById(wallet.getId())
+                                .orElseThrow())));
+                System.out.printf(
+                        "%-18s %2d threads: %,6d postings/s,"
+                                + " p50 %,7d us, p99 %,7d us%n",
+                        store.getClass().getSimpleName(), threads,
+                        result[0], result[1], result[2]);
+            }
+        }
+    }
+}
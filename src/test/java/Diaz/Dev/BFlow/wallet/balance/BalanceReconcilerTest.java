@@ -0,0 +1,187 @@
+package Diaz.Dev.BFlow.wallet.balance;
+
+import bflow.wallet.RepositoryWallet;
+import bflow.wallet.RepositoryWalletLedger;
+import bflow.wallet.balance.BalanceAudit;
+import bflow.wallet.balance.BalanceReconciler;
+import bflow.wallet.balance.ReconciliationStats;
+import bflow.wallet.entities.WalletLedgerEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceReconcilerTest {
+
+    @Mock
+    private RepositoryWallet repository;
+
+    @Mock
+    private RepositoryWalletLedger ledger;
+
+    private BalanceReconciler reconciler;
+
+    private final UUID walletId = UUID.randomUUID();
+
+    private record Audit(UUID getWallet, BigDecimal getActual,
+                         BigDecimal getExpected, Long getEntries)
+            implements BalanceAudit { }
+
+    private static Audit audit(final UUID id, final String actual,
+                               final String expected, final long entries) {
+        return new Audit(id, new BigDecimal(actual), new BigDecimal(expected),
+                entries);
+    }
+
+    private BalanceReconciler reconciler(final String store,
+                                         final boolean repair,
+                                         final int partitions) {
+        lenient().when(repository.tryLockReconciliation()).thenReturn(true);
+        lenient().when(repository.lockForUpdate(any())).thenReturn(1L);
+        reconciler = new BalanceReconciler(repository, ledger,
+                TransactionOperations.withoutTransaction(), store, repair,
+                partitions, 2);
+        return reconciler;
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (reconciler != null) {
+            reconciler.shutdown();
+        }
+    }
+
+    @Test
+    void partitionsCoverTheWholeIdSpace() {
+        List<UUID[]> ranges = new ArrayList<>();
+        when(repository.auditBalances(any(), any())).thenAnswer(inv -> {
+            synchronized (ranges) {
+                ranges.add(new UUID[] {inv.getArgument(0),
+                        inv.getArgument(1)});
+            }
+            return List.of();
+        });
+
+        reconciler("column", false, 4).reconcile();
+
+        ranges.sort(Comparator.comparing(r -> r[0].toString()));
+        assertEquals(4, ranges.size());
+        assertEquals("00000000-0000-0000-0000-000000000000",
+                ranges.get(0)[0].toString());
+        assertEquals("3fffffff-ffff-ffff-ffff-ffffffffffff",
+                ranges.get(0)[1].toString());
+        assertEquals("40000000-0000-0000-0000-000000000000",
+                ranges.get(1)[0].toString());
+        assertEquals("ffffffff-ffff-ffff-ffff-ffffffffffff",
+                ranges.get(3)[1].toString());
+    }
+
+    @Test
+    void confirmedDriftIsRepairedRelatively() {
+        UUID healthy = UUID.randomUUID();
+        when(repository.auditBalances(any(), any())).thenReturn(List.of(
+                audit(walletId, "90.00", "100.00", 7),
+                audit(healthy, "5.00", "5.00", 3)));
+        when(repository.auditBalances(walletId, walletId)).thenReturn(
+                List.of(audit(walletId, "95.00", "105.00", 8)));
+
+        ReconciliationStats stats = reconciler("column", true, 1)
+                .reconcile();
+
+        verify(repository).shiftBalance(walletId, new BigDecimal("10.00"));
+        assertEquals(2, stats.walletsChecked());
+        assertEquals(10, stats.entriesChecked());
+        assertEquals(1, stats.discrepancies());
+        assertEquals(1, stats.repaired());
+        assertEquals(walletId, stats.lastDiscrepancies().get(0).walletId());
+    }
+
+    @Test
+    void transientDriftIsIgnored() {
+        when(repository.auditBalances(any(), any())).thenReturn(List.of(
+                audit(walletId, "90.00", "100.00", 7)));
+        when(repository.auditBalances(walletId, walletId)).thenReturn(
+                List.of(audit(walletId, "100.00", "100.00", 7)));
+
+        ReconciliationStats stats = reconciler("column", true, 1)
+                .reconcile();
+
+        assertEquals(0, stats.discrepancies());
+        verify(repository, never()).shiftBalance(any(), any());
+    }
+
+    @Test
+    void reportOnlyLeavesBalancesAlone() {
+        when(repository.auditBalances(any(), any())).thenReturn(List.of(
+                audit(walletId, "90.00", "100.00", 7)));
+
+        ReconciliationStats stats = reconciler("column", false, 1)
+                .reconcile();
+
+        assertEquals(1, stats.discrepancies());
+        assertEquals(0, stats.repaired());
+        assertFalse(stats.lastDiscrepancies().get(0).repaired());
+        verify(repository, never()).shiftBalance(any(), any());
+    }
+
+    @Test
+    void ledgerStoreIsCorrectedWithAnEntry() {
+        when(repository.auditLedgerBalances(any(), any())).thenReturn(
+                List.of(audit(walletId, "100.00", "80.00", 4)));
+
+        reconciler("ledger", true, 1).reconcile();
+
+        ArgumentCaptor<WalletLedgerEntry> entry =
+                ArgumentCaptor.forClass(WalletLedgerEntry.class);
+        verify(ledger).save(entry.capture());
+        assertEquals(new BigDecimal("-20.00"), entry.getValue().getDelta());
+        verify(repository, never()).auditBalances(any(), any());
+        verify(repository, never()).shiftBalance(any(), any());
+    }
+
+    @Test
+    void correctionUsesTheBalanceReadUnderTheRowLock() {
+        when(repository.auditBalances(any(), any())).thenReturn(List.of(
+                audit(walletId, "90.00", "100.00", 7)));
+        when(repository.auditBalances(walletId, walletId)).thenReturn(
+                List.of(audit(walletId, "90.00", "100.00", 7)),
+                List.of(audit(walletId, "96.00", "100.00", 7)));
+
+        ReconciliationStats stats = reconciler("column", true, 1)
+                .reconcile();
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).lockForUpdate(walletId);
+        order.verify(repository).auditBalances(walletId, walletId);
+        order.verify(repository).shiftBalance(walletId, new BigDecimal("4.00"));
+        assertEquals(new BigDecimal("96.00"),
+                stats.lastDiscrepancies().get(0).actual());
+    }
+
+    @Test
+    void runHeldByAnotherNodeIsRefused() {
+        BalanceReconciler reconciler = reconciler("column", true, 1);
+        when(repository.tryLockReconciliation()).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, reconciler::reconcile);
+        reconciler.reconcileOnSchedule();
+
+        verify(repository, never()).auditBalances(any(), any());
+        assertEquals(0, reconciler.stats().runs());
+    }
+}
@@ -0,0 +1,141 @@
+package Diaz.Dev.BFlow.wallet.balance;
+
+import Diaz.Dev.BFlow.PostgresTest;
+import bflow.auth.entities.User;
+import bflow.auth.enums.AuthProvider;
+import bflow.auth.repository.RepositoryUser;
+import bflow.wallet.RepositoryWallet;
+import bflow.wallet.RepositoryWalletLedger;
+import bflow.wallet.balance.BalanceReconciler;
+import bflow.wallet.balance.ReconciliationStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reconciliation throughput over 10M incomes and expenses spread across
+ * 100k wallets, a few of them drifted. A first pass pulls the tables
+ * into the page cache, then passes run at growing parallelism. The
+ * seeded wallets are the only ones audited, so point
+ * BFLOW_TEST_DATABASE_URL at an empty database. Set -Dbflow.benchmark.entries and
+ * -Dbflow.benchmark.wallets to change the dataset.
+ */
+@PostgresTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BalanceReconciliationBenchmark {
+
+    private static final String SEED = "Reconciliation benchmark";
+
+    private static final int DRIFTED = 100;
+
+    @Autowired
+    private RepositoryWallet repositoryWallet;
+
+    @Autowired
+    private RepositoryWalletLedger repositoryLedger;
+
+    @Autowired
+    private RepositoryUser repositoryUser;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private UUID userId;
+
+    @AfterEach
+    void cleanup() {
+        String seeded = "wallet_id IN (SELECT id FROM wallets"
+                + " WHERE description = '" + SEED + "')";
+        jdbc.update("DELETE FROM incomes WHERE " + seeded);
+        jdbc.update("DELETE FROM expenses WHERE " + seeded);
+        jdbc.update("DELETE FROM wallets WHERE description = ?", SEED);
+        if (userId != null) {
+            repositoryUser.deleteById(userId);
+        }
+    }
+
+    private void seed(int wallets, int entries) {
+        userId = repositoryUser.saveAndFlush(User.builder()
+                .email("reconciliation-" + UUID.randomUUID() + "@bflow.com")
+                .provider(AuthProvider.LOCAL)
+                .build()).getId();
+        jdbc.update("INSERT INTO wallets (id, name, description, currency,"
+                + " balance, initial_value, created_at)"
+                + " SELECT md5('wallet-' || n)::uuid, 'Wallet ' || n, ?,"
+                + " 'USD', 0, 1000, now() FROM generate_series(1, ?) n",
+                SEED, wallets);
+        String entry = " (id, wallet_id, user_id, amount, title, type, date,"
+                + " created_at, version, %s)"
+                + " SELECT gen_random_uuid(),"
+                + " md5('wallet-' || (n %% ?) + 1)::uuid, ?, %s, 'Seed',"
+                + " 'OTHER', current_date, now(), 0, %s"
+                + " FROM generate_series(1, ?) n";
+        jdbc.update("INSERT INTO incomes" + String.format(entry,
+                "recurring, taxable", "1 + n % 100", "false, false"),
+                wallets, userId, entries / 2);
+        jdbc.update("INSERT INTO expenses" + String.format(entry,
+                "recurring, reimbursable, tax_deductible", "1 + n % 50",
+                "false, false, false"),
+                wallets, userId, entries - entries / 2);
+        jdbc.update("UPDATE wallets w SET balance = w.initial_value"
+                + " + COALESCE(i.total, 0) - COALESCE(e.total, 0)"
+                + " FROM wallets x"
+                + " LEFT JOIN (SELECT wallet_id, SUM(amount) AS total"
+                + " FROM incomes GROUP BY wallet_id) i ON i.wallet_id = x.id"
+                + " LEFT JOIN (SELECT wallet_id, SUM(amount) AS total"
+                + " FROM expenses GROUP BY wallet_id) e ON e.wallet_id = x.id"
+                + " WHERE w.id = x.id AND w.description = ?", SEED);
+        jdbc.update("UPDATE wallets SET balance = balance + 1 WHERE id IN"
+                + " (SELECT md5('wallet-' || n)::uuid"
+                + " FROM generate_series(1, ?) n)", DRIFTED);
+        // settle hint bits and the visibility map like a live table
+        jdbc.execute("VACUUM ANALYZE wallets, incomes, expenses");
+    }
+
+    @Test
+    void reconciliationThroughputOnTenMillionEntries() {
+        int entries = Integer.getInteger("bflow.benchmark.entries",
+                10_000_000);
+        int wallets = Integer.getInteger("bflow.benchmark.wallets", 100_000);
+        long seedStart = System.nanoTime();
+        seed(wallets, entries);
+        System.out.printf("seeded %,d entries on %,d wallets in %,d s%n",
+                entries, wallets,
+                (System.nanoTime() - seedStart) / 1_000_000_000L);
+
+        List<String> passes = List.of("first", "1", "2", "4");
+        for (String pass : passes) {
+            int parallelism = "first".equals(pass) ? 1 : Integer.parseInt(pass);
+            BalanceReconciler reconciler = new BalanceReconciler(
+                    repositoryWallet, repositoryLedger, transactionManager,
+                    "column", false, 64, parallelism);
+            try {
+                ReconciliationStats stats = reconciler.reconcile();
+
+                assertEquals(wallets, stats.walletsChecked());
+                assertEquals(entries, stats.entriesChecked());
+                assertEquals(DRIFTED, stats.discrepancies());
+                System.out.printf(
+                        "parallelism %s: %,d wallets, %,d entries in %,d ms,"
+                                + " %,d entries/s, %,d discrepancies%n",
+                        pass, stats.walletsChecked(),
+                        stats.entriesChecked(), stats.lastRunMillis(),
+                        stats.entriesPerSecond(), stats.discrepancies());
+            } finally {
+                reconciler.shutdown();
+            }
+        }
+    }
+}
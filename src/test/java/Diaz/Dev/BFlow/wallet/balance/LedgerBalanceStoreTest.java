@@ -0,0 +1,109 @@
+package Diaz.Dev.BFlow.wallet.balance;
+
+import bflow.wallet.RepositoryWalletLedger;
+import bflow.wallet.RepositoryWalletSnapshot;
+import bflow.wallet.balance.LedgerBalanceStore;
+import bflow.wallet.entities.Wallet;
+import bflow.wallet.entities.WalletBalanceSnapshot;
+import bflow.wallet.entities.WalletLedgerEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerBalanceStoreTest {
+
+    @Mock
+    private RepositoryWalletLedger ledger;
+
+    @Mock
+    private RepositoryWalletSnapshot snapshots;
+
+    @InjectMocks
+    private LedgerBalanceStore store;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    void setup() {
+        wallet = new Wallet();
+        wallet.setId(UUID.randomUUID());
+        wallet.setBalance(new BigDecimal("100.00"));
+    }
+
+    @Test
+    void balanceStartsFromTheColumnWithoutSnapshot() {
+        when(snapshots.findById(wallet.getId())).thenReturn(Optional.empty());
+        when(ledger.sumAfter(wallet.getId(), 0L))
+                .thenReturn(new BigDecimal("-30.00"));
+
+        assertEquals(new BigDecimal("70.00"), store.balance(wallet));
+    }
+
+    @Test
+    void balanceAddsTheEntriesAfterTheSnapshot() {
+        WalletBalanceSnapshot snapshot = new WalletBalanceSnapshot();
+        snapshot.setWalletId(wallet.getId());
+        snapshot.setBalance(new BigDecimal("250.00"));
+        snapshot.setLastEntryId(42L);
+        when(snapshots.findById(wallet.getId()))
+                .thenReturn(Optional.of(snapshot));
+        when(ledger.sumAfter(wallet.getId(), 42L))
+                .thenReturn(new BigDecimal("5.50"));
+
+        assertEquals(new BigDecimal("255.50"), store.balance(wallet));
+    }
+
+    @Test
+    void creditAppendsWithoutTouchingTheWallet() {
+        assertTrue(store.credit(wallet, new BigDecimal("12.00")));
+
+        verify(ledger, never()).lockWallet(any());
+        ArgumentCaptor<WalletLedgerEntry> entry =
+                ArgumentCaptor.forClass(WalletLedgerEntry.class);
+        verify(ledger).save(entry.capture());
+        assertEquals(wallet.getId(), entry.getValue().getWalletId());
+        assertEquals(new BigDecimal("12.00"), entry.getValue().getDelta());
+        assertEquals(new BigDecimal("100.00"), wallet.getBalance());
+    }
+
+    @Test
+    void debitAppendsANegativeEntryWhenCovered() {
+        when(snapshots.findById(wallet.getId())).thenReturn(Optional.empty());
+        when(ledger.sumAfter(wallet.getId(), 0L)).thenReturn(BigDecimal.ZERO);
+
+        assertTrue(store.debit(wallet, new BigDecimal("100.00")));
+
+        InOrder order = inOrder(ledger);
+        order.verify(ledger).lockWallet(wallet.getId());
+        order.verify(ledger).sumAfter(wallet.getId(), 0L);
+        ArgumentCaptor<WalletLedgerEntry> entry =
+                ArgumentCaptor.forClass(WalletLedgerEntry.class);
+        verify(ledger).save(entry.capture());
+        assertEquals(new BigDecimal("-100.00"), entry.getValue().getDelta());
+    }
+
+    @Test
+    void debitIsRefusedWhenTheBalanceIsShort() {
+        when(snapshots.findById(wallet.getId())).thenReturn(Optional.empty());
+        when(ledger.sumAfter(wallet.getId(), 0L))
+                .thenReturn(new BigDecimal("-90.00"));
+
+        assertFalse(store.debit(wallet, new BigDecimal("10.01")));
+
+        verify(ledger, never()).save(any());
+    }
+}
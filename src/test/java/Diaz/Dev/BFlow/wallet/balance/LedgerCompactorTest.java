@@ -0,0 +1,139 @@
+package Diaz.Dev.BFlow.wallet.balance;
+
+import bflow.wallet.RepositoryLedgerWatermark;
+import bflow.wallet.RepositoryWalletLedger;
+import bflow.wallet.RepositoryWalletSnapshot;
+import bflow.wallet.balance.LedgerCompactionStats;
+import bflow.wallet.balance.LedgerCompactor;
+import bflow.wallet.balance.LedgerRollup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerCompactorTest {
+
+    @Mock
+    private RepositoryWalletLedger ledger;
+
+    @Mock
+    private RepositoryWalletSnapshot snapshots;
+
+    @Mock
+    private RepositoryLedgerWatermark watermarks;
+
+    private LedgerCompactor compactor(final String store, final int batch) {
+        return new LedgerCompactor(ledger, snapshots, watermarks, store, 60_000,
+                batch, 1_000);
+    }
+
+    @Test
+    void doesNothingWithTheColumnStore() {
+        LedgerCompactor compactor = compactor("column", 2);
+
+        assertEquals(0, compactor.compact());
+
+        verifyNoInteractions(ledger, snapshots, watermarks);
+        assertFalse(compactor.stats().enabled());
+    }
+
+    @Test
+    void createsOrAdvancesSnapshots() {
+        UUID fresh = UUID.randomUUID();
+        UUID known = UUID.randomUUID();
+        when(ledger.findLastIdBefore(eq(0L), any(Instant.class)))
+                .thenReturn(20L);
+        when(ledger.findPendingRollups(eq(0L), eq(20L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        new LedgerRollup(fresh, new BigDecimal("-5.00"),
+                                3L, 12L, null),
+                        new LedgerRollup(known, new BigDecimal("8.00"),
+                                2L, 20L, 7L)));
+        when(snapshots.create(eq(fresh), eq(new BigDecimal("-5.00")),
+                eq(12L), any(Instant.class))).thenReturn(1);
+        when(snapshots.advance(eq(known), eq(new BigDecimal("8.00")),
+                eq(7L), eq(20L), any(Instant.class))).thenReturn(1);
+
+        LedgerCompactor compactor = compactor("ledger", 10);
+
+        assertEquals(2, compactor.compact());
+
+        LedgerCompactionStats stats = compactor.stats();
+        assertEquals(1, stats.runs());
+        assertEquals(2, stats.walletsRolledUp());
+        assertEquals(5, stats.entriesRolledUp());
+        assertEquals(20, stats.watermark());
+        verify(watermarks).raise(eq(20L), any(Instant.class));
+    }
+
+    @Test
+    void stopsWhenAnotherNodeHoldsTheWholePage() {
+        UUID wallet = UUID.randomUUID();
+        when(ledger.findLastIdBefore(anyLong(), any(Instant.class)))
+                .thenReturn(5L);
+        when(ledger.findPendingRollups(eq(0L), eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(new LedgerRollup(
+                        wallet, BigDecimal.ONE, 1L, 5L, 4L)));
+        when(snapshots.advance(eq(wallet), any(), anyLong(), anyLong(),
+                any(Instant.class))).thenReturn(0);
+
+        assertEquals(0, compactor("ledger", 1).compact());
+
+        verify(ledger, times(1)).findPendingRollups(eq(0L), eq(5L), any());
+        verify(watermarks, never()).raise(anyLong(), any());
+    }
+
+    @Test
+    void scansOnlyEntriesAfterTheWatermark() {
+        when(watermarks.current()).thenReturn(1_000L);
+        when(ledger.findLastIdBefore(eq(1_000L), any(Instant.class)))
+                .thenReturn(1_004L);
+        when(ledger.findPendingRollups(eq(1_000L), eq(1_004L), any()))
+                .thenReturn(List.of());
+
+        assertEquals(0, compactor("ledger", 10).compact());
+
+        verify(watermarks).raise(eq(1_004L), any(Instant.class));
+    }
+
+    @Test
+    void keepsTheWatermarkWhenTheRunStopsEarly() {
+        UUID wallet = UUID.randomUUID();
+        when(ledger.findLastIdBefore(anyLong(), any(Instant.class)))
+                .thenReturn(9L);
+        when(ledger.findPendingRollups(eq(0L), eq(9L), any()))
+                .thenReturn(List.of(new LedgerRollup(
+                        wallet, BigDecimal.ONE, 1L, 9L, 4L)));
+        when(snapshots.advance(eq(wallet), any(), anyLong(), anyLong(),
+                any(Instant.class))).thenReturn(1);
+
+        assertEquals(1, new LedgerCompactor(ledger, snapshots, watermarks,
+                "ledger", 60_000, 1, 1).compact());
+
+        verify(watermarks, never()).raise(anyLong(), any());
+    }
+
+    @Test
+    void skipsWhenNothingHasSettled() {
+        when(ledger.findLastIdBefore(anyLong(), any(Instant.class)))
+                .thenReturn(null);
+
+        assertEquals(0, compactor("ledger", 10).compact());
+
+        verify(ledger, never()).findPendingRollups(anyLong(), anyLong(), any());
+        verifyNoInteractions(snapshots);
+    }
+}